@@ -0,0 +1,74 @@
+package com.rules.service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.service.RuleExecutionService;
+import com.rules.service.service.RulesetRegistry;
+import com.rules.service.service.TestRuleEngine;
+
+/**
+ * Inputs and rules shared by the benchmarks, and the engine wired together
+ * without Spring by the tests' {@link TestRuleEngine}
+ */
+final class BenchmarkFixtures {
+
+    /**
+     * Input with flat, nested and indexed fields
+     */
+    static final Map<String, Object> INPUT = Map.of(
+            "age", 25,
+            "country", "USA",
+            "name", "Alice",
+            "price", 120.0,
+            "user", Map.of("profile", Map.of("age", 30, "name", "alice")),
+            "company", Map.of("employees", List.of(
+                    Map.of("salary", 1000, "performance", Map.of("rating", 4.5)),
+                    Map.of("salary", 2000, "performance", Map.of("rating", 3.0)))));
+
+    /**
+     * Condition, transformation and output variable of rules of the shapes
+     * found in real rulesets
+     */
+    static final String[][] RULES = {
+            { "age >= 18", "'adult'", "age_category" },
+            { "age >= 21 AND country == 'USA'", "'eligible_voter'", "voting" },
+            { "user.profile.age >= 18", "STRING_UPPERCASE(user.profile.name)", "profile_name" },
+            { "company.employees[0].performance.rating >= 4.0", "company.employees[0].salary * 1.1", "bonus" },
+            { "name.length() > 3", "STRING_CONCAT(name, ' - ', country)", "label" },
+            { "price > 100 OR age < 25", "price * 0.9 + 5", "discounted_price" },
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A ruleset cycling through {@link #RULES}, each rule with its own
+     * thresholds and output variable so that no two rules share an expression
+     */
+    static List<Rule> syntheticRuleset(String rulesetName, int size) {
+        List<Rule> rules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String[] shape = RULES[i % RULES.length];
+            Rule rule = new Rule();
+            rule.setCondition(shape[0] + " AND age != " + (1000 + i));
+            rule.setTransformation(shape[1]);
+            rule.setOutputVariable(shape[2] + "_" + i);
+            rule.setRuleset(rulesetName);
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    /**
+     * An execution service reading from the given registry, with tracing
+     * off and metrics recorded in memory
+     */
+    static RuleExecutionService ruleExecutionService(RuleEngineProperties properties, RulesetRegistry registry) {
+        TestRuleEngine engine = new TestRuleEngine(properties);
+        return engine.ruleExecutionService(engine.ruleService(registry));
+    }
+}
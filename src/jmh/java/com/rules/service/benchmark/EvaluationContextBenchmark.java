@@ -0,0 +1,29 @@
+package com.rules.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.rules.service.service.RuleEvaluationContext;
+import com.rules.service.service.SpelContextConfigurationService;
+
+/**
+ * Creating the evaluation context every execution starts with
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvaluationContextBenchmark {
+
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+
+    @Benchmark
+    public RuleEvaluationContext createContext() {
+        return contextService.createEvaluationContext(BenchmarkFixtures.INPUT);
+    }
+}
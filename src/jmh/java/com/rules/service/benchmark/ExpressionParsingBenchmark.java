@@ -0,0 +1,47 @@
+package com.rules.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.ExpressionEngine;
+import com.rules.service.service.NativeExpressionEngine;
+import com.rules.service.service.SpelExpressionEngine;
+
+/**
+ * Parsing every condition and transformation of {@link BenchmarkFixtures#RULES},
+ * as done once per expression on an expression cache miss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpressionParsingBenchmark {
+
+    @Param({ "SPEL", "NATIVE" })
+    public RuleEngineProperties.Engine engine;
+
+    private ExpressionEngine expressionEngine;
+
+    @Setup
+    public void setUp() {
+        ExpressionEngine spel = new SpelExpressionEngine(new RuleEngineProperties());
+        expressionEngine = engine == RuleEngineProperties.Engine.NATIVE ? new NativeExpressionEngine(spel) : spel;
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String[] rule : BenchmarkFixtures.RULES) {
+            blackhole.consume(expressionEngine.parse("benchmark", rule[0]));
+            blackhole.consume(expressionEngine.parse("benchmark", rule[1]));
+        }
+    }
+}
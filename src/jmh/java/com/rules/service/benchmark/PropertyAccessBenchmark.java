@@ -0,0 +1,67 @@
+package com.rules.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.rules.service.service.PropertyAccessWrapper;
+import com.rules.service.service.PropertyPath;
+
+/**
+ * Reading flat, nested and indexed paths of the input through
+ * {@link PropertyAccessWrapper#get}, by path text as SpEL does and by
+ * pre-tokenized path as the native engine does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PropertyAccessBenchmark {
+
+    private PropertyAccessWrapper wrapper;
+    private PropertyPath nestedPath;
+    private PropertyPath indexedPath;
+
+    @Setup
+    public void setUp() {
+        wrapper = new PropertyAccessWrapper(BenchmarkFixtures.INPUT);
+        wrapper.addOutputVariable("age_category", "adult");
+        nestedPath = PropertyPath.of("user.profile.name");
+        indexedPath = PropertyPath.of("company.employees[1].performance.rating");
+    }
+
+    @Benchmark
+    public Object flat() {
+        return wrapper.get("age");
+    }
+
+    @Benchmark
+    public Object outputVariable() {
+        return wrapper.get("age_category");
+    }
+
+    @Benchmark
+    public Object nested() {
+        return wrapper.get("user.profile.name");
+    }
+
+    @Benchmark
+    public Object indexed() {
+        return wrapper.get("company.employees[1].performance.rating");
+    }
+
+    @Benchmark
+    public Object nestedTokenized() {
+        return wrapper.get(nestedPath);
+    }
+
+    @Benchmark
+    public Object indexedTokenized() {
+        return wrapper.get(indexedPath);
+    }
+}
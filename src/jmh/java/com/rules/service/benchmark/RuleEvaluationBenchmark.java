@@ -0,0 +1,57 @@
+package com.rules.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.ExpressionCacheService;
+import com.rules.service.service.RuleEvaluationContext;
+import com.rules.service.service.RuleExpression;
+import com.rules.service.service.SpelContextConfigurationService;
+
+/**
+ * Evaluating a single rule with a nested condition and a function call
+ * transformation against a fresh context, as the first rule of an
+ * execution is
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RuleEvaluationBenchmark {
+
+    @Param({ "SPEL", "NATIVE" })
+    public RuleEngineProperties.Engine engine;
+
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+    private RuleExpression condition;
+    private RuleExpression transformation;
+    private String outputVariable;
+
+    @Setup
+    public void setUp() {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.setEngine(engine);
+        ExpressionCacheService expressionCache = new ExpressionCacheService(properties);
+        String[] rule = BenchmarkFixtures.RULES[2];
+        condition = expressionCache.getExpression("benchmark", null, rule[0]);
+        transformation = expressionCache.getExpression("benchmark", null, rule[1]);
+        outputVariable = rule[2];
+    }
+
+    @Benchmark
+    public RuleEvaluationContext evaluateRule() {
+        RuleEvaluationContext context = contextService.createEvaluationContext(BenchmarkFixtures.INPUT);
+        if (Boolean.TRUE.equals(condition.getValue(context, Boolean.class))) {
+            contextService.addOutputVariable(context, outputVariable, transformation.getValue(context));
+        }
+        return context;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rules.service.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.RuleExecutionService;
+import com.rules.service.service.RulesetRegistry;
+
+/**
+ * Full {@link RuleExecutionService#executeRuleset} of small, medium and large
+ * synthetic rulesets, in the default configuration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RulesetExecutionBenchmark {
+
+    private static final String RULESET = "benchmark";
+
+    @Param({ "10", "100", "1000" })
+    public int rules;
+
+    private RuleExecutionService ruleExecutionService;
+
+    @Setup
+    public void setUp() {
+        RulesetRegistry registry = new RulesetRegistry();
+        registry.publish(RULESET, BenchmarkFixtures.syntheticRuleset(RULESET, rules));
+        ruleExecutionService = BenchmarkFixtures.ruleExecutionService(new RuleEngineProperties(), registry);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ruleExecutionService.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> executeRuleset() {
+        return ruleExecutionService.executeRuleset(RULESET, BenchmarkFixtures.INPUT);
+    }
+}
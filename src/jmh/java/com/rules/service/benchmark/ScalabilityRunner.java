@@ -0,0 +1,333 @@
+package com.rules.service.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.RuleExecutionService;
+import com.rules.service.service.RulesetRegistry;
+
+/**
+ * Measures how the throughput, latency and allocation rate of rule
+ * execution scale with the number of rules, the chaining depth of the
+ * rules, the nesting depth and size of the input, and the number of
+ * threads executing at once. Run with {@code ./gradlew scalability}.
+ *
+ * Arguments are {@code key=value} pairs:
+ * <ul>
+ * <li>{@code rules}, {@code chain}, {@code nesting}, {@code payload},
+ * {@code threads}: comma-separated values of each dimension; the first
+ * value is the dimension's baseline</li>
+ * <li>{@code mode}: execution modes, such as {@code per-rule,generated}</li>
+ * <li>{@code grid}: {@code sweep} (default) varies one dimension at a time
+ * with the others at their baseline, {@code full} runs every
+ * combination</li>
+ * <li>{@code warmup}, {@code duration}: seconds per point</li>
+ * <li>{@code out}: directory of {@code scalability.csv} and
+ * {@code scalability.json}</li>
+ * </ul>
+ */
+public final class ScalabilityRunner {
+
+    private static final String RULESET = "scalability";
+    // Inputs are cycled through, so that the JIT does not see a single input
+    private static final int INPUTS = 64;
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "rules", "100,10,1000,10000",
+            "chain", "0,4,16,64",
+            "nesting", "2,1,4,8,16",
+            "payload", "10,1,100,1000",
+            "threads", "1,2,4,8",
+            "mode", "per-rule",
+            "grid", "sweep",
+            "warmup", "2",
+            "duration", "5",
+            "out", "build/results/scalability");
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * One point of the parameter grid
+     *
+     * @param series The dimension varied to reach this point, or
+     *               {@code full} for full grids
+     */
+    record Point(String series, SyntheticWorkload workload, int threads, RuleEngineProperties.ExecutionMode mode) {
+    }
+
+    /**
+     * Measurements of one point. Latencies are in microseconds.
+     */
+    record Result(String series, int rules, int chainDepth, int nestingDepth, int payloadSize, int threads,
+            String mode, long operations, long failures, double throughputPerSecond, double p50Micros,
+            double p99Micros, double maxMicros, double allocatedBytesPerOperation,
+            double allocationRateMbPerSecond) {
+    }
+
+    private ScalabilityRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown argument '" + arg + "', expected one of "
+                        + DEFAULTS.keySet() + " as key=value");
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        long warmupNanos = (long) (Double.parseDouble(options.get("warmup")) * 1e9);
+        long durationNanos = (long) (Double.parseDouble(options.get("duration")) * 1e9);
+        List<Point> points = grid(options);
+
+        System.out.printf(Locale.ROOT, "%-8s %6s %5s %7s %7s %7s %-8s %12s %10s %10s %12s%n", "series", "rules",
+                "chain", "nesting", "payload", "threads", "mode", "ops/s", "p50 us", "p99 us", "B/op");
+        List<Result> results = new ArrayList<>(points.size());
+        for (Point point : points) {
+            Result result = measure(point, warmupNanos, durationNanos);
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-8s %6d %5d %7d %7d %7d %-8s %12.0f %10.1f %10.1f %12.0f%n",
+                    result.series(), result.rules(), result.chainDepth(), result.nestingDepth(),
+                    result.payloadSize(), result.threads(), result.mode(), result.throughputPerSecond(),
+                    result.p50Micros(), result.p99Micros(), result.allocatedBytesPerOperation());
+        }
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out);
+        writeCsv(out.resolve("scalability.csv"), results);
+        writeJson(out.resolve("scalability.json"), options, results);
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    /**
+     * The points to measure, in order
+     */
+    static List<Point> grid(Map<String, String> options) {
+        Map<String, int[]> dimensions = new LinkedHashMap<>();
+        for (String dimension : List.of("rules", "chain", "nesting", "payload", "threads")) {
+            int[] values = Arrays.stream(options.get(dimension).split(",")).map(String::trim)
+                    .mapToInt(Integer::parseInt).toArray();
+            int min = dimension.equals("chain") ? 0 : 1;
+            if (values.length == 0 || Arrays.stream(values).anyMatch(value -> value < min)) {
+                throw new IllegalArgumentException("Invalid values for " + dimension + ": "
+                        + options.get(dimension));
+            }
+            dimensions.put(dimension, values);
+        }
+        List<RuleEngineProperties.ExecutionMode> modes = Arrays.stream(options.get("mode").split(","))
+                .map(mode -> RuleEngineProperties.ExecutionMode.valueOf(
+                        mode.trim().toUpperCase(Locale.ROOT).replace('-', '_')))
+                .toList();
+
+        Map<String, Integer> baseline = new LinkedHashMap<>();
+        dimensions.forEach((dimension, values) -> baseline.put(dimension, values[0]));
+        List<Point> points = new ArrayList<>();
+        for (RuleEngineProperties.ExecutionMode mode : modes) {
+            switch (options.get("grid")) {
+                case "sweep" -> {
+                    int before = points.size();
+                    dimensions.forEach((dimension, values) -> {
+                        // Dimensions with a single value stay at it
+                        if (values.length > 1) {
+                            Arrays.stream(values).sorted().forEach(value -> {
+                                Map<String, Integer> point = new LinkedHashMap<>(baseline);
+                                point.put(dimension, value);
+                                points.add(point(dimension, point, mode));
+                            });
+                        }
+                    });
+                    if (points.size() == before) {
+                        points.add(point("baseline", baseline, mode));
+                    }
+                }
+                case "full" -> {
+                    for (int rules : dimensions.get("rules")) {
+                        for (int chain : dimensions.get("chain")) {
+                            for (int nesting : dimensions.get("nesting")) {
+                                for (int payload : dimensions.get("payload")) {
+                                    for (int threads : dimensions.get("threads")) {
+                                        points.add(point("full", Map.of("rules", rules, "chain", chain,
+                                                "nesting", nesting, "payload", payload, "threads", threads), mode));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown grid '" + options.get("grid")
+                        + "', expected sweep or full");
+            }
+        }
+        return points;
+    }
+
+    private static Point point(String series, Map<String, Integer> values, RuleEngineProperties.ExecutionMode mode) {
+        return new Point(series, new SyntheticWorkload(values.get("rules"), values.get("chain"),
+                values.get("nesting"), values.get("payload")), values.get("threads"), mode);
+    }
+
+    /**
+     * Execute the point's ruleset from its threads for the warmup, then
+     * measure for the duration
+     */
+    static Result measure(Point point, long warmupNanos, long durationNanos) throws Exception {
+        SyntheticWorkload workload = point.workload();
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.setExecutionMode(point.mode());
+        // Keep every expression of large rulesets cached
+        properties.getExpressionCache().setMaxSize(Math.max(properties.getExpressionCache().getMaxSize(),
+                4 * workload.rules()));
+        RulesetRegistry registry = new RulesetRegistry();
+        registry.publish(RULESET, workload.ruleset(RULESET));
+        List<Map<String, Object>> inputs = IntStream.range(0, INPUTS).mapToObj(workload::input).toList();
+
+        RuleExecutionService ruleExecutionService = BenchmarkFixtures.ruleExecutionService(properties, registry);
+        try {
+            run(ruleExecutionService, inputs, point.threads(), warmupNanos);
+            Worker[] workers = run(ruleExecutionService, inputs, point.threads(), durationNanos);
+
+            Histogram latencies = new Histogram(3);
+            long operations = 0;
+            long failures = 0;
+            long allocatedBytes = 0;
+            long elapsedNanos = 0;
+            for (Worker worker : workers) {
+                latencies.add(worker.latencies);
+                operations += worker.operations;
+                failures += worker.failures;
+                allocatedBytes += worker.allocatedBytes;
+                elapsedNanos = Math.max(elapsedNanos, worker.elapsedNanos);
+            }
+            double seconds = elapsedNanos / 1e9;
+            return new Result(point.series(), workload.rules(), workload.chainDepth(), workload.nestingDepth(),
+                    workload.payloadSize(), point.threads(), point.mode().name().toLowerCase(Locale.ROOT)
+                            .replace('_', '-'),
+                    operations, failures, operations / seconds,
+                    latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3,
+                    latencies.getMaxValue() / 1e3, operations == 0 ? 0 : (double) allocatedBytes / operations,
+                    allocatedBytes / seconds / (1024 * 1024));
+        } finally {
+            ruleExecutionService.shutdown();
+        }
+    }
+
+    private static Worker[] run(RuleExecutionService ruleExecutionService, List<Map<String, Object>> inputs,
+            int threads, long durationNanos) throws InterruptedException {
+        CyclicBarrier start = new CyclicBarrier(threads);
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(ruleExecutionService, inputs, i, start, durationNanos);
+            running[i] = new Thread(workers[i], "scalability-" + i);
+            running[i].start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        for (Worker worker : workers) {
+            if (worker.error != null) {
+                throw new IllegalStateException("Benchmark thread failed", worker.error);
+            }
+        }
+        return workers;
+    }
+
+    /**
+     * Executes the ruleset in a loop on its own thread, recording latencies
+     * and the bytes the thread allocates
+     */
+    private static final class Worker implements Runnable {
+
+        private final RuleExecutionService ruleExecutionService;
+        private final List<Map<String, Object>> inputs;
+        private final int offset;
+        private final CyclicBarrier start;
+        private final long durationNanos;
+        private final Histogram latencies = new Histogram(3);
+        private long operations;
+        private long failures;
+        private long allocatedBytes;
+        private long elapsedNanos;
+        private Throwable error;
+
+        Worker(RuleExecutionService ruleExecutionService, List<Map<String, Object>> inputs, int offset,
+                CyclicBarrier start, long durationNanos) {
+            this.ruleExecutionService = ruleExecutionService;
+            this.inputs = inputs;
+            this.offset = offset;
+            this.start = start;
+            this.durationNanos = durationNanos;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+                long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long started = System.nanoTime();
+                long deadline = started + durationNanos;
+                long now = started;
+                int next = offset;
+                while (now < deadline) {
+                    Map<String, Object> input = inputs.get(next++ % inputs.size());
+                    try {
+                        ruleExecutionService.executeRuleset(RULESET, input);
+                    } catch (RuntimeException e) {
+                        failures++;
+                    }
+                    long finished = System.nanoTime();
+                    latencies.recordValue(finished - now);
+                    operations++;
+                    now = finished;
+                }
+                elapsedNanos = now - started;
+                allocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+    }
+
+    private static void writeCsv(Path file, List<Result> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("series,rules,chainDepth,nestingDepth,payloadSize,threads,mode,operations,failures,"
+                    + "throughputPerSecond,p50Micros,p99Micros,maxMicros,allocatedBytesPerOperation,"
+                    + "allocationRateMbPerSecond");
+            for (Result r : results) {
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.1f,%.1f%n",
+                        r.series(), r.rules(), r.chainDepth(), r.nestingDepth(), r.payloadSize(), r.threads(),
+                        r.mode(), r.operations(), r.failures(), r.throughputPerSecond(), r.p50Micros(),
+                        r.p99Micros(), r.maxMicros(), r.allocatedBytesPerOperation(),
+                        r.allocationRateMbPerSecond());
+            }
+        }
+    }
+
+    private static void writeJson(Path file, Map<String, String> options, List<Result> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("options", new TreeMap<>(options));
+        report.put("results", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+}
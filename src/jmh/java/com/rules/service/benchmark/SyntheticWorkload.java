@@ -0,0 +1,118 @@
+package com.rules.service.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.rules.service.model.Rule;
+
+/**
+ * Generates rulesets and inputs shaped like the README examples (user
+ * eligibility, e-commerce pricing and nested company data), scaled along
+ * the dimensions of the scalability runner
+ *
+ * @param rules        Number of rules in the ruleset
+ * @param chainDepth   Number of rules, at the start of the ruleset, that
+ *                     each read the output of the rule before them
+ * @param nestingDepth Depth of the nested object the rules read, with
+ *                     {@code account.level1.level2...}
+ * @param payloadSize  Number of order items in the input
+ */
+record SyntheticWorkload(int rules, int chainDepth, int nestingDepth, int payloadSize) {
+
+    private static final String[] COUNTRIES = { "USA", "DE", "FR", "JP" };
+    private static final String[] TIERS = { "GOLD", "SILVER", "BRONZE" };
+
+    /**
+     * Path of the deepest nested object, such as
+     * {@code account.level1.level2}
+     */
+    String nestedPath() {
+        StringBuilder path = new StringBuilder("account");
+        for (int level = 1; level < nestingDepth; level++) {
+            path.append(".level").append(level);
+        }
+        return path.toString();
+    }
+
+    /**
+     * The ruleset. Chained rules come first and apply successive discounts,
+     * like the pricing example; every other rule stands alone and has its
+     * own constants, so that no two rules share an expression.
+     */
+    List<Rule> ruleset(String rulesetName) {
+        List<Rule> ruleset = new ArrayList<>(rules);
+        int chained = Math.min(chainDepth, rules);
+        for (int i = 0; i < chained; i++) {
+            if (i == 0) {
+                ruleset.add(rule(rulesetName, "customer.type == 'premium'", "price * 0.9", "chain_price_0"));
+            } else {
+                String previous = "chain_price_" + (i - 1);
+                ruleset.add(rule(rulesetName, previous + " > " + i, previous + " * 0.99", "chain_price_" + i));
+            }
+        }
+        String nested = nestedPath();
+        for (int i = chained; i < rules; i++) {
+            int item = i % payloadSize;
+            ruleset.add(switch (i % 5) {
+                case 0 -> rule(rulesetName, "age >= " + (18 + i % 50) + " AND country == '"
+                        + COUNTRIES[i % COUNTRIES.length] + "'", "'eligible'", "eligibility_" + i);
+                case 1 -> rule(rulesetName, "age >= " + (i % 50) + " AND name != null",
+                        "STRING_CONCAT('Welcome voter: ', name)", "welcome_message_" + i);
+                case 2 -> rule(rulesetName, nested + ".score >= " + i % 1000,
+                        nested + ".tier == '" + TIERS[i % TIERS.length] + "'", "tier_match_" + i);
+                case 3 -> rule(rulesetName, "order.items[" + item + "].quantity >= " + i % 10,
+                        "order.items[" + item + "].price * 0.95", "item_price_" + i);
+                default -> rule(rulesetName, "customer.loyaltyPoints >= " + i, "price - " + i % 100,
+                        "final_price_" + i);
+            });
+        }
+        return ruleset;
+    }
+
+    /**
+     * An input, varied by seed, that every rule of {@link #ruleset} can read
+     */
+    Map<String, Object> input(int seed) {
+        Map<String, Object> input = new HashMap<>();
+        input.put("age", 18 + seed % 60);
+        input.put("country", COUNTRIES[seed % COUNTRIES.length]);
+        input.put("name", "user-" + seed);
+        input.put("price", 100.0 + seed % 500);
+        input.put("customer", Map.of(
+                "type", seed % 2 == 0 ? "premium" : "standard",
+                "loyaltyPoints", seed * 37 % 2000));
+
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("score", seed * 13 % 1000);
+        nested.put("tier", TIERS[seed % TIERS.length]);
+        for (int level = nestingDepth - 1; level >= 1; level--) {
+            Map<String, Object> parent = new LinkedHashMap<>();
+            parent.put("id", level);
+            parent.put("level" + level, nested);
+            nested = parent;
+        }
+        input.put("account", nested);
+
+        List<Map<String, Object>> items = new ArrayList<>(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            items.add(Map.of(
+                    "sku", "SKU-" + i,
+                    "quantity", (seed + i) % 20,
+                    "price", 10.0 + (seed + i) % 90));
+        }
+        input.put("order", Map.of("items", items));
+        return input;
+    }
+
+    private static Rule rule(String rulesetName, String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset(rulesetName);
+        return rule;
+    }
+}
@@ -2,8 +2,10 @@ package com.rules.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RulesServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(RulesServiceApplication.class, args);
@@ -0,0 +1,479 @@
+package com.rules.service.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Configuration of the rule engine, bound from the {@code rules.*} properties.
+ * Settings under {@code rules.rulesets.<name>} override the global defaults for
+ * a single ruleset.
+ */
+@ConfigurationProperties(prefix = "rules")
+public class RuleEngineProperties {
+
+    /**
+     * Default expression engine for all rulesets
+     */
+    private Engine engine = Engine.SPEL;
+    /**
+     * Default execution mode for all rulesets
+     */
+    private ExecutionMode executionMode = ExecutionMode.PER_RULE;
+    private final ExpressionCache expressionCache = new ExpressionCache();
+    private final Spel spel = new Spel();
+    private final Parallel parallel = new Parallel();
+    private final ConditionIndex conditionIndex = new ConditionIndex();
+    private final Batch batch = new Batch();
+    private final Reactive reactive = new Reactive();
+    private final Trace trace = new Trace();
+    private final Metrics metrics = new Metrics();
+    private Map<String, Ruleset> rulesets = new HashMap<>();
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public ExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
+    public Spel getSpel() {
+        return spel;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public ConditionIndex getConditionIndex() {
+        return conditionIndex;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Map<String, Ruleset> getRulesets() {
+        return rulesets;
+    }
+
+    public void setRulesets(Map<String, Ruleset> rulesets) {
+        this.rulesets = rulesets;
+    }
+
+    /**
+     * Resolve the SpEL compiler mode for a ruleset, falling back to the global
+     * mode when the ruleset does not override it
+     */
+    public SpelCompilerMode getCompilerMode(String rulesetName) {
+        Ruleset ruleset = rulesetName != null ? rulesets.get(rulesetName) : null;
+        if (ruleset != null && ruleset.getCompilerMode() != null) {
+            return ruleset.getCompilerMode();
+        }
+        return spel.getCompilerMode();
+    }
+
+    /**
+     * Resolve the expression engine for a ruleset, falling back to the global
+     * engine when the ruleset does not override it
+     */
+    public Engine getEngine(String rulesetName) {
+        Ruleset ruleset = rulesetName != null ? rulesets.get(rulesetName) : null;
+        if (ruleset != null && ruleset.getEngine() != null) {
+            return ruleset.getEngine();
+        }
+        return engine;
+    }
+
+    /**
+     * Resolve the execution mode for a ruleset, falling back to the global
+     * mode when the ruleset does not override it
+     */
+    public ExecutionMode getExecutionMode(String rulesetName) {
+        Ruleset ruleset = rulesetName != null ? rulesets.get(rulesetName) : null;
+        if (ruleset != null && ruleset.getExecutionMode() != null) {
+            return ruleset.getExecutionMode();
+        }
+        return executionMode;
+    }
+
+    /**
+     * Whether every execution of a ruleset is traced, rather than a sample
+     */
+    public boolean isTraced(String rulesetName) {
+        Ruleset ruleset = rulesetName != null ? rulesets.get(rulesetName) : null;
+        return ruleset != null && Boolean.TRUE.equals(ruleset.getTrace());
+    }
+
+    /**
+     * Available expression engines
+     */
+    public enum Engine {
+        /**
+         * Spring Expression Language, optionally compiled to bytecode
+         */
+        SPEL,
+        /**
+         * Purpose-built engine for the rule language; falls back to SpEL for
+         * expressions it does not support
+         */
+        NATIVE
+    }
+
+    /**
+     * How the rules of a ruleset are run
+     */
+    public enum ExecutionMode {
+        /**
+         * Iterate over the rules, looking up each expression in the cache
+         */
+        PER_RULE,
+        /**
+         * Generate one class per ruleset that evaluates all rules as
+         * straight-line code
+         */
+        GENERATED,
+        /**
+         * Iterate over the rules in stages of independent rules, running the
+         * rules of a stage in parallel
+         */
+        PARALLEL,
+        /**
+         * Iterate over the rules, evaluating conditions through a network
+         * that shares identical sub-conditions between rules
+         */
+        NETWORK
+    }
+
+    public static class ExpressionCache {
+        /**
+         * Maximum number of parsed expressions kept in memory
+         */
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Spel {
+        /**
+         * Default compiler mode for all rulesets. Mixed only compiles
+         * expressions that are evaluated often, and re-evaluates an expression
+         * in the interpreter when its compiled code throws.
+         */
+        private SpelCompilerMode compilerMode = SpelCompilerMode.MIXED;
+
+        public SpelCompilerMode getCompilerMode() {
+            return compilerMode;
+        }
+
+        public void setCompilerMode(SpelCompilerMode compilerMode) {
+            this.compilerMode = compilerMode;
+        }
+    }
+
+    public static class Parallel {
+        /**
+         * Number of threads running independent rules
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Smallest stage of independent rules that is split across threads;
+         * smaller stages run on the calling thread
+         */
+        private int minStageSize = 4;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMinStageSize() {
+            return minStageSize;
+        }
+
+        public void setMinStageSize(int minStageSize) {
+            this.minStageSize = minStageSize;
+        }
+    }
+
+    public static class ConditionIndex {
+        /**
+         * Whether to skip rules whose leading equality or range condition
+         * cannot match the input
+         */
+        private boolean enabled = true;
+
+        /**
+         * Smallest ruleset that is indexed
+         */
+        private int minRules = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinRules() {
+            return minRules;
+        }
+
+        public void setMinRules(int minRules) {
+            this.minRules = minRules;
+        }
+    }
+
+    public static class Batch {
+        /**
+         * Number of threads executing the inputs of a batch request
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Largest number of streamed inputs being executed or waiting for
+         * their result to be written; reading the stream pauses until one
+         * completes
+         */
+        private int maxInFlight = 256;
+
+        /**
+         * Whether batches evaluate conditions column by column over blocks
+         * of inputs, rather than input by input
+         */
+        private boolean columnar = true;
+
+        /**
+         * Whether batch inputs are executed on virtual threads instead of a
+         * pool of parallelism platform threads, so that rules blocking in
+         * custom functions do not hold a platform thread
+         */
+        private boolean virtualThreads = false;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public boolean isColumnar() {
+            return columnar;
+        }
+
+        public void setColumnar(boolean columnar) {
+            this.columnar = columnar;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    public static class Reactive {
+        /**
+         * Whether to serve the reactive execution endpoints
+         */
+        private boolean enabled = false;
+
+        /**
+         * Port of the Netty server serving the reactive endpoints, 0 for any
+         * free port
+         */
+        private int port = 8081;
+
+        /**
+         * Largest request body in bytes read into memory as a whole, as by
+         * the execute and batch endpoints, -1 for no limit
+         */
+        private int maxInMemorySize = 64 * 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getMaxInMemorySize() {
+            return maxInMemorySize;
+        }
+
+        public void setMaxInMemorySize(int maxInMemorySize) {
+            this.maxInMemorySize = maxInMemorySize;
+        }
+    }
+
+    public static class Trace {
+        /**
+         * Trace one in this many executions of every ruleset, 0 to only trace
+         * rulesets with tracing on and requests asking for a trace
+         */
+        private int sampleRate = 0;
+
+        /**
+         * Number of most recent traces kept in memory
+         */
+        private int capacity = 256;
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    public static class Metrics {
+        /**
+         * Time the condition and transformation of every rule in one in this
+         * many executions, 0 to never time individual rules
+         */
+        private int ruleSampleRate = 100;
+
+        /**
+         * Measure the bytes allocated by one in this many executions, 0 to
+         * never measure them
+         */
+        private int allocationSampleRate = 100;
+
+        public int getRuleSampleRate() {
+            return ruleSampleRate;
+        }
+
+        public void setRuleSampleRate(int ruleSampleRate) {
+            this.ruleSampleRate = ruleSampleRate;
+        }
+
+        public int getAllocationSampleRate() {
+            return allocationSampleRate;
+        }
+
+        public void setAllocationSampleRate(int allocationSampleRate) {
+            this.allocationSampleRate = allocationSampleRate;
+        }
+    }
+
+    public static class Ruleset {
+        /**
+         * Compiler mode for this ruleset, null to use the global default
+         */
+        private SpelCompilerMode compilerMode;
+
+        /**
+         * Expression engine for this ruleset, null to use the global default
+         */
+        private Engine engine;
+
+        /**
+         * Execution mode for this ruleset, null to use the global default
+         */
+        private ExecutionMode executionMode;
+
+        /**
+         * Whether every execution of this ruleset is traced
+         */
+        private Boolean trace;
+
+        public Boolean getTrace() {
+            return trace;
+        }
+
+        public void setTrace(Boolean trace) {
+            this.trace = trace;
+        }
+
+        public ExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+
+        public void setExecutionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        public void setEngine(Engine engine) {
+            this.engine = engine;
+        }
+
+        public SpelCompilerMode getCompilerMode() {
+            return compilerMode;
+        }
+
+        public void setCompilerMode(SpelCompilerMode compilerMode) {
+            this.compilerMode = compilerMode;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.rules.service.controller;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.rules.service.service.ExecutionTraceService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Traces the executions of requests sent with
+ * {@code X-Rules-Trace: true}
+ */
+@Component
+public class ExecutionTraceFilter extends OncePerRequestFilter {
+
+    private final ExecutionTraceService traceService;
+
+    public ExecutionTraceFilter(ExecutionTraceService traceService) {
+        this.traceService = traceService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!Boolean.parseBoolean(request.getHeader(ExecutionTraceService.TRACE_HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ExecutionTraceService.Scope scope = traceService.traceRequested();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+}
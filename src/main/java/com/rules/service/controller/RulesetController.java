@@ -1,23 +1,33 @@
 package com.rules.service.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.rules.service.dto.AddRuleRequest;
+import com.rules.service.dto.BatchItemResult;
 import com.rules.service.dto.CreateRulesetRequest;
+import com.rules.service.dto.ExecuteBatchRequest;
+import com.rules.service.dto.ExecuteBatchResponse;
 import com.rules.service.dto.ExecuteRulesetRequest;
 import com.rules.service.dto.ExecuteRulesetResponse;
 import com.rules.service.dto.ExecutionStats;
+import com.rules.service.dto.ExecutionTrace;
+import com.rules.service.dto.RuleCompilationStatus;
 import com.rules.service.model.Rule;
+import com.rules.service.service.BatchExecutionService;
+import com.rules.service.service.ExecutionTraceService;
 import com.rules.service.service.RuleExecutionService;
 import com.rules.service.service.RuleService;
 
@@ -28,6 +38,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/rulesets")
 @Tag(name = "Rulesets", description = "Operations related to rulesets")
@@ -35,11 +48,17 @@ public class RulesetController {
 
     private final RuleService ruleService;
     private final RuleExecutionService ruleExecutionService;
+    private final BatchExecutionService batchExecutionService;
+    private final ExecutionTraceService traceService;
 
     public RulesetController(RuleService ruleService,
-            RuleExecutionService ruleExecutionService) {
+            RuleExecutionService ruleExecutionService,
+            BatchExecutionService batchExecutionService,
+            ExecutionTraceService traceService) {
         this.ruleService = ruleService;
         this.ruleExecutionService = ruleExecutionService;
+        this.batchExecutionService = batchExecutionService;
+        this.traceService = traceService;
     }
 
     @Operation(summary = "Create a new ruleset", description = "Creates a new ruleset with the provided rules.", responses = {
@@ -85,13 +104,32 @@ public class RulesetController {
         return ResponseEntity.ok(rules);
     }
 
-    @Operation(summary = "Execute a ruleset", description = "Executes the ruleset with the given name and input data.")
+    @Operation(summary = "Get the compilation status of a ruleset", description = "Reports for every rule whether its condition and transformation currently run as compiled SpEL bytecode.")
+    @GetMapping("/{name}/compilation")
+    public ResponseEntity<List<RuleCompilationStatus>> getCompilationStatus(
+            @Parameter(description = "Name of the ruleset") @PathVariable("name") String name) {
+        try {
+            return ResponseEntity.ok(ruleExecutionService.getCompilationStatus(name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(summary = "Get recent execution traces of a ruleset", description = "Returns the most recent traced executions of the ruleset, newest first. Executions are traced when the ruleset has tracing on, when sampled, or when the request sent the X-Rules-Trace: true header.")
+    @GetMapping("/{name}/traces")
+    public ResponseEntity<List<ExecutionTrace>> getTraces(
+            @Parameter(description = "Name of the ruleset") @PathVariable("name") String name,
+            @Parameter(description = "Largest number of traces to return") @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(traceService.getTraces(name, limit));
+    }
+
+    @Operation(summary = "Execute a ruleset", description = "Executes the ruleset with the given name and input data. If requestedOutputs is set, only the rules those outputs depend on run and only those outputs are returned.")
     @PostMapping("/execute")
     public ResponseEntity<ExecuteRulesetResponse> executeRuleset(
             @RequestBody ExecuteRulesetRequest request) {
 
         Map<String, Object> outputVariables = ruleExecutionService.executeRuleset(request.getRulesetName(),
-                request.getInputData());
+                request.getInputData(), true, request.getRequestedOutputs());
         int ruleCount = ruleService.getRuleCountForRuleset(request.getRulesetName());
 
         ExecutionStats stats = new ExecutionStats(
@@ -100,4 +138,46 @@ public class RulesetController {
 
         return ResponseEntity.ok(new ExecuteRulesetResponse(outputVariables, stats));
     }
+
+    @Operation(summary = "Execute a ruleset against many inputs", description = "Executes the ruleset with the given name against every input of the batch, in parallel. Results are returned in input order; an input that fails reports its error without affecting the others.", responses = {
+            @ApiResponse(responseCode = "200", description = "Batch executed", content = @Content(schema = @Schema(implementation = ExecuteBatchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "No inputs given"),
+            @ApiResponse(responseCode = "404", description = "Ruleset not found")
+    })
+    @PostMapping("/{name}/execute-batch")
+    public ResponseEntity<ExecuteBatchResponse> executeBatch(
+            @Parameter(description = "Name of the ruleset") @PathVariable("name") String name,
+            @RequestBody ExecuteBatchRequest request) {
+        if (request.getInputs() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BatchItemResult> results;
+        try {
+            results = batchExecutionService.executeBatch(name, request.getInputs(), request.getRequestedOutputs());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        int failedItems = (int) results.stream().filter(result -> result.getError() != null).count();
+        return ResponseEntity.ok(new ExecuteBatchResponse(results, ruleService.getRuleCountForRuleset(name),
+                failedItems));
+    }
+
+    @Operation(summary = "Execute a ruleset against a stream of inputs", description = "Executes the ruleset with the given name against every line of a newline-delimited JSON body, streaming one line of result per input as it finishes. Results carry the position of their input and may arrive out of order; an input that is not valid JSON ends the stream with an error result.", responses = {
+            @ApiResponse(responseCode = "200", description = "Results streamed", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BatchItemResult.class))),
+            @ApiResponse(responseCode = "404", description = "Ruleset not found")
+    })
+    @PostMapping(value = "/{name}/execute-stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void executeStream(
+            @Parameter(description = "Name of the ruleset") @PathVariable("name") String name,
+            @Parameter(description = "Output variables to produce, all of them if not set") @RequestParam(name = "requestedOutputs", required = false) List<String> requestedOutputs,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try {
+            batchExecutionService.executeStream(name, requestedOutputs, request.getInputStream(),
+                    response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            // Thrown before anything is written
+            response.sendError(HttpStatus.NOT_FOUND.value());
+        }
+    }
 }
\ No newline at end of file
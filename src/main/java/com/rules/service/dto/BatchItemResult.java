@@ -0,0 +1,54 @@
+package com.rules.service.dto;
+
+import java.util.Map;
+
+/**
+ * Result of executing a ruleset against one input of a batch: either its
+ * output variables or the error that stopped it
+ */
+public class BatchItemResult {
+    private int index;
+    private Map<String, Object> outputVariables;
+    private String error;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, Map<String, Object> outputVariables, String error) {
+        this.index = index;
+        this.outputVariables = outputVariables;
+        this.error = error;
+    }
+
+    public static BatchItemResult success(int index, Map<String, Object> outputVariables) {
+        return new BatchItemResult(index, outputVariables, null);
+    }
+
+    public static BatchItemResult failure(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Map<String, Object> getOutputVariables() {
+        return outputVariables;
+    }
+
+    public void setOutputVariables(Map<String, Object> outputVariables) {
+        this.outputVariables = outputVariables;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
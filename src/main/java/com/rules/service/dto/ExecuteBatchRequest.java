@@ -0,0 +1,32 @@
+package com.rules.service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ExecuteBatchRequest {
+    private List<Map<String, Object>> inputs;
+    private List<String> requestedOutputs;
+
+    public ExecuteBatchRequest() {
+    }
+
+    public ExecuteBatchRequest(List<Map<String, Object>> inputs) {
+        this.inputs = inputs;
+    }
+
+    public List<Map<String, Object>> getInputs() {
+        return inputs;
+    }
+
+    public void setInputs(List<Map<String, Object>> inputs) {
+        this.inputs = inputs;
+    }
+
+    public List<String> getRequestedOutputs() {
+        return requestedOutputs;
+    }
+
+    public void setRequestedOutputs(List<String> requestedOutputs) {
+        this.requestedOutputs = requestedOutputs;
+    }
+}
@@ -0,0 +1,42 @@
+package com.rules.service.dto;
+
+import java.util.List;
+
+public class ExecuteBatchResponse {
+    private List<BatchItemResult> results;
+    private int totalRules;
+    private int failedItems;
+
+    public ExecuteBatchResponse() {
+    }
+
+    public ExecuteBatchResponse(List<BatchItemResult> results, int totalRules, int failedItems) {
+        this.results = results;
+        this.totalRules = totalRules;
+        this.failedItems = failedItems;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+
+    public int getTotalRules() {
+        return totalRules;
+    }
+
+    public void setTotalRules(int totalRules) {
+        this.totalRules = totalRules;
+    }
+
+    public int getFailedItems() {
+        return failedItems;
+    }
+
+    public void setFailedItems(int failedItems) {
+        this.failedItems = failedItems;
+    }
+}
@@ -1,10 +1,12 @@
 package com.rules.service.dto;
 
+import java.util.List;
 import java.util.Map;
 
 public class ExecuteRulesetRequest {
     private String rulesetName;
     private Map<String, Object> inputData;
+    private List<String> requestedOutputs;
 
     public ExecuteRulesetRequest() {
     }
@@ -29,4 +31,12 @@ public class ExecuteRulesetRequest {
     public void setInputData(Map<String, Object> inputData) {
         this.inputData = inputData;
     }
+
+    public List<String> getRequestedOutputs() {
+        return requestedOutputs;
+    }
+
+    public void setRequestedOutputs(List<String> requestedOutputs) {
+        this.requestedOutputs = requestedOutputs;
+    }
 }
\ No newline at end of file
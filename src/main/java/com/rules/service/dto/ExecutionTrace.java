@@ -0,0 +1,130 @@
+package com.rules.service.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A traced execution of a ruleset: its input, what each evaluated rule did,
+ * and its outputs or the error that stopped it
+ */
+public class ExecutionTrace {
+    private long id;
+    private String rulesetName;
+    private long rulesetVersion;
+    private String reason;
+    private Instant timestamp;
+    private long durationNanos;
+    private Map<String, Object> input;
+    private List<RuleTrace> rules;
+    private Map<String, Object> outputs;
+    private String error;
+
+    public ExecutionTrace() {
+    }
+
+    public ExecutionTrace(long id, String rulesetName, long rulesetVersion, String reason, Instant timestamp,
+            long durationNanos, Map<String, Object> input, List<RuleTrace> rules, Map<String, Object> outputs,
+            String error) {
+        this.id = id;
+        this.rulesetName = rulesetName;
+        this.rulesetVersion = rulesetVersion;
+        this.reason = reason;
+        this.timestamp = timestamp;
+        this.durationNanos = durationNanos;
+        this.input = input;
+        this.rules = rules;
+        this.outputs = outputs;
+        this.error = error;
+    }
+
+    /**
+     * Sequence number of the trace, increasing with every trace recorded
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getRulesetName() {
+        return rulesetName;
+    }
+
+    public void setRulesetName(String rulesetName) {
+        this.rulesetName = rulesetName;
+    }
+
+    public long getRulesetVersion() {
+        return rulesetVersion;
+    }
+
+    public void setRulesetVersion(long rulesetVersion) {
+        this.rulesetVersion = rulesetVersion;
+    }
+
+    /**
+     * Why the execution was traced: sampled, ruleset or requested
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    public Map<String, Object> getInput() {
+        return input;
+    }
+
+    public void setInput(Map<String, Object> input) {
+        this.input = input;
+    }
+
+    /**
+     * The rules that were evaluated, in ruleset order; empty for rulesets
+     * executed through a generated class
+     */
+    public List<RuleTrace> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<RuleTrace> rules) {
+        this.rules = rules;
+    }
+
+    public Map<String, Object> getOutputs() {
+        return outputs;
+    }
+
+    public void setOutputs(Map<String, Object> outputs) {
+        this.outputs = outputs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,63 @@
+package com.rules.service.dto;
+
+import java.util.UUID;
+
+public class RuleCompilationStatus {
+    private UUID ruleId;
+    private String outputVariable;
+    private String compilerMode;
+    private boolean conditionCompiled;
+    private boolean transformationCompiled;
+
+    public RuleCompilationStatus() {
+    }
+
+    public RuleCompilationStatus(UUID ruleId, String outputVariable, String compilerMode, boolean conditionCompiled,
+            boolean transformationCompiled) {
+        this.ruleId = ruleId;
+        this.outputVariable = outputVariable;
+        this.compilerMode = compilerMode;
+        this.conditionCompiled = conditionCompiled;
+        this.transformationCompiled = transformationCompiled;
+    }
+
+    public UUID getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(UUID ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getOutputVariable() {
+        return outputVariable;
+    }
+
+    public void setOutputVariable(String outputVariable) {
+        this.outputVariable = outputVariable;
+    }
+
+    public String getCompilerMode() {
+        return compilerMode;
+    }
+
+    public void setCompilerMode(String compilerMode) {
+        this.compilerMode = compilerMode;
+    }
+
+    public boolean isConditionCompiled() {
+        return conditionCompiled;
+    }
+
+    public void setConditionCompiled(boolean conditionCompiled) {
+        this.conditionCompiled = conditionCompiled;
+    }
+
+    public boolean isTransformationCompiled() {
+        return transformationCompiled;
+    }
+
+    public void setTransformationCompiled(boolean transformationCompiled) {
+        this.transformationCompiled = transformationCompiled;
+    }
+}
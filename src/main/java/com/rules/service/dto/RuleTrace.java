@@ -0,0 +1,109 @@
+package com.rules.service.dto;
+
+import java.util.UUID;
+
+/**
+ * What one rule did during a traced execution
+ */
+public class RuleTrace {
+    private int position;
+    private UUID ruleId;
+    private String outputVariable;
+    private Boolean conditionResult;
+    private Object output;
+    private String nullPropertyAccess;
+    private String error;
+    private long durationNanos;
+
+    public RuleTrace() {
+    }
+
+    public RuleTrace(int position, UUID ruleId, String outputVariable, Boolean conditionResult, Object output,
+            String nullPropertyAccess, String error, long durationNanos) {
+        this.position = position;
+        this.ruleId = ruleId;
+        this.outputVariable = outputVariable;
+        this.conditionResult = conditionResult;
+        this.output = output;
+        this.nullPropertyAccess = nullPropertyAccess;
+        this.error = error;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Position of the rule in its ruleset
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public UUID getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(UUID ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getOutputVariable() {
+        return outputVariable;
+    }
+
+    public void setOutputVariable(String outputVariable) {
+        this.outputVariable = outputVariable;
+    }
+
+    /**
+     * Result of the condition, null if it failed
+     */
+    public Boolean getConditionResult() {
+        return conditionResult;
+    }
+
+    public void setConditionResult(Boolean conditionResult) {
+        this.conditionResult = conditionResult;
+    }
+
+    /**
+     * Value written to the output variable, null if the rule did not fire
+     */
+    public Object getOutput() {
+        return output;
+    }
+
+    public void setOutput(Object output) {
+        this.output = output;
+    }
+
+    /**
+     * Message of a null property access that null-safe evaluation turned
+     * into a false condition or a null output
+     */
+    public String getNullPropertyAccess() {
+        return nullPropertyAccess;
+    }
+
+    public void setNullPropertyAccess(String nullPropertyAccess) {
+        this.nullPropertyAccess = nullPropertyAccess;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+}
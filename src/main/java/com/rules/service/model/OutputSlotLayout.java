@@ -0,0 +1,76 @@
+package com.rules.service.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed slot assignment for the output variables of a ruleset.
+ * Computed once per ruleset snapshot: every distinct output variable gets a
+ * slot, and every rule knows up front which slot it writes. Rules writing the
+ * same variable share its slot, so a later rule overwrites an earlier one.
+ */
+public final class OutputSlotLayout {
+
+    public static final int NO_SLOT = -1;
+
+    public static final OutputSlotLayout EMPTY = new OutputSlotLayout(new String[0], Map.of(), new int[0]);
+
+    private final String[] names;
+    private final Map<String, Integer> slots;
+    private final int[] ruleSlots;
+
+    private OutputSlotLayout(String[] names, Map<String, Integer> slots, int[] ruleSlots) {
+        this.names = names;
+        this.slots = slots;
+        this.ruleSlots = ruleSlots;
+    }
+
+    /**
+     * Assign slots to the output variables of the given rules, in rule order
+     */
+    public static OutputSlotLayout of(List<RuleDefinition> rules) {
+        Map<String, Integer> slots = new HashMap<>();
+        int[] ruleSlots = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            String outputVariable = rules.get(i).getOutputVariable();
+            Integer slot = slots.get(outputVariable);
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(outputVariable, slot);
+            }
+            ruleSlots[i] = slot;
+        }
+        String[] names = new String[slots.size()];
+        slots.forEach((name, slot) -> names[slot] = name);
+        return new OutputSlotLayout(names, slots, ruleSlots);
+    }
+
+    public int getSlotCount() {
+        return names.length;
+    }
+
+    /**
+     * Get the variable name held in a slot
+     */
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Get the slot of an output variable
+     *
+     * @return The slot, or {@link #NO_SLOT} if no rule writes this variable
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     * Get the slot written by the rule at the given position in the ruleset
+     */
+    public int getRuleSlot(int ruleIndex) {
+        return ruleSlots[ruleIndex];
+    }
+}
@@ -2,6 +2,8 @@ package com.rules.service.model;
 
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -26,6 +28,14 @@ public class Rule {
     @Column(nullable = false)
     private String ruleset;
 
+    /**
+     * Order of the rule in its ruleset. Ids are random, so rules are read
+     * back in the order of their positions.
+     */
+    @Column(name = "rule_position", nullable = false)
+    @ColumnDefault("0")
+    private long position;
+
     public Rule() {
     }
 
@@ -71,4 +81,12 @@ public class Rule {
     public void setRuleset(String ruleset) {
         this.ruleset = ruleset;
     }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
 }
\ No newline at end of file
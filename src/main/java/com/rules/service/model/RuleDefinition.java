@@ -0,0 +1,50 @@
+package com.rules.service.model;
+
+import java.util.UUID;
+
+/**
+ * Immutable, detached copy of a {@link Rule} used on the execution path
+ */
+public final class RuleDefinition {
+    private final UUID id;
+    private final String condition;
+    private final String transformation;
+    private final String outputVariable;
+    private final String ruleset;
+
+    public RuleDefinition(UUID id, String condition, String transformation, String outputVariable, String ruleset) {
+        this.id = id;
+        this.condition = condition;
+        this.transformation = transformation;
+        this.outputVariable = outputVariable;
+        this.ruleset = ruleset;
+    }
+
+    /**
+     * Create a definition from a (possibly managed) rule entity
+     */
+    public static RuleDefinition from(Rule rule) {
+        return new RuleDefinition(rule.getId(), rule.getCondition(), rule.getTransformation(),
+                rule.getOutputVariable(), rule.getRuleset());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public String getTransformation() {
+        return transformation;
+    }
+
+    public String getOutputVariable() {
+        return outputVariable;
+    }
+
+    public String getRuleset() {
+        return ruleset;
+    }
+}
@@ -0,0 +1,126 @@
+package com.rules.service.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Execution stages of a ruleset derived from the dependencies between its
+ * rules.
+ *
+ * A rule depends on an earlier rule when it reads that rule's output
+ * variable, writes a variable the earlier rule reads, or writes the same
+ * variable. Each rule is placed in the stage after the last stage holding one
+ * of its dependencies, so the rules within a stage are independent of each
+ * other and can run in any order, or at the same time, with the same results
+ * as running the whole ruleset in order.
+ *
+ * The graph also keeps the output slots every rule reads and writes, to find
+ * the rules a set of outputs depends on.
+ */
+public final class RuleDependencyGraph {
+
+    private final int[] ruleStages;
+    private final int[][] stages;
+    private final int[] writeSlots;
+    private final int[][] readSlots;
+
+    private RuleDependencyGraph(int[] ruleStages, int[][] stages, int[] writeSlots, int[][] readSlots) {
+        this.ruleStages = ruleStages;
+        this.stages = stages;
+        this.writeSlots = writeSlots;
+        this.readSlots = readSlots;
+    }
+
+    /**
+     * Group rules into stages
+     *
+     * @param ruleStages The stage of every rule, by position in the ruleset
+     * @param writeSlots The output slot written by every rule
+     * @param readSlots  The output slots read by every rule, null for a rule
+     *                   whose reads are unknown
+     */
+    public static RuleDependencyGraph of(int[] ruleStages, int[] writeSlots, int[][] readSlots) {
+        List<List<Integer>> grouped = new ArrayList<>();
+        for (int i = 0; i < ruleStages.length; i++) {
+            while (grouped.size() <= ruleStages[i]) {
+                grouped.add(new ArrayList<>());
+            }
+            grouped.get(ruleStages[i]).add(i);
+        }
+        int[][] stages = new int[grouped.size()][];
+        for (int stage = 0; stage < stages.length; stage++) {
+            stages[stage] = grouped.get(stage).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new RuleDependencyGraph(ruleStages.clone(), stages, writeSlots.clone(), readSlots.clone());
+    }
+
+    public int getStageCount() {
+        return stages.length;
+    }
+
+    /**
+     * Get the number of rules in a stage
+     */
+    public int getStageSize(int stage) {
+        return stages[stage].length;
+    }
+
+    /**
+     * Get the position in the ruleset of the n-th rule of a stage. The rules
+     * of a stage are kept in ruleset order.
+     */
+    public int getStageRule(int stage, int n) {
+        return stages[stage][n];
+    }
+
+    /**
+     * Get the stage of the rule at the given position in the ruleset
+     */
+    public int getRuleStage(int ruleIndex) {
+        return ruleStages[ruleIndex];
+    }
+
+    /**
+     * Size of the largest stage, the most rules that can run at the same time
+     */
+    public int getMaxStageWidth() {
+        int width = 0;
+        for (int[] stage : stages) {
+            width = Math.max(width, stage.length);
+        }
+        return width;
+    }
+
+    /**
+     * Find the rules that can affect the given output slots: every rule
+     * writing one of them, and, transitively, every earlier rule writing a
+     * slot such a rule reads. All writers of a slot are kept, since a later
+     * writer whose condition is false leaves the earlier value in place.
+     * Rules whose reads are unknown are always kept, with every rule before
+     * them, since they may also write variables, through assignments, that
+     * other rules read.
+     *
+     * @param outputSlots The requested output slots
+     * @return The positions of the required rules in the ruleset
+     */
+    public BitSet getRequiredRules(BitSet outputSlots) {
+        BitSet required = new BitSet(writeSlots.length);
+        BitSet neededSlots = (BitSet) outputSlots.clone();
+        for (int i = writeSlots.length - 1; i >= 0; i--) {
+            if (readSlots[i] == null) {
+                // May read anything written before it
+                required.set(0, i + 1);
+                return required;
+            }
+            if (!neededSlots.get(writeSlots[i])) {
+                continue;
+            }
+            required.set(i);
+            for (int slot : readSlots[i]) {
+                neededSlots.set(slot);
+            }
+        }
+        return required;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rules.service.model;
+
+import java.util.List;
+
+/**
+ * Immutable, fully loaded view of a ruleset at a given version.
+ * A new snapshot is published every time the ruleset changes, so a snapshot
+ * can be shared freely between concurrent executions.
+ * The output slot layout is computed once when the snapshot is created.
+ */
+public final class RulesetSnapshot {
+    private final String name;
+    private final long version;
+    private final List<RuleDefinition> rules;
+    private final OutputSlotLayout outputLayout;
+
+    public RulesetSnapshot(String name, long version, List<RuleDefinition> rules) {
+        this.name = name;
+        this.version = version;
+        this.rules = List.copyOf(rules);
+        this.outputLayout = OutputSlotLayout.of(this.rules);
+    }
+
+    /**
+     * Create a snapshot from rule entities
+     */
+    public static RulesetSnapshot of(String name, long version, List<Rule> rules) {
+        return new RulesetSnapshot(name, version, rules.stream().map(RuleDefinition::from).toList());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<RuleDefinition> getRules() {
+        return rules;
+    }
+
+    public OutputSlotLayout getOutputLayout() {
+        return outputLayout;
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+}
@@ -0,0 +1,153 @@
+package com.rules.service.reactive;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.rules.service.dto.BatchItemResult;
+import com.rules.service.dto.ExecuteBatchRequest;
+import com.rules.service.dto.ExecuteBatchResponse;
+import com.rules.service.dto.ExecuteRulesetRequest;
+import com.rules.service.dto.ExecuteRulesetResponse;
+import com.rules.service.dto.ExecutionStats;
+import com.rules.service.service.BatchExecutionService;
+import com.rules.service.service.ExecutionTraceService;
+import com.rules.service.service.RuleExecutionService;
+import com.rules.service.service.RuleService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking variants of the execution endpoints of
+ * {@link com.rules.service.controller.RulesetController}, with the same
+ * paths, request and response bodies.
+ *
+ * No rule runs on a Netty event loop: single executions run on virtual
+ * threads, batches on a scheduler for blocking work and streamed inputs on
+ * the batch pool. Streams are read only as fast as their results are
+ * written, through Reactor's backpressure.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rules.reactive", name = "enabled", havingValue = "true")
+public class ReactiveRulesetHandler {
+
+    private final RuleExecutionService ruleExecutionService;
+    private final RuleService ruleService;
+    private final BatchExecutionService batchExecutionService;
+    private final ExecutionTraceService traceService;
+
+    public ReactiveRulesetHandler(RuleExecutionService ruleExecutionService, RuleService ruleService,
+            BatchExecutionService batchExecutionService, ExecutionTraceService traceService) {
+        this.ruleExecutionService = ruleExecutionService;
+        this.ruleService = ruleService;
+        this.batchExecutionService = batchExecutionService;
+        this.traceService = traceService;
+    }
+
+    /**
+     * The routes of the reactive endpoints
+     */
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST("/api/rulesets/execute", this::executeRuleset)
+                .POST("/api/rulesets/{name}/execute-batch", this::executeBatch)
+                .POST("/api/rulesets/{name}/execute-stream", contentType(MediaType.APPLICATION_NDJSON),
+                        this::executeStream)
+                .build();
+    }
+
+    /**
+     * Execute a ruleset against one input
+     */
+    public Mono<ServerResponse> executeRuleset(ServerRequest request) {
+        return request.bodyToMono(ExecuteRulesetRequest.class)
+                .flatMap(body -> Mono.fromFuture(() -> traced(request, () -> ruleExecutionService.executeRulesetAsync(
+                        body.getRulesetName(), body.getInputData(), true, body.getRequestedOutputs())))
+                        .map(outputVariables -> new ExecuteRulesetResponse(outputVariables, new ExecutionStats(
+                                ruleService.getRuleCountForRuleset(body.getRulesetName()),
+                                outputVariables.size()))))
+                .flatMap(response -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.notFound().build());
+    }
+
+    /**
+     * Execute a ruleset against every input of a batch
+     */
+    public Mono<ServerResponse> executeBatch(ServerRequest request) {
+        String name = request.pathVariable("name");
+        return request.bodyToMono(ExecuteBatchRequest.class)
+                .filter(body -> body.getInputs() != null)
+                .flatMap(body -> Mono.fromCallable(() -> traced(request, () -> batchExecutionService.executeBatch(name,
+                        body.getInputs(), body.getRequestedOutputs())))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(results -> {
+                            int failedItems = (int) results.stream()
+                                    .filter(result -> result.getError() != null)
+                                    .count();
+                            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                    .bodyValue(new ExecuteBatchResponse(results,
+                                            ruleService.getRuleCountForRuleset(name), failedItems));
+                        })
+                        .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.notFound().build()))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+    }
+
+    /**
+     * Execute a ruleset against a newline-delimited JSON stream of inputs,
+     * streaming one line of result per input
+     */
+    public Mono<ServerResponse> executeStream(ServerRequest request) {
+        Flux<BatchItemResult> results;
+        try {
+            results = traced(request, () -> batchExecutionService.executeStream(request.pathVariable("name"),
+                    requestedOutputs(request.queryParams().get("requestedOutputs")),
+                    request.bodyToFlux(Object.class)));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.notFound().build();
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(results, BatchItemResult.class);
+    }
+
+    /**
+     * Start executions, tracing them if the request asked for it with the
+     * {@value ExecutionTraceService#TRACE_HEADER} header
+     */
+    private <T> T traced(ServerRequest request, Supplier<T> start) {
+        if (!Boolean.parseBoolean(request.headers().firstHeader(ExecutionTraceService.TRACE_HEADER))) {
+            return start.get();
+        }
+        ExecutionTraceService.Scope scope = traceService.traceRequested();
+        try {
+            return start.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Requested outputs given as repeated or comma-separated parameters, as
+     * the servlet endpoint accepts them
+     */
+    private static List<String> requestedOutputs(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+}
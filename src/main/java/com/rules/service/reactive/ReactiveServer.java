@@ -0,0 +1,95 @@
+package com.rules.service.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.config.RuleEngineProperties;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Netty server for the reactive execution endpoints, started with the
+ * application when {@code rules.reactive.enabled} is set.
+ *
+ * The servlet container keeps serving every endpoint of
+ * {@link com.rules.service.controller.RulesetController}; this server runs
+ * next to it on {@code rules.reactive.port} and only serves the execution
+ * endpoints of {@link ReactiveRulesetHandler}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rules.reactive", name = "enabled", havingValue = "true")
+public class ReactiveServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveServer.class);
+
+    private final ReactiveRulesetHandler handler;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final int maxInMemorySize;
+    private volatile DisposableServer server;
+
+    public ReactiveServer(ReactiveRulesetHandler handler, ObjectMapper objectMapper,
+            RuleEngineProperties properties) {
+        this.handler = handler;
+        this.objectMapper = objectMapper;
+        this.port = properties.getReactive().getPort();
+        this.maxInMemorySize = properties.getReactive().getMaxInMemorySize();
+    }
+
+    @Override
+    public void start() {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(handler.routes(),
+                handlerStrategies(objectMapper, maxInMemorySize));
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        logger.info("Reactive execution endpoints listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Codecs that read and write bodies with the application's JSON
+     * settings, buffering whole bodies of up to the given size
+     */
+    static HandlerStrategies handlerStrategies(ObjectMapper objectMapper, int maxInMemorySize) {
+        return HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                })
+                .build();
+    }
+
+    /**
+     * The port the server listens on, once started
+     */
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+}
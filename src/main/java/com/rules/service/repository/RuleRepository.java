@@ -4,11 +4,20 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.rules.service.model.Rule;
 
 @Repository
 public interface RuleRepository extends JpaRepository<Rule, UUID> {
-    List<Rule> findByRuleset(String ruleset);
-}
\ No newline at end of file
+    List<Rule> findByRulesetOrderByPositionAscIdAsc(String ruleset);
+
+    List<Rule> findAllByOrderByPositionAscIdAsc();
+
+    /**
+     * The position after the last rule of a ruleset, 0 for a new ruleset
+     */
+    @Query("SELECT COALESCE(MAX(r.position) + 1, 0) FROM Rule r WHERE r.ruleset = ?1")
+    long nextPosition(String ruleset);
+}
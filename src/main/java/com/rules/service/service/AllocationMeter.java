@@ -0,0 +1,60 @@
+package com.rules.service.service;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads how many bytes the current thread has allocated, from the
+ * per-thread allocation counters of {@link com.sun.management.ThreadMXBean}.
+ * Reading a counter does not allocate, so the difference between two
+ * readings is what the code in between allocated on this thread.
+ */
+public final class AllocationMeter {
+
+    /**
+     * Returned where allocations cannot be measured
+     */
+    public static final long UNSUPPORTED = -1;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private AllocationMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the JVM counts the bytes allocated by each thread
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Get the bytes allocated by the current thread since it started
+     *
+     * @return The allocated bytes, or {@link #UNSUPPORTED} if the JVM does not
+     *         count them or the current thread is a virtual thread
+     */
+    public static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : UNSUPPORTED;
+    }
+
+    /**
+     * Measure the bytes a task allocates on the current thread
+     *
+     * @return The allocated bytes, or {@link #UNSUPPORTED}
+     */
+    public static long measure(Runnable task) {
+        long before = allocatedBytes();
+        task.run();
+        long after = allocatedBytes();
+        return before == UNSUPPORTED || after == UNSUPPORTED ? UNSUPPORTED : after - before;
+    }
+}
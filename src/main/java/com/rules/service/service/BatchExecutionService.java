@@ -0,0 +1,459 @@
+package com.rules.service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.BatchItemResult;
+import com.rules.service.model.RulesetSnapshot;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Executes a ruleset against many inputs in one call.
+ *
+ * The ruleset is resolved and prepared once for the whole batch, then the
+ * inputs are executed on a dedicated pool whose size is set by
+ * {@code rules.batch.parallelism}, or on virtual threads with
+ * {@code rules.batch.virtual-threads}. Every input runs against the same ruleset
+ * snapshot, and a failing input is reported in its own result without
+ * affecting the others.
+ *
+ * Batches given as a list are split into chunks. Unless
+ * {@code rules.batch.columnar} is off, each chunk is executed in blocks whose
+ * conditions are evaluated column by column first (see
+ * {@link ColumnarConditions}), so that a condition decided for a block is not
+ * evaluated again for each of its inputs. Streams of newline-delimited
+ * JSON are read one input at a time, with at most
+ * {@code rules.batch.max-in-flight} inputs being executed or waiting for
+ * their result to be written, so memory use does not depend on the length of
+ * the stream and a slow reader of the results slows down reading the inputs.
+ * Results are written to the stream by a thread of its own, so threads of the
+ * pool never wait for a slow reader. Reactive streams of inputs are requested
+ * from their publisher under the same bound. Inputs read from either kind of
+ * stream are counted in {@code rules.stream.inputs}.
+ */
+@Service
+public class BatchExecutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchExecutionService.class);
+
+    // Chunks per thread, so that threads finishing early can take over remaining work
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Inputs whose conditions are evaluated together
+    private static final int COLUMN_BLOCK_SIZE = 1024;
+
+    // Results written to a stream before it is flushed, unless no other result is waiting
+    private static final int FLUSH_INTERVAL = 64;
+
+    private final RuleExecutionService ruleExecutionService;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final boolean columnar;
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+    private final Map<String, ColumnarConditions> columnarConditions = new ConcurrentHashMap<>();
+    private final LongAdder streamedInputs = new LongAdder();
+
+    public BatchExecutionService(RuleExecutionService ruleExecutionService, ObjectMapper objectMapper,
+            RuleEngineProperties properties, MeterRegistry meterRegistry) {
+        this.ruleExecutionService = ruleExecutionService;
+        this.objectMapper = objectMapper;
+        this.parallelism = properties.getBatch().getParallelism();
+        this.maxInFlight = properties.getBatch().getMaxInFlight();
+        this.columnar = properties.getBatch().isColumnar();
+        this.executor = properties.getBatch().isVirtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : new ForkJoinPool(parallelism);
+        this.scheduler = Schedulers.fromExecutorService(executor);
+        FunctionCounter.builder("rules.stream.inputs", streamedInputs, LongAdder::sum)
+                .description("Inputs read from streams of inputs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execute a ruleset against every input of a batch
+     *
+     * @param rulesetName      The name of the ruleset to execute
+     * @param inputs           The input data of every item
+     * @param requestedOutputs The output variables to produce, null or empty
+     *                         to run every rule and return all outputs
+     * @return One result per input, in input order
+     * @throws IllegalArgumentException if the ruleset does not exist
+     */
+    public List<BatchItemResult> executeBatch(String rulesetName, List<Map<String, Object>> inputs,
+            Collection<String> requestedOutputs) {
+        RuleExecutionService.PreparedRuleset ruleset = ruleExecutionService.prepare(rulesetName, requestedOutputs);
+        ColumnarConditions conditions = getColumnarConditions(ruleset);
+        BatchItemResult[] results = new BatchItemResult[inputs.size()];
+
+        int chunkCount = Math.min(inputs.size(), parallelism * CHUNKS_PER_THREAD);
+        if (parallelism <= 1 || chunkCount <= 1) {
+            executeRange(ruleset, conditions, inputs, results, 0, inputs.size());
+        } else {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunkCount];
+            for (int chunk = 1; chunk < chunkCount; chunk++) {
+                int from = (int) ((long) inputs.size() * chunk / chunkCount);
+                int to = (int) ((long) inputs.size() * (chunk + 1) / chunkCount);
+                tasks[chunk] = CompletableFuture.runAsync(
+                        () -> executeRange(ruleset, conditions, inputs, results, from, to), executor);
+            }
+            // The calling thread takes the first chunk itself
+            executeRange(ruleset, conditions, inputs, results, 0, inputs.size() / chunkCount);
+            for (int chunk = 1; chunk < chunkCount; chunk++) {
+                tasks[chunk].join();
+            }
+        }
+
+        if (logger.isDebugEnabled()) {
+            long failed = Arrays.stream(results).filter(result -> result.getError() != null).count();
+            logger.debug("Executed ruleset '{}' against {} inputs, {} failed", rulesetName, inputs.size(), failed);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Execute a ruleset against a stream of newline-delimited JSON inputs,
+     * writing one line of JSON per input to the output as soon as its
+     * execution finishes. Results are written in completion order and carry
+     * the position of their input in the stream. Reading stops at the first
+     * input that is not valid JSON, which is reported as the last result.
+     *
+     * @param rulesetName      The name of the ruleset to execute
+     * @param requestedOutputs The output variables to produce, null or empty
+     *                         to run every rule and return all outputs
+     * @param input            The inputs, one JSON object per line
+     * @param output           Receives the results, one JSON object per line
+     * @return Counts of the streamed inputs
+     * @throws IllegalArgumentException if the ruleset does not exist, before
+     *                                  anything is read or written
+     * @throws IOException              if the results cannot be written
+     */
+    public StreamSummary executeStream(String rulesetName, Collection<String> requestedOutputs, InputStream input,
+            OutputStream output) throws IOException {
+        RuleExecutionService.PreparedRuleset ruleset = ruleExecutionService.prepare(rulesetName, requestedOutputs);
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ResultWriter writer = new ResultWriter(objectMapper.getFactory().createGenerator(output), inFlight);
+        writer.start();
+        int count = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+                MappingIterator<Object> inputs = objectMapper.readerFor(Object.class).readValues(parser)) {
+            while (!writer.hasFailed()) {
+                Object inputData;
+                try {
+                    if (!inputs.hasNextValue()) {
+                        break;
+                    }
+                    inputData = inputs.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Reported last: wait for every earlier result, keeping a permit for this one
+                    inFlight.acquireUninterruptibly(maxInFlight);
+                    inFlight.release(maxInFlight - 1);
+                    writer.submit(BatchItemResult.failure(count, "Invalid JSON input: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                // Blocks while the pipeline is full, which stops reading the request
+                inFlight.acquireUninterruptibly();
+                int index = count++;
+                streamedInputs.increment();
+                executor.execute(() -> {
+                    boolean submitted = false;
+                    try {
+                        writer.submit(executeInput(ruleset, index, inputData));
+                        submitted = true;
+                    } finally {
+                        if (!submitted) {
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(maxInFlight);
+            writer.stop();
+        }
+        writer.finish();
+
+        StreamSummary summary = new StreamSummary(count, writer.getFailedCount(), System.nanoTime() - start);
+        logSummary(rulesetName, summary);
+        return summary;
+    }
+
+    /**
+     * Execute a ruleset against a reactive stream of inputs. Results are
+     * emitted in completion order and carry the position of their input in
+     * the stream. At most {@code rules.batch.max-in-flight} inputs are
+     * requested ahead of the results consumed downstream, so a slow
+     * subscriber slows down the source. An error of the source, such as
+     * invalid JSON, is emitted as the last result once every earlier input
+     * has completed.
+     *
+     * @param rulesetName      The name of the ruleset to execute
+     * @param requestedOutputs The output variables to produce, null or empty
+     *                         to run every rule and return all outputs
+     * @param inputs           The inputs, each expected to be a JSON object
+     * @return The results, one per input
+     * @throws IllegalArgumentException if the ruleset does not exist, before
+     *                                  anything is subscribed to
+     */
+    public Flux<BatchItemResult> executeStream(String rulesetName, Collection<String> requestedOutputs,
+            Flux<?> inputs) {
+        RuleExecutionService.PreparedRuleset ruleset = ruleExecutionService.prepare(rulesetName, requestedOutputs);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicInteger count = new AtomicInteger();
+            AtomicLong failed = new AtomicLong();
+            AtomicReference<Throwable> sourceError = new AtomicReference<>();
+
+            Flux<BatchItemResult> results = inputs
+                    .onErrorResume(e -> {
+                        sourceError.set(e);
+                        return Flux.empty();
+                    })
+                    .map(inputData -> {
+                        streamedInputs.increment();
+                        return new IndexedInput(count.getAndIncrement(), inputData);
+                    })
+                    .flatMap(input -> Mono.fromCallable(() -> executeInput(ruleset, input.index(), input.data()))
+                            .subscribeOn(scheduler), maxInFlight);
+            Mono<BatchItemResult> invalidInput = Mono.fromSupplier(() -> sourceError.get() != null
+                    ? BatchItemResult.failure(count.get(), "Invalid JSON input: " + messageOf(sourceError.get()))
+                    : null);
+
+            return results.concatWith(invalidInput)
+                    .doOnNext(result -> {
+                        if (result.getError() != null) {
+                            failed.incrementAndGet();
+                        }
+                    })
+                    .doOnComplete(() -> logSummary(rulesetName,
+                            new StreamSummary(count.get(), failed.get(), System.nanoTime() - start)));
+        });
+    }
+
+    private static String messageOf(Throwable error) {
+        // Decoders wrap the parser's exception, whose message locates the error
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException jsonError) {
+                return jsonError.getOriginalMessage();
+            }
+        }
+        return error.getMessage();
+    }
+
+    private static void logSummary(String rulesetName, StreamSummary summary) {
+        logger.info("Streamed {} inputs through ruleset '{}' in {} ms ({} inputs/s), {} failed", summary.inputs(),
+                rulesetName, summary.elapsedNanos() / 1_000_000, Math.round(summary.inputsPerSecond()),
+                summary.failed());
+    }
+
+    private static BatchItemResult executeInput(RuleExecutionService.PreparedRuleset ruleset, int index,
+            Object inputData) {
+        if (!(inputData instanceof Map<?, ?> map)) {
+            return BatchItemResult.failure(index, "Input is not a JSON object");
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> data = (Map<String, Object>) map;
+            return BatchItemResult.success(index, ruleset.execute(data, true));
+        } catch (RuntimeException e) {
+            return BatchItemResult.failure(index, e.getMessage());
+        }
+    }
+
+    /**
+     * Get the columnar conditions of a prepared ruleset, building them if the
+     * ruleset is new or has changed since they were last built
+     *
+     * @return The conditions, or null if batches of the ruleset evaluate
+     *         every condition input by input
+     */
+    private ColumnarConditions getColumnarConditions(RuleExecutionService.PreparedRuleset ruleset) {
+        if (!columnar || !ruleset.isInterpreted()) {
+            return null;
+        }
+        RulesetSnapshot snapshot = ruleset.getSnapshot();
+        ColumnarConditions conditions = columnarConditions.get(snapshot.getName());
+        if (conditions == null || conditions.getSnapshot() != snapshot) {
+            conditions = ColumnarConditions.build(snapshot);
+            logger.debug("Ruleset '{}' version {}: {} of {} conditions evaluated column by column, with {} tests",
+                    snapshot.getName(), snapshot.getVersion(), conditions.getColumnarRuleCount(),
+                    snapshot.getRuleCount(), conditions.getTestCount());
+            columnarConditions.put(snapshot.getName(), conditions);
+        }
+        return conditions.getColumnarRuleCount() > 0 ? conditions : null;
+    }
+
+    private void executeRange(RuleExecutionService.PreparedRuleset ruleset, ColumnarConditions conditions,
+            List<Map<String, Object>> inputs, BatchItemResult[] results, int from, int to) {
+        for (int start = from; start < to; start += COLUMN_BLOCK_SIZE) {
+            int end = Math.min(to, start + COLUMN_BLOCK_SIZE);
+            ColumnarConditions.Block block = conditions != null ? conditions.evaluate(inputs.subList(start, end))
+                    : null;
+            for (int i = start; i < end; i++) {
+                try {
+                    results[i] = BatchItemResult.success(i,
+                            ruleset.execute(inputs.get(i), true, block != null ? block.row(i - start) : null));
+                } catch (RuntimeException e) {
+                    results[i] = BatchItemResult.failure(i, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Counts of a streamed execution
+     *
+     * @param inputs       Number of inputs read
+     * @param failed       Number of results reporting an error
+     * @param elapsedNanos Time from the first read to the last write
+     */
+    public record StreamSummary(long inputs, long failed, long elapsedNanos) {
+
+        public double inputsPerSecond() {
+            return elapsedNanos > 0 ? inputs * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private record IndexedInput(int index, Object data) {
+    }
+
+    /**
+     * Writes results as newline-delimited JSON on a thread of its own. Every
+     * submitted result holds a permit of the stream's in-flight semaphore,
+     * which is released once the result is written. After a write fails,
+     * further results are dropped and the stream stops reading.
+     */
+    private static final class ResultWriter implements Runnable {
+        private static final BatchItemResult END = BatchItemResult.failure(-1, "End of stream");
+
+        private final JsonGenerator generator;
+        private final Semaphore inFlight;
+        private final BlockingQueue<BatchItemResult> results = new LinkedBlockingQueue<>();
+        private Thread thread;
+        private int unflushed;
+        private long failedCount;
+        private volatile IOException failure;
+
+        ResultWriter(JsonGenerator generator, Semaphore inFlight) {
+            this.generator = generator;
+            this.inFlight = inFlight;
+            // Lines are separated explicitly rather than by Jackson's root value separator
+            generator.setRootValueSeparator(null);
+        }
+
+        void start() {
+            thread = Thread.ofVirtual().name("batch-stream-writer").start(this);
+        }
+
+        boolean hasFailed() {
+            return failure != null;
+        }
+
+        /**
+         * Only read once the writer has stopped
+         */
+        long getFailedCount() {
+            return failedCount;
+        }
+
+        void submit(BatchItemResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (BatchItemResult result = results.take(); result != END; result = results.take()) {
+                    write(result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(BatchItemResult result) {
+            if (result.getError() != null) {
+                failedCount++;
+            }
+            try {
+                if (failure == null) {
+                    generator.writeObject(result);
+                    generator.writeRaw('\n');
+                    // Results already waiting go out with a later flush
+                    if (results.isEmpty() || ++unflushed >= FLUSH_INTERVAL) {
+                        generator.flush();
+                        unflushed = 0;
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                inFlight.release();
+            }
+        }
+
+        /**
+         * Stop the writer thread once every submitted result is written
+         */
+        void stop() throws InterruptedIOException {
+            results.add(END);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing results");
+            }
+        }
+
+        void finish() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.rules.service.service;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.BooleanLiteral;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+import com.rules.service.service.ConditionAnalyzer.EqualityPredicate;
+import com.rules.service.service.ConditionAnalyzer.RangePredicate;
+
+/**
+ * Evaluates the conditions of a ruleset for a block of inputs at once, one
+ * column of input values at a time.
+ *
+ * Conditions are split at their {@code AND}, {@code OR} and {@code NOT}
+ * operators. Comparisons of a top-level input field with a constant, boolean
+ * fields and boolean constants become column tests; anything else is left
+ * opaque. For a block of inputs, the values of every tested field are
+ * transposed into a column once, each distinct test runs over its column
+ * into a {@link BitSet} of the matching inputs, and conditions are combined
+ * from those with bitwise operations.
+ *
+ * A test only decides the inputs whose value it compares exactly as SpEL
+ * would (see {@link ConditionAnalyzer}); a condition is undecided for an
+ * input when any part it would evaluate is undecided or opaque, and is then
+ * evaluated on its own as usual. Tests cannot fail on the inputs they
+ * decide, so decided conditions give the same results and errors as
+ * evaluating them. Fields written by a rule of the ruleset are never tested,
+ * since their value can change while the ruleset runs.
+ */
+final class ColumnarConditions {
+
+    private static final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private final RulesetSnapshot snapshot;
+    private final String[] fields;
+    private final boolean[] numericFields;
+    private final ColumnTest[] tests;
+    private final Node[] conditions;
+    private final int columnarRuleCount;
+
+    private ColumnarConditions(RulesetSnapshot snapshot, String[] fields, boolean[] numericFields,
+            ColumnTest[] tests, Node[] conditions, int columnarRuleCount) {
+        this.snapshot = snapshot;
+        this.fields = fields;
+        this.numericFields = numericFields;
+        this.tests = tests;
+        this.conditions = conditions;
+        this.columnarRuleCount = columnarRuleCount;
+    }
+
+    /**
+     * Compile the conditions of a ruleset into column tests
+     */
+    static ColumnarConditions build(RulesetSnapshot snapshot) {
+        Builder builder = new Builder(snapshot.getOutputLayout());
+        List<RuleDefinition> rules = snapshot.getRules();
+        Node[] conditions = new Node[rules.size()];
+        int columnarRules = 0;
+        for (int i = 0; i < conditions.length; i++) {
+            Node condition = builder.compile(rules.get(i).getCondition());
+            if (condition != null && !(condition instanceof Opaque)) {
+                conditions[i] = condition;
+                columnarRules++;
+            }
+        }
+
+        String[] fields = builder.columns.keySet().toArray(new String[0]);
+        boolean[] numericFields = new boolean[fields.length];
+        for (ColumnTest test : builder.tests.keySet()) {
+            if (test instanceof RangeTest) {
+                numericFields[test.column()] = true;
+            }
+        }
+        return new ColumnarConditions(snapshot, fields, numericFields,
+                builder.tests.keySet().toArray(new ColumnTest[0]), conditions, columnarRules);
+    }
+
+    /**
+     * The ruleset snapshot these conditions were compiled from
+     */
+    RulesetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Number of rules whose condition can be decided from column tests for
+     * at least some inputs
+     */
+    int getColumnarRuleCount() {
+        return columnarRuleCount;
+    }
+
+    /**
+     * Number of distinct column tests, each run once per block
+     */
+    int getTestCount() {
+        return tests.length;
+    }
+
+    /**
+     * Evaluate the conditions for a block of inputs
+     *
+     * @param inputs The input data of every execution of the block
+     */
+    Block evaluate(List<Map<String, Object>> inputs) {
+        int rows = inputs.size();
+        Column[] columns = new Column[fields.length];
+        for (int f = 0; f < fields.length; f++) {
+            columns[f] = new Column(fields[f], inputs, numericFields[f]);
+        }
+        Decision[] testResults = new Decision[tests.length];
+        for (int t = 0; t < tests.length; t++) {
+            testResults[t] = tests[t].run(columns[tests[t].column()], rows);
+        }
+
+        BitSet[] matches = new BitSet[conditions.length];
+        BitSet[] undecided = new BitSet[conditions.length];
+        for (int rule = 0; rule < conditions.length; rule++) {
+            if (conditions[rule] != null) {
+                Decision decision = conditions[rule].decide(testResults, rows);
+                matches[rule] = decision.matches();
+                undecided[rule] = decision.undecided();
+            }
+        }
+        return new Block(matches, undecided);
+    }
+
+    /**
+     * The conditions of a block of inputs
+     */
+    static final class Block {
+        private final BitSet[] matches;
+        private final BitSet[] undecided;
+
+        private Block(BitSet[] matches, BitSet[] undecided) {
+            this.matches = matches;
+            this.undecided = undecided;
+        }
+
+        /**
+         * The conditions of one input of the block
+         *
+         * @param row Position of the input in the block
+         */
+        Row row(int row) {
+            return new Row(row);
+        }
+
+        /**
+         * The conditions of one input of a block
+         */
+        final class Row {
+            private final int row;
+
+            private Row(int row) {
+                this.row = row;
+            }
+
+            /**
+             * The value of the condition of a rule for this input
+             *
+             * @param rule Position of the rule in the ruleset
+             * @return The value, or null if the condition must be evaluated
+             *         on its own
+             */
+            Boolean valueOf(int rule) {
+                if (matches[rule] == null || undecided[rule].get(row)) {
+                    return null;
+                }
+                return matches[rule].get(row);
+            }
+        }
+    }
+
+    /**
+     * Result of a test or condition for a block: the inputs it is true for,
+     * and those it cannot decide, which are never among the former
+     */
+    private record Decision(BitSet matches, BitSet undecided) {
+    }
+
+    /**
+     * The values of one field for every input of a block
+     */
+    private static final class Column {
+        private final Object[] values;
+        // Range keys, NaN where there is none
+        private final double[] numbers;
+        private final BitSet nulls = new BitSet();
+        private final BitSet nonNumbers = new BitSet();
+
+        Column(String field, List<Map<String, Object>> inputs, boolean numeric) {
+            int rows = inputs.size();
+            this.values = new Object[rows];
+            for (int row = 0; row < rows; row++) {
+                Map<String, Object> input = inputs.get(row);
+                values[row] = input != null ? input.get(field) : null;
+            }
+            this.numbers = numeric ? new double[rows] : null;
+            if (numeric) {
+                for (int row = 0; row < rows; row++) {
+                    Object key = ConditionAnalyzer.rangeKeyOf(values[row]);
+                    if (key instanceof Double value) {
+                        numbers[row] = value;
+                    } else {
+                        numbers[row] = Double.NaN;
+                        if (key == null) {
+                            nulls.set(row);
+                        } else if (key == ConditionAnalyzer.UNKNOWN) {
+                            nonNumbers.set(row);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private sealed interface ColumnTest permits RangeTest, EqualityTest, BooleanTest {
+        int column();
+
+        Decision run(Column column, int rows);
+    }
+
+    /**
+     * An order comparison with a number
+     */
+    private record RangeTest(int column, RangePredicate range) implements ColumnTest {
+
+        @Override
+        public Decision run(Column column, int rows) {
+            double[] numbers = column.numbers;
+            long[] words = new long[(rows + 63) >>> 6];
+            for (int row = 0; row < rows; row++) {
+                if (range.contains(numbers[row])) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            BitSet matches = BitSet.valueOf(words);
+            if (range.containsNull()) {
+                matches.or(column.nulls);
+            }
+            return new Decision(matches, column.nonNumbers);
+        }
+    }
+
+    /**
+     * An equality comparison with a constant
+     */
+    private record EqualityTest(int column, Object key) implements ColumnTest {
+
+        @Override
+        public Decision run(Column column, int rows) {
+            BitSet matches = new BitSet(rows);
+            BitSet undecided = new BitSet(rows);
+            for (int row = 0; row < rows; row++) {
+                Object valueKey = ConditionAnalyzer.keyOf(column.values[row]);
+                if (valueKey == ConditionAnalyzer.UNKNOWN) {
+                    undecided.set(row);
+                } else if (valueKey.equals(key)) {
+                    matches.set(row);
+                }
+            }
+            return new Decision(matches, undecided);
+        }
+    }
+
+    /**
+     * A boolean field used as a condition; other values are converted by
+     * SpEL, or fail, so they are left undecided
+     */
+    private record BooleanTest(int column) implements ColumnTest {
+
+        @Override
+        public Decision run(Column column, int rows) {
+            BitSet matches = new BitSet(rows);
+            BitSet undecided = new BitSet(rows);
+            for (int row = 0; row < rows; row++) {
+                Object value = column.values[row];
+                if (value instanceof Boolean flag) {
+                    if (flag) {
+                        matches.set(row);
+                    }
+                } else {
+                    undecided.set(row);
+                }
+            }
+            return new Decision(matches, undecided);
+        }
+    }
+
+    private sealed interface Node permits TestNode, And, Or, Not, Constant, Opaque {
+        Decision decide(Decision[] testResults, int rows);
+    }
+
+    private record TestNode(int test) implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            return testResults[test];
+        }
+    }
+
+    /**
+     * The right operand is only evaluated, and can only fail, where the left
+     * one is true
+     */
+    private record And(Node left, Node right) implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            Decision l = left.decide(testResults, rows);
+            Decision r = right.decide(testResults, rows);
+            BitSet undecided = (BitSet) r.undecided().clone();
+            undecided.and(l.matches());
+            undecided.or(l.undecided());
+            BitSet matches = (BitSet) l.matches().clone();
+            matches.and(r.matches());
+            return new Decision(matches, undecided);
+        }
+    }
+
+    /**
+     * The right operand is only evaluated, and can only fail, where the left
+     * one is false
+     */
+    private record Or(Node left, Node right) implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            Decision l = left.decide(testResults, rows);
+            Decision r = right.decide(testResults, rows);
+            BitSet undecided = (BitSet) r.undecided().clone();
+            undecided.andNot(l.matches());
+            undecided.or(l.undecided());
+            BitSet matches = (BitSet) l.matches().clone();
+            matches.or(r.matches());
+            matches.andNot(undecided);
+            return new Decision(matches, undecided);
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            Decision o = operand.decide(testResults, rows);
+            BitSet matches = (BitSet) o.matches().clone();
+            matches.flip(0, rows);
+            matches.andNot(o.undecided());
+            return new Decision(matches, o.undecided());
+        }
+    }
+
+    private record Constant(boolean value) implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            BitSet matches = new BitSet(rows);
+            if (value) {
+                matches.set(0, rows);
+            }
+            return new Decision(matches, new BitSet());
+        }
+    }
+
+    /**
+     * A part of a condition that is always evaluated on its own
+     */
+    private record Opaque() implements Node {
+
+        @Override
+        public Decision decide(Decision[] testResults, int rows) {
+            BitSet undecided = new BitSet(rows);
+            undecided.set(0, rows);
+            return new Decision(new BitSet(), undecided);
+        }
+    }
+
+    /**
+     * Compiles conditions, interning fields and tests
+     */
+    private static final class Builder {
+        private final OutputSlotLayout layout;
+        private final Map<String, Integer> columns = new LinkedHashMap<>();
+        private final Map<ColumnTest, Integer> tests = new LinkedHashMap<>();
+        private final Map<String, Node> compiled = new HashMap<>();
+
+        Builder(OutputSlotLayout layout) {
+            this.layout = layout;
+        }
+
+        /**
+         * @return The condition, or null if it cannot be parsed
+         */
+        Node compile(String condition) {
+            if (condition == null) {
+                return null;
+            }
+            return compiled.computeIfAbsent(condition, text -> {
+                try {
+                    return compile(((SpelExpression) parser.parseExpression(text)).getAST());
+                } catch (ParseException e) {
+                    // Reported when the rule runs
+                    return null;
+                }
+            });
+        }
+
+        private Node compile(SpelNode ast) {
+            if (ast instanceof OpAnd || ast instanceof OpOr) {
+                Node left = compile(ast.getChild(0));
+                Node right = compile(ast.getChild(1));
+                if (left instanceof Opaque && right instanceof Opaque) {
+                    return left;
+                }
+                return ast instanceof OpAnd ? new And(left, right) : new Or(left, right);
+            }
+            if (ast instanceof OperatorNot) {
+                Node operand = compile(ast.getChild(0));
+                return operand instanceof Opaque ? operand : new Not(operand);
+            }
+            if (ast instanceof BooleanLiteral literal) {
+                return new Constant((Boolean) literal.getLiteralValue().getValue());
+            }
+            if (ast instanceof PropertyOrFieldReference property && isInputField(property.getName())) {
+                return test(new BooleanTest(column(property.getName())));
+            }
+            if (ast instanceof OpEQ || ast instanceof OpNE) {
+                EqualityPredicate equality = ConditionAnalyzer.toEquality(ast.getChild(0), ast.getChild(1));
+                if (equality == null) {
+                    equality = ConditionAnalyzer.toEquality(ast.getChild(1), ast.getChild(0));
+                }
+                if (equality != null && isInputField(equality.field())) {
+                    Node test = test(new EqualityTest(column(equality.field()), equality.key()));
+                    // SpEL's != is the negation of its ==
+                    return ast instanceof OpEQ ? test : new Not(test);
+                }
+                return new Opaque();
+            }
+            RangePredicate range = ConditionAnalyzer.toRange(ast);
+            if (range != null && isInputField(range.field())) {
+                return test(new RangeTest(column(range.field()), range));
+            }
+            return new Opaque();
+        }
+
+        private boolean isInputField(String name) {
+            return layout.slotOf(name) == OutputSlotLayout.NO_SLOT;
+        }
+
+        private int column(String field) {
+            return columns.computeIfAbsent(field, f -> columns.size());
+        }
+
+        private Node test(ColumnTest test) {
+            return new TestNode(tests.computeIfAbsent(test, t -> tests.size()));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.ExpressionException;
+
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * A whole ruleset compiled into generated classes.
+ *
+ * The rules are split into {@link Chunk}s of consecutive rules, each
+ * generated by {@link RulesetCompiler}: a chunk's
+ * {@link Chunk#execute(RuleEvaluationContext, VariableScope, boolean)}
+ * evaluates its rules as straight-line code, with one field and one call
+ * site per condition and transformation, and writes results straight into
+ * the output slots. Executing the ruleset runs its chunks in order against
+ * one evaluation context.
+ */
+public final class CompiledRuleset {
+
+    private final RulesetSnapshot snapshot;
+    private final SpelContextConfigurationService contextService;
+    private final Chunk[] chunks;
+
+    CompiledRuleset(RulesetSnapshot snapshot, SpelContextConfigurationService contextService, Chunk[] chunks) {
+        this.snapshot = snapshot;
+        this.contextService = contextService;
+        this.chunks = chunks;
+    }
+
+    /**
+     * The ruleset snapshot the classes were generated from
+     */
+    public RulesetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The generated classes, in the order of their rules
+     */
+    List<Chunk> getChunks() {
+        return List.of(chunks);
+    }
+
+    /**
+     * Execute the ruleset with null-safe evaluation enabled
+     */
+    public Map<String, Object> execute(Map<String, Object> inputData) {
+        return execute(inputData, true);
+    }
+
+    /**
+     * Execute the ruleset against input data
+     *
+     * @param inputData          The input data for rule evaluation
+     * @param nullSafeEvaluation Whether to handle null property access gracefully
+     * @return Map of output variables from rule execution
+     */
+    public Map<String, Object> execute(Map<String, Object> inputData, boolean nullSafeEvaluation) {
+        RuleEvaluationContext context = contextService.createEvaluationContext(inputData,
+                snapshot.getOutputLayout());
+        VariableScope scope = context.getScope();
+        for (Chunk chunk : chunks) {
+            chunk.execute(context, scope, nullSafeEvaluation);
+        }
+        return scope.toOutputMap();
+    }
+
+    /**
+     * Consecutive rules of a ruleset in one generated class. This base class
+     * provides the few out-of-line operations the generated code calls.
+     */
+    public abstract static class Chunk {
+
+        private final List<RuleDefinition> rules;
+        private final ExecutionMetricsService.RulesetMeters meters;
+
+        protected Chunk(List<RuleDefinition> rules, ExecutionMetricsService.RulesetMeters meters) {
+            this.rules = rules;
+            this.meters = meters;
+        }
+
+        /**
+         * Evaluate the rules of this chunk, writing results into the scope
+         */
+        public abstract void execute(RuleEvaluationContext context, VariableScope scope, boolean nullSafeEvaluation);
+
+        protected static boolean isTrue(Object conditionResult) {
+            return Boolean.TRUE.equals(conditionResult);
+        }
+
+        /**
+         * Handle a failed condition: false for null property access in
+         * null-safe mode, otherwise the failure is rethrown
+         *
+         * @param ruleIndex Position of the rule in the whole ruleset
+         */
+        protected final boolean conditionFailed(int ruleIndex, ExpressionException e, boolean nullSafeEvaluation) {
+            if (nullSafeEvaluation && RuleFailures.isNullPropertyAccess(e)) {
+                meters.recordFallback(true);
+                return false;
+            }
+            throw RuleFailures.ruleFailed(rules.get(ruleIndex), e);
+        }
+
+        /**
+         * Handle a failed transformation: null for null property access in
+         * null-safe mode, otherwise the failure is rethrown
+         *
+         * @param ruleIndex Position of the rule in the whole ruleset
+         */
+        protected final Object transformationFailed(int ruleIndex, ExpressionException e,
+                boolean nullSafeEvaluation) {
+            if (nullSafeEvaluation && RuleFailures.isNullPropertyAccess(e)) {
+                meters.recordFallback(false);
+                return null;
+            }
+            throw RuleFailures.ruleFailed(rules.get(ruleIndex), e);
+        }
+    }
+}
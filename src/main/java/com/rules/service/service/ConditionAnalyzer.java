@@ -0,0 +1,316 @@
+package com.rules.service.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.BooleanLiteral;
+import org.springframework.expression.spel.ast.IntLiteral;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.LongLiteral;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.RealLiteral;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Finds the predicate a condition can be indexed on.
+ *
+ * A condition is indexable when the leftmost operand of its top-level
+ * {@code AND} chain compares a top-level field with a constant: either for
+ * equality, such as {@code country == 'DE'} in
+ * {@code country == 'DE' AND tier == 'GOLD'}, or by order, such as
+ * {@code amount > 1000}. That operand is evaluated first, so when it is false
+ * the whole condition is false without anything else being evaluated, and the
+ * rule can be skipped without changing results or errors. Further operands
+ * comparing the same field with a number, as in
+ * {@code age >= 18 && age < 25}, narrow the indexed range.
+ *
+ * Values are reduced to index keys that compare exactly as SpEL's operators
+ * compare them: strings by content, booleans, and numbers by value.
+ */
+final class ConditionAnalyzer {
+
+    /**
+     * Key of values no indexed constant can match
+     */
+    static final Object NO_MATCH = new Object();
+
+    /**
+     * Key of values that may match a constant without having an exact key,
+     * so every rule indexed on the field must be evaluated
+     */
+    static final Object UNKNOWN = new Object();
+
+    // Whole numbers up to this magnitude convert between long and double exactly
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private static final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private ConditionAnalyzer() {
+    }
+
+    /**
+     * A field compared with constants
+     */
+    sealed interface IndexPredicate permits EqualityPredicate, RangePredicate {
+        String field();
+    }
+
+    /**
+     * A field equal to a constant
+     */
+    record EqualityPredicate(String field, Object key) implements IndexPredicate {
+    }
+
+    /**
+     * A field within a range, bounds being infinite where there is none
+     */
+    record RangePredicate(String field, double lower, boolean lowerInclusive, double upper,
+            boolean upperInclusive) implements IndexPredicate {
+
+        /**
+         * Whether a number, reduced to its range key, is within the range
+         */
+        boolean contains(double value) {
+            return (lowerInclusive ? value >= lower : value > lower)
+                    && (upperInclusive ? value <= upper : value < upper);
+        }
+
+        /**
+         * Whether null passes the condition: null sorts before every number,
+         * so it is within a range without lower bound
+         */
+        boolean containsNull() {
+            return lower == Double.NEGATIVE_INFINITY;
+        }
+
+        boolean isEmpty() {
+            return lower > upper || (lower == upper && !(lowerInclusive && upperInclusive));
+        }
+
+        RangePredicate intersect(RangePredicate other) {
+            double newLower = lower;
+            boolean newLowerInclusive = lowerInclusive;
+            if (other.lower > lower || (other.lower == lower && !other.lowerInclusive)) {
+                newLower = other.lower;
+                newLowerInclusive = other.lowerInclusive;
+            }
+            double newUpper = upper;
+            boolean newUpperInclusive = upperInclusive;
+            if (other.upper < upper || (other.upper == upper && !other.upperInclusive)) {
+                newUpper = other.upper;
+                newUpperInclusive = other.upperInclusive;
+            }
+            return new RangePredicate(field, newLower, newLowerInclusive, newUpper, newUpperInclusive);
+        }
+    }
+
+    /**
+     * Find the predicate a condition can be indexed on
+     *
+     * @return The predicate, or null if the condition is not indexable
+     */
+    static IndexPredicate findIndexPredicate(String condition) {
+        if (condition == null) {
+            return null;
+        }
+        List<SpelNode> operands = new ArrayList<>();
+        try {
+            collectAndOperands(((SpelExpression) parser.parseExpression(condition)).getAST(), operands);
+        } catch (ParseException e) {
+            return null;
+        }
+
+        SpelNode first = operands.get(0);
+        if (first instanceof OpEQ) {
+            EqualityPredicate predicate = toEquality(first.getChild(0), first.getChild(1));
+            return predicate != null ? predicate : toEquality(first.getChild(1), first.getChild(0));
+        }
+        RangePredicate range = toRange(first);
+        if (range == null) {
+            return null;
+        }
+        // Operands on the same numeric field after the first only run when it
+        // matched, on a number, so they cannot fail either
+        for (int i = 1; i < operands.size(); i++) {
+            RangePredicate next = toRange(operands.get(i));
+            if (next == null || !next.field().equals(range.field())) {
+                break;
+            }
+            range = range.intersect(next);
+        }
+        return range;
+    }
+
+    /**
+     * Collect the operands of an AND chain in evaluation order
+     */
+    private static void collectAndOperands(SpelNode node, List<SpelNode> operands) {
+        if (node instanceof OpAnd) {
+            collectAndOperands(node.getChild(0), operands);
+            collectAndOperands(node.getChild(1), operands);
+        } else {
+            operands.add(node);
+        }
+    }
+
+    /**
+     * The equality predicate of a field compared with a constant
+     *
+     * @return The predicate, or null if the operands are not a top-level
+     *         field and a constant with an exact key
+     */
+    static EqualityPredicate toEquality(SpelNode field, SpelNode constant) {
+        if (!(field instanceof PropertyOrFieldReference property) || !(constant instanceof Literal literal)) {
+            return null;
+        }
+        Object value = constantValue(literal);
+        if (value == null) {
+            return null;
+        }
+        Object key = keyOf(value);
+        return key == NO_MATCH || key == UNKNOWN ? null : new EqualityPredicate(property.getName(), key);
+    }
+
+    private static Object constantValue(Literal literal) {
+        if (literal instanceof StringLiteral || literal instanceof BooleanLiteral || literal instanceof IntLiteral
+                || literal instanceof LongLiteral || literal instanceof RealLiteral) {
+            return literal.getLiteralValue().getValue();
+        }
+        return null;
+    }
+
+    /**
+     * The range predicate of an order comparison between a top-level field
+     * and a numeric constant, in either order
+     *
+     * @return The predicate, or null if the node is no such comparison
+     */
+    static RangePredicate toRange(SpelNode comparison) {
+        boolean lower;
+        boolean inclusive;
+        if (comparison instanceof OpGE || comparison instanceof OpGT) {
+            lower = true;
+            inclusive = comparison instanceof OpGE;
+        } else if (comparison instanceof OpLE || comparison instanceof OpLT) {
+            lower = false;
+            inclusive = comparison instanceof OpLE;
+        } else {
+            return null;
+        }
+
+        SpelNode field = comparison.getChild(0);
+        Double constant = numericConstant(comparison.getChild(1));
+        if (!(field instanceof PropertyOrFieldReference)) {
+            // Constant on the left: 18 <= age is age >= 18
+            field = comparison.getChild(1);
+            constant = numericConstant(comparison.getChild(0));
+            lower = !lower;
+        }
+        if (!(field instanceof PropertyOrFieldReference property) || constant == null) {
+            return null;
+        }
+        String name = property.getName();
+        return lower
+                ? new RangePredicate(name, constant, inclusive, Double.POSITIVE_INFINITY, false)
+                : new RangePredicate(name, Double.NEGATIVE_INFINITY, false, constant, inclusive);
+    }
+
+    /**
+     * The value of a numeric literal, if it is exactly representable as a
+     * double
+     */
+    private static Double numericConstant(SpelNode node) {
+        boolean negative = false;
+        if (node instanceof OpMinus && node.getChildCount() == 1) {
+            negative = true;
+            node = node.getChild(0);
+        }
+        if (!(node instanceof IntLiteral || node instanceof LongLiteral || node instanceof RealLiteral)) {
+            return null;
+        }
+        Object key = rangeKeyOf(((Literal) node).getLiteralValue().getValue());
+        if (!(key instanceof Double value)) {
+            return null;
+        }
+        // Adding zero turns -0.0 into 0.0, which compares equal to it
+        return (negative ? -value : value) + 0.0;
+    }
+
+    /**
+     * Reduce a value to its equality index key
+     *
+     * @return The key, {@link #NO_MATCH} or {@link #UNKNOWN}
+     */
+    static Object keyOf(Object value) {
+        if (value instanceof String || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof CharSequence text) {
+            return text.toString();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return exactKey(((Number) value).longValue());
+        }
+        if (value instanceof Double d) {
+            return d == Math.rint(d) && Math.abs(d) <= MAX_EXACT_DOUBLE ? Long.valueOf(d.longValue()) : NO_MATCH;
+        }
+        if (value instanceof BigInteger b) {
+            return b.bitLength() < 63 ? exactKey(b.longValue()) : NO_MATCH;
+        }
+        if (value instanceof BigDecimal b) {
+            try {
+                return exactKey(b.longValueExact());
+            } catch (ArithmeticException e) {
+                return NO_MATCH;
+            }
+        }
+        if (value instanceof Number) {
+            // Floats compare with reduced precision, other numbers by their double value
+            return UNKNOWN;
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Reduce a value to its range index key: the number as a double when
+     * SpEL's comparisons of it with double or integral constants give the
+     * same result as comparing the double
+     *
+     * @return The key, null for null, {@link #NO_MATCH} or {@link #UNKNOWN}
+     */
+    static Object rangeKeyOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Long l) {
+            return Math.abs(l) <= MAX_EXACT_DOUBLE ? Double.valueOf(l) : UNKNOWN;
+        }
+        if (value instanceof Double d) {
+            // NaN fails every comparison; -0.0 compares equal to 0.0
+            return d.isNaN() ? NO_MATCH : Double.valueOf(d + 0.0);
+        }
+        // Other numbers, and non-numbers which fail to compare, are left to the condition
+        return UNKNOWN;
+    }
+
+    private static Object exactKey(long value) {
+        // Other numeric types compare through double, which is exact up to 2^53
+        return Math.abs(value) <= MAX_EXACT_DOUBLE ? Long.valueOf(value) : UNKNOWN;
+    }
+}
@@ -0,0 +1,187 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+import com.rules.service.service.ConditionAnalyzer.EqualityPredicate;
+import com.rules.service.service.ConditionAnalyzer.IndexPredicate;
+import com.rules.service.service.ConditionAnalyzer.RangePredicate;
+
+/**
+ * Index from the values of input fields to the rules whose condition can be
+ * true for them.
+ *
+ * Rules whose condition starts with an indexable predicate (see
+ * {@link ConditionAnalyzer}) are registered under their field: equality
+ * predicates in a hash map by their constant, range predicates in an
+ * {@link IntervalIndex}. For a request, only the rules matching the request's
+ * value of each indexed field are candidates, together with every rule that
+ * is not indexed. Looking up the candidates costs one hash lookup per
+ * equality-indexed field and one tree descent per range-indexed field,
+ * however many rules there are.
+ *
+ * Fields written by a rule of the ruleset are never indexed, since their
+ * value can change while the ruleset runs.
+ */
+public final class ConditionIndex {
+
+    private static final int[] NO_RULES = new int[0];
+
+    private final RulesetSnapshot snapshot;
+    private final String[] fields;
+    private final List<Map<Object, int[]>> rulesByKey;
+    private final int[][] rulesByField;
+    private final String[] rangeFields;
+    private final IntervalIndex[] rangeIndexes;
+    private final int[][] nullRangeRules;
+    private final int[][] rangeRulesByField;
+    private final BitSet unindexedRules;
+    private final int indexedRuleCount;
+    private final int indexedFieldCount;
+
+    private ConditionIndex(RulesetSnapshot snapshot, Map<String, Map<Object, List<Integer>>> index,
+            Map<String, Map<Integer, RangePredicate>> rangeIndex, BitSet unindexedRules) {
+        this.snapshot = snapshot;
+        this.fields = index.keySet().toArray(new String[0]);
+        this.rulesByKey = new ArrayList<>(fields.length);
+        this.rulesByField = new int[fields.length][];
+        this.unindexedRules = unindexedRules;
+        int indexed = 0;
+        for (int f = 0; f < fields.length; f++) {
+            Map<Object, int[]> byKey = new HashMap<>();
+            List<Integer> all = new ArrayList<>();
+            for (Map.Entry<Object, List<Integer>> entry : index.get(fields[f]).entrySet()) {
+                byKey.put(entry.getKey(), toArray(entry.getValue()));
+                all.addAll(entry.getValue());
+            }
+            rulesByKey.add(byKey);
+            rulesByField[f] = toArray(all);
+            indexed += all.size();
+        }
+
+        this.rangeFields = rangeIndex.keySet().toArray(new String[0]);
+        this.rangeIndexes = new IntervalIndex[rangeFields.length];
+        this.nullRangeRules = new int[rangeFields.length][];
+        this.rangeRulesByField = new int[rangeFields.length][];
+        for (int f = 0; f < rangeFields.length; f++) {
+            List<RangePredicate> ranges = new ArrayList<>();
+            List<Integer> rangeRules = new ArrayList<>();
+            List<Integer> nullRules = new ArrayList<>();
+            for (Map.Entry<Integer, RangePredicate> entry : rangeIndex.get(rangeFields[f]).entrySet()) {
+                int rule = entry.getKey();
+                RangePredicate range = entry.getValue();
+                if (range.containsNull()) {
+                    nullRules.add(rule);
+                }
+                // No value passes a condition with an empty range
+                if (!range.isEmpty()) {
+                    ranges.add(range);
+                    rangeRules.add(rule);
+                }
+            }
+            rangeIndexes[f] = new IntervalIndex(ranges, toArray(rangeRules));
+            nullRangeRules[f] = nullRules.isEmpty() ? NO_RULES : toArray(nullRules);
+            rangeRulesByField[f] = toArray(new ArrayList<>(rangeIndex.get(rangeFields[f]).keySet()));
+            indexed += rangeRulesByField[f].length;
+        }
+        this.indexedRuleCount = indexed;
+
+        Set<String> allFields = new HashSet<>(index.keySet());
+        allFields.addAll(rangeIndex.keySet());
+        this.indexedFieldCount = allFields.size();
+    }
+
+    /**
+     * Analyse the conditions of a ruleset and index the indexable ones
+     */
+    public static ConditionIndex build(RulesetSnapshot snapshot) {
+        List<RuleDefinition> rules = snapshot.getRules();
+        OutputSlotLayout layout = snapshot.getOutputLayout();
+        Map<String, Map<Object, List<Integer>>> index = new LinkedHashMap<>();
+        Map<String, Map<Integer, RangePredicate>> rangeIndex = new LinkedHashMap<>();
+        BitSet unindexedRules = new BitSet(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            IndexPredicate predicate = ConditionAnalyzer.findIndexPredicate(rules.get(i).getCondition());
+            if (predicate == null || layout.slotOf(predicate.field()) != OutputSlotLayout.NO_SLOT) {
+                unindexedRules.set(i);
+            } else if (predicate instanceof EqualityPredicate equality) {
+                index.computeIfAbsent(equality.field(), field -> new HashMap<>())
+                        .computeIfAbsent(equality.key(), key -> new ArrayList<>())
+                        .add(i);
+            } else {
+                rangeIndex.computeIfAbsent(predicate.field(), field -> new LinkedHashMap<>())
+                        .put(i, (RangePredicate) predicate);
+            }
+        }
+        return new ConditionIndex(snapshot, index, rangeIndex, unindexedRules);
+    }
+
+    /**
+     * The ruleset snapshot this index was built from
+     */
+    public RulesetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Number of rules that are only evaluated when their indexed constant
+     * or range matches
+     */
+    public int getIndexedRuleCount() {
+        return indexedRuleCount;
+    }
+
+    /**
+     * Number of distinct fields rules are indexed on
+     */
+    public int getIndexedFieldCount() {
+        return indexedFieldCount;
+    }
+
+    /**
+     * Find the rules whose condition can be true for the given input
+     *
+     * @param inputData The input data of the request
+     * @return Positions of the candidate rules in the ruleset
+     */
+    public BitSet getCandidateRules(Map<String, Object> inputData) {
+        BitSet candidates = unindexedRules.isEmpty() ? new BitSet() : (BitSet) unindexedRules.clone();
+        for (int f = 0; f < fields.length; f++) {
+            Object key = ConditionAnalyzer.keyOf(inputData != null ? inputData.get(fields[f]) : null);
+            int[] rules = key == ConditionAnalyzer.UNKNOWN ? rulesByField[f] : rulesByKey.get(f).get(key);
+            if (rules != null) {
+                setAll(candidates, rules);
+            }
+        }
+        for (int f = 0; f < rangeFields.length; f++) {
+            Object key = ConditionAnalyzer.rangeKeyOf(inputData != null ? inputData.get(rangeFields[f]) : null);
+            if (key == null) {
+                setAll(candidates, nullRangeRules[f]);
+            } else if (key instanceof Double value) {
+                rangeIndexes[f].collect(value, candidates);
+            } else if (key == ConditionAnalyzer.UNKNOWN) {
+                setAll(candidates, rangeRulesByField[f]);
+            }
+        }
+        return candidates;
+    }
+
+    private static void setAll(BitSet candidates, int[] rules) {
+        for (int rule : rules) {
+            candidates.set(rule);
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,52 @@
+package com.rules.service.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Builds and caches the {@link ConditionIndex} of large rulesets
+ */
+@Service
+public class ConditionIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionIndexService.class);
+
+    private final RuleEngineProperties properties;
+    private final Map<String, ConditionIndex> indexes = new ConcurrentHashMap<>();
+
+    public ConditionIndexService(RuleEngineProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Whether a ruleset is large enough to be indexed
+     */
+    public boolean isEnabled(RulesetSnapshot snapshot) {
+        RuleEngineProperties.ConditionIndex config = properties.getConditionIndex();
+        return config.isEnabled() && snapshot.getRuleCount() >= config.getMinRules();
+    }
+
+    /**
+     * Get the condition index of a ruleset snapshot, building it if the
+     * ruleset is new or has changed since it was last indexed
+     */
+    public ConditionIndex getIndex(RulesetSnapshot snapshot) {
+        ConditionIndex current = indexes.get(snapshot.getName());
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+        ConditionIndex index = ConditionIndex.build(snapshot);
+        logger.debug("Ruleset '{}' version {}: {} of {} rules indexed on {} fields", snapshot.getName(),
+                snapshot.getVersion(), index.getIndexedRuleCount(), snapshot.getRuleCount(),
+                index.getIndexedFieldCount());
+        indexes.put(snapshot.getName(), index);
+        return index;
+    }
+}
@@ -0,0 +1,400 @@
+package com.rules.service.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Discrimination network over the conditions of a ruleset.
+ *
+ * Every condition is split at its {@code AND}, {@code OR} and {@code NOT}
+ * operators into tests, the remaining sub-expressions, joined by nodes for
+ * those operators. Identical tests and joins are shared between all rules of
+ * the ruleset. A node that only reads input fields, never the output of a
+ * rule, has the same result wherever it appears during an execution, so it is
+ * evaluated at most once per execution and its result, or its failure, is
+ * reused by every later rule that contains it. Nodes that read rule outputs
+ * are evaluated every time, since earlier rules may change what they read.
+ *
+ * Nodes are evaluated lazily and with the same short-circuiting as the
+ * original condition, so results and reported failures are those of
+ * evaluating every condition on its own. Conditions that cannot be split
+ * are evaluated as a single unshared test.
+ */
+public final class ConditionNetwork {
+
+    // Memo value of a test that evaluated to null
+    private static final Object NULL_RESULT = new Object();
+
+    private static final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private final RulesetSnapshot snapshot;
+    private final Node[] conditions;
+    private final int nodeCount;
+    private final int sharedNodeCount;
+    private final int occurrenceCount;
+
+    private ConditionNetwork(RulesetSnapshot snapshot, Node[] conditions, int nodeCount, int sharedNodeCount,
+            int occurrenceCount) {
+        this.snapshot = snapshot;
+        this.conditions = conditions;
+        this.nodeCount = nodeCount;
+        this.sharedNodeCount = sharedNodeCount;
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    /**
+     * Compile the conditions of a ruleset into a network
+     *
+     * @param snapshot        The ruleset
+     * @param expressionCache Source of the parsed tests, resolved on first use
+     */
+    public static ConditionNetwork build(RulesetSnapshot snapshot, ExpressionCacheService expressionCache) {
+        Builder builder = new Builder(snapshot, expressionCache);
+        List<RuleDefinition> rules = snapshot.getRules();
+        Node[] conditions = new Node[rules.size()];
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = builder.compile(rules.get(i));
+        }
+        return new ConditionNetwork(snapshot, conditions, builder.nodes.size(), builder.sharedNodeCount,
+                builder.occurrenceCount);
+    }
+
+    /**
+     * The ruleset snapshot this network was built from
+     */
+    public RulesetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Number of distinct tests and joins in the network
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Number of distinct nodes evaluated at most once per execution
+     */
+    public int getSharedNodeCount() {
+        return sharedNodeCount;
+    }
+
+    /**
+     * Number of tests and joins the conditions contain, counting every
+     * occurrence
+     */
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    /**
+     * Start evaluating conditions for one execution of the ruleset. The
+     * returned evaluation remembers shared results, so it must not be used by
+     * more than one thread or for more than one execution.
+     */
+    public Evaluation newEvaluation(RuleEvaluationContext context) {
+        return new Evaluation(context, new Object[sharedNodeCount]);
+    }
+
+    /**
+     * The conditions of one execution of a ruleset
+     */
+    public final class Evaluation {
+
+        private final RuleEvaluationContext context;
+        private final Object[] memo;
+
+        private Evaluation(RuleEvaluationContext context, Object[] memo) {
+            this.context = context;
+            this.memo = memo;
+        }
+
+        /**
+         * Evaluate the condition of a rule
+         *
+         * @param rule Position of the rule in the ruleset
+         * @return The value of the condition, as evaluating it on its own
+         *         would return it
+         */
+        public Boolean evaluate(int rule) {
+            return value(conditions[rule]);
+        }
+
+        Boolean value(Node node) {
+            if (node.memoSlot < 0) {
+                return node.compute(this);
+            }
+            Object result = memo[node.memoSlot];
+            if (result == null) {
+                try {
+                    Boolean value = node.compute(this);
+                    memo[node.memoSlot] = value != null ? value : NULL_RESULT;
+                    return value;
+                } catch (RuntimeException e) {
+                    memo[node.memoSlot] = e;
+                    throw e;
+                }
+            }
+            if (result instanceof RuntimeException e) {
+                throw e;
+            }
+            return result == NULL_RESULT ? null : (Boolean) result;
+        }
+
+        /**
+         * Value of an operand of a join, which SpEL requires to be a boolean
+         */
+        boolean operand(Node node) {
+            Boolean value = value(node);
+            if (value == null) {
+                throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, "null", "boolean");
+            }
+            return value;
+        }
+    }
+
+    private abstract static sealed class Node permits Test, And, Or, Not {
+        // Slot of the node's result in the memo of an evaluation, -1 if not shared
+        int memoSlot = -1;
+
+        abstract Boolean compute(Evaluation evaluation);
+    }
+
+    private static final class Test extends Node {
+        private final String rulesetName;
+        private final String expressionText;
+        private final ExpressionCacheService expressionCache;
+        private volatile RuleExpression expression;
+
+        Test(String rulesetName, String expressionText, ExpressionCacheService expressionCache) {
+            this.rulesetName = rulesetName;
+            this.expressionText = expressionText;
+            this.expressionCache = expressionCache;
+        }
+
+        @Override
+        Boolean compute(Evaluation evaluation) {
+            RuleExpression parsed = expression;
+            if (parsed == null) {
+                // Parsed on first use, so invalid expressions fail when their rule runs
+                parsed = expressionCache.getExpression(rulesetName, null, expressionText);
+                expression = parsed;
+            }
+            return parsed.getValue(evaluation.context, Boolean.class);
+        }
+    }
+
+    private static final class And extends Node {
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Boolean compute(Evaluation evaluation) {
+            return evaluation.operand(left) && evaluation.operand(right);
+        }
+    }
+
+    private static final class Or extends Node {
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Boolean compute(Evaluation evaluation) {
+            return evaluation.operand(left) || evaluation.operand(right);
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Boolean compute(Evaluation evaluation) {
+            return !evaluation.operand(operand);
+        }
+    }
+
+    /**
+     * Compiles conditions, interning nodes by their structure
+     */
+    private static final class Builder {
+        private final RulesetSnapshot snapshot;
+        private final ExpressionCacheService expressionCache;
+        private final Map<String, Node> nodes = new HashMap<>();
+        private final Map<Node, String> keys = new HashMap<>();
+        private final Set<Node> inputOnlyNodes = new HashSet<>();
+        private int sharedNodeCount;
+        private int occurrenceCount;
+
+        Builder(RulesetSnapshot snapshot, ExpressionCacheService expressionCache) {
+            this.snapshot = snapshot;
+            this.expressionCache = expressionCache;
+        }
+
+        Node compile(RuleDefinition rule) {
+            String condition = rule.getCondition();
+            int occurrencesBefore = occurrenceCount;
+            if (condition != null) {
+                try {
+                    Node node = compile(((SpelExpression) parser.parseExpression(condition)).getAST(), condition);
+                    if (node != null) {
+                        return node;
+                    }
+                } catch (ParseException e) {
+                    // Reported when the rule runs
+                }
+            }
+            // Evaluated as a whole, in the same way as without the network
+            occurrenceCount = occurrencesBefore + 1;
+            return new Test(snapshot.getName(), condition, expressionCache);
+        }
+
+        /**
+         * @return The node, or null if the condition cannot be split
+         */
+        private Node compile(SpelNode ast, String condition) {
+            if (ast instanceof OpAnd || ast instanceof OpOr) {
+                Node left = compile(ast.getChild(0), condition);
+                Node right = left != null ? compile(ast.getChild(1), condition) : null;
+                if (right == null) {
+                    return null;
+                }
+                boolean and = ast instanceof OpAnd;
+                return intern((and ? "and(" : "or(") + keys.get(left) + "," + keys.get(right) + ")",
+                        () -> and ? new And(left, right) : new Or(left, right),
+                        inputOnlyNodes.contains(left) && inputOnlyNodes.contains(right));
+            }
+            if (ast instanceof OperatorNot) {
+                Node operand = compile(ast.getChild(0), condition);
+                if (operand == null) {
+                    return null;
+                }
+                return intern("not(" + keys.get(operand) + ")", () -> new Not(operand),
+                        inputOnlyNodes.contains(operand));
+            }
+
+            String text = sourceOf(ast, condition);
+            if (text == null) {
+                return null;
+            }
+            return intern("test[" + text + "]", () -> new Test(snapshot.getName(), text, expressionCache),
+                    readsOnlyInput(text));
+        }
+
+        private Node intern(String key, Supplier<Node> factory, boolean inputOnly) {
+            occurrenceCount++;
+            Node node = nodes.get(key);
+            if (node == null) {
+                node = factory.get();
+                if (inputOnly) {
+                    inputOnlyNodes.add(node);
+                    node.memoSlot = sharedNodeCount++;
+                }
+                nodes.put(key, node);
+                keys.put(node, key);
+            }
+            return node;
+        }
+
+        private boolean readsOnlyInput(String text) {
+            Set<String> reads = new HashSet<>();
+            if (!RuleDependencyAnalyzer.collectReads(text, reads)) {
+                return false;
+            }
+            OutputSlotLayout layout = snapshot.getOutputLayout();
+            for (String name : reads) {
+                if (layout.slotOf(name) != OutputSlotLayout.NO_SLOT) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Find the source text of a sub-expression. SpEL only records the
+         * position of operators, so the text spans the positions of the whole
+         * subtree, widened to balance parentheses; it is only used if it
+         * parses back to the same expression.
+         */
+        private static String sourceOf(SpelNode ast, String condition) {
+            int[] span = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+            widenToSubtree(ast, span);
+            int start = span[0];
+            int end = span[1];
+            if (start < 0 || end > condition.length() || start >= end) {
+                return null;
+            }
+            int open = 0;
+            int unmatchedClose = 0;
+            for (int i = start; i < end; i++) {
+                char c = condition.charAt(i);
+                if (c == '(') {
+                    open++;
+                } else if (c == ')') {
+                    if (open > 0) {
+                        open--;
+                    } else {
+                        unmatchedClose++;
+                    }
+                }
+            }
+            for (; unmatchedClose > 0 && start > 0; start--) {
+                if (condition.charAt(start - 1) == '(') {
+                    unmatchedClose--;
+                }
+            }
+            for (; open > 0 && end < condition.length(); end++) {
+                if (condition.charAt(end) == ')') {
+                    open--;
+                }
+            }
+            String text = condition.substring(start, end).trim();
+            try {
+                SpelNode reparsed = ((SpelExpression) parser.parseExpression(text)).getAST();
+                return reparsed.toStringAST().equals(ast.toStringAST()) ? text : null;
+            } catch (ParseException e) {
+                return null;
+            }
+        }
+
+        private static void widenToSubtree(SpelNode node, int[] span) {
+            span[0] = Math.min(span[0], node.getStartPosition());
+            span[1] = Math.max(span[1], node.getEndPosition());
+            for (int i = 0; i < node.getChildCount(); i++) {
+                widenToSubtree(node.getChild(i), span);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.rules.service.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Builds and caches the {@link ConditionNetwork} of rulesets running in the
+ * network execution mode
+ */
+@Service
+public class ConditionNetworkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionNetworkService.class);
+
+    private final RuleEngineProperties properties;
+    private final ExpressionCacheService expressionCache;
+    private final Map<String, ConditionNetwork> networks = new ConcurrentHashMap<>();
+
+    public ConditionNetworkService(RuleEngineProperties properties, ExpressionCacheService expressionCache) {
+        this.properties = properties;
+        this.expressionCache = expressionCache;
+    }
+
+    /**
+     * Whether a ruleset is configured to evaluate its conditions through a
+     * shared condition network
+     */
+    public boolean isEnabled(String rulesetName) {
+        return properties.getExecutionMode(rulesetName) == RuleEngineProperties.ExecutionMode.NETWORK;
+    }
+
+    /**
+     * Get the condition network of a ruleset snapshot, building it if the
+     * ruleset is new or has changed since it was last built
+     */
+    public ConditionNetwork getNetwork(RulesetSnapshot snapshot) {
+        ConditionNetwork current = networks.get(snapshot.getName());
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+        ConditionNetwork network = ConditionNetwork.build(snapshot, expressionCache);
+        logger.debug("Ruleset '{}' version {}: {} condition nodes shared into {}, {} evaluated once per execution",
+                snapshot.getName(), snapshot.getVersion(), network.getOccurrenceCount(), network.getNodeCount(),
+                network.getSharedNodeCount());
+        networks.put(snapshot.getName(), network);
+        return network;
+    }
+}
@@ -0,0 +1,92 @@
+package com.rules.service.service;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+
+/**
+ * Immutable, thread-safe part of a rule evaluation context: accessors,
+ * resolvers, type support and registered functions.
+ * Built once at startup and shared by every {@link RuleEvaluationContext}, so
+ * creating a context per request only binds the per-request variable scope.
+ */
+public final class EvaluationContextTemplate {
+    private final List<PropertyAccessor> propertyAccessors;
+    private final List<ConstructorResolver> constructorResolvers;
+    private final List<MethodResolver> methodResolvers;
+    private final TypeLocator typeLocator;
+    private final TypeConverter typeConverter;
+    private final TypeComparator typeComparator;
+    private final OperatorOverloader operatorOverloader;
+    private final Map<String, Method> functions;
+
+    public EvaluationContextTemplate(List<PropertyAccessor> propertyAccessors,
+            List<ConstructorResolver> constructorResolvers, List<MethodResolver> methodResolvers,
+            TypeLocator typeLocator, TypeConverter typeConverter, TypeComparator typeComparator,
+            OperatorOverloader operatorOverloader, Map<String, Method> functions) {
+        this.propertyAccessors = List.copyOf(propertyAccessors);
+        this.constructorResolvers = List.copyOf(constructorResolvers);
+        this.methodResolvers = List.copyOf(methodResolvers);
+        this.typeLocator = typeLocator;
+        this.typeConverter = typeConverter;
+        this.typeComparator = typeComparator;
+        this.operatorOverloader = operatorOverloader;
+        this.functions = Map.copyOf(functions);
+    }
+
+    /**
+     * Create a per-request context bound to the given root object
+     *
+     * @param rootObject The root object expressions are evaluated against; its
+     *                   scope also backs # variables
+     * @return A new evaluation context sharing this template
+     */
+    public RuleEvaluationContext createContext(PropertyAccessWrapper rootObject) {
+        return new RuleEvaluationContext(this, rootObject);
+    }
+
+    public List<PropertyAccessor> getPropertyAccessors() {
+        return propertyAccessors;
+    }
+
+    public List<ConstructorResolver> getConstructorResolvers() {
+        return constructorResolvers;
+    }
+
+    public List<MethodResolver> getMethodResolvers() {
+        return methodResolvers;
+    }
+
+    public TypeLocator getTypeLocator() {
+        return typeLocator;
+    }
+
+    public TypeConverter getTypeConverter() {
+        return typeConverter;
+    }
+
+    public TypeComparator getTypeComparator() {
+        return typeComparator;
+    }
+
+    public OperatorOverloader getOperatorOverloader() {
+        return operatorOverloader;
+    }
+
+    /**
+     * Get a registered function by name
+     *
+     * @return The function's method, or null if no such function exists
+     */
+    public Method getFunction(String name) {
+        return functions.get(name);
+    }
+}
@@ -0,0 +1,289 @@
+package com.rules.service.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.RuleDefinition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records metrics of rule executions in the application's meter registry,
+ * exported by Spring Boot Actuator, for instance at
+ * {@code /actuator/prometheus}.
+ *
+ * Every execution records its latency in the {@code rules.execution}
+ * histogram of its ruleset, tagged with its outcome, and the number of
+ * rules that fired or did not. Null-safe fallbacks are counted as they
+ * happen. Timing each rule's condition and transformation costs more than
+ * the rule itself for simple rules, so only one in
+ * {@code rules.metrics.rule-sample-rate} executions is timed rule by rule.
+ * Likewise, the bytes allocated by one in
+ * {@code rules.metrics.allocation-sample-rate} executions are measured, in
+ * total and per {@link Allocations.Phase phase}. Expression cache counters
+ * are read when the registry is scraped.
+ */
+@Service
+public class ExecutionMetricsService {
+
+    private final MeterRegistry registry;
+    private final int ruleSampleRate;
+    private final int allocationSampleRate;
+    private final Map<String, RulesetMeters> rulesets = new ConcurrentHashMap<>();
+
+    public ExecutionMetricsService(MeterRegistry registry, RuleEngineProperties properties,
+            ExpressionCacheService expressionCache) {
+        this.registry = registry;
+        this.ruleSampleRate = properties.getMetrics().getRuleSampleRate();
+        this.allocationSampleRate = AllocationMeter.isSupported()
+                ? properties.getMetrics().getAllocationSampleRate()
+                : 0;
+        bindExpressionCache(expressionCache);
+    }
+
+    private void bindExpressionCache(ExpressionCacheService expressionCache) {
+        FunctionCounter.builder("rules.expression.cache.requests", expressionCache,
+                cache -> cache.getStats().getHits())
+                .tag("result", "hit")
+                .description("Lookups of parsed expressions")
+                .register(registry);
+        FunctionCounter.builder("rules.expression.cache.requests", expressionCache,
+                cache -> cache.getStats().getMisses())
+                .tag("result", "miss")
+                .description("Lookups of parsed expressions")
+                .register(registry);
+        FunctionCounter.builder("rules.expression.cache.evictions", expressionCache,
+                cache -> cache.getStats().getEvictions())
+                .description("Parsed expressions evicted from the cache")
+                .register(registry);
+        Gauge.builder("rules.expression.cache.size", expressionCache, cache -> cache.getStats().getSize())
+                .description("Parsed expressions in the cache")
+                .register(registry);
+        Gauge.builder("rules.expression.cache.hit.ratio", expressionCache, cache -> cache.getStats().getHitRatio())
+                .description("Share of lookups served from the cache since startup")
+                .register(registry);
+    }
+
+    /**
+     * Get the meters of a ruleset, registering them on first use
+     */
+    RulesetMeters forRuleset(String rulesetName) {
+        RulesetMeters meters = rulesets.get(rulesetName);
+        return meters != null ? meters : rulesets.computeIfAbsent(rulesetName, RulesetMeters::new);
+    }
+
+    /**
+     * The meters of one ruleset
+     */
+    final class RulesetMeters {
+
+        private final String rulesetName;
+        private final Timer succeeded;
+        private final Timer failed;
+        private final Counter fired;
+        private final Counter notFired;
+        private final Counter conditionFallbacks;
+        private final Counter transformationFallbacks;
+        private final DistributionSummary allocated;
+        private final DistributionSummary[] phaseAllocated = new DistributionSummary[Allocations.PHASES.length];
+        private final Map<String, RuleTimers> ruleTimers = new ConcurrentHashMap<>();
+
+        private RulesetMeters(String rulesetName) {
+            this.rulesetName = rulesetName;
+            this.succeeded = executionTimer("success");
+            this.failed = executionTimer("error");
+            this.fired = rulesCounter("true");
+            this.notFired = rulesCounter("false");
+            this.conditionFallbacks = fallbackCounter("condition");
+            this.transformationFallbacks = fallbackCounter("transformation");
+            this.allocated = DistributionSummary.builder("rules.execution.allocation")
+                    .tag("ruleset", rulesetName)
+                    .baseUnit("bytes")
+                    .description("Bytes allocated by sampled successful executions")
+                    .register(registry);
+            for (Allocations.Phase phase : Allocations.PHASES) {
+                phaseAllocated[phase.ordinal()] = DistributionSummary.builder("rules.execution.phase.allocation")
+                        .tag("ruleset", rulesetName)
+                        .tag("phase", phase.getTag())
+                        .baseUnit("bytes")
+                        .description("Bytes allocated by a phase of sampled successful executions")
+                        .register(registry);
+            }
+        }
+
+        private Timer executionTimer(String outcome) {
+            return Timer.builder("rules.execution")
+                    .tag("ruleset", rulesetName)
+                    .tag("outcome", outcome)
+                    .description("Executions of a ruleset against one input")
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private Counter rulesCounter(String fired) {
+            return Counter.builder("rules.rules.evaluated")
+                    .tag("ruleset", rulesetName)
+                    .tag("fired", fired)
+                    .description("Rules of successful executions whose transformation ran or not")
+                    .register(registry);
+        }
+
+        private Counter fallbackCounter(String part) {
+            return Counter.builder("rules.null.safe.fallbacks")
+                    .tag("ruleset", rulesetName)
+                    .tag("part", part)
+                    .description("Null property accesses turned into a false condition or a null output")
+                    .register(registry);
+        }
+
+        /**
+         * Whether to time the rules of the next execution
+         */
+        boolean sampleRules() {
+            return ruleSampleRate > 0 && ThreadLocalRandom.current().nextInt(ruleSampleRate) == 0;
+        }
+
+        /**
+         * Start measuring the allocations of an execution, if it is sampled
+         *
+         * @return The measurement, or null if the execution is not sampled or
+         *         runs on a virtual thread
+         */
+        Allocations startAllocations() {
+            if (allocationSampleRate == 0 || ThreadLocalRandom.current().nextInt(allocationSampleRate) != 0) {
+                return null;
+            }
+            Allocations allocations = new Allocations();
+            return allocations.start != AllocationMeter.UNSUPPORTED ? allocations : null;
+        }
+
+        /**
+         * Record the allocations of a successful execution
+         */
+        void recordAllocations(Allocations allocations) {
+            allocated.record(AllocationMeter.allocatedBytes() - allocations.start);
+            for (Allocations.Phase phase : Allocations.PHASES) {
+                if (allocations.measured[phase.ordinal()]) {
+                    phaseAllocated[phase.ordinal()].record(allocations.phases[phase.ordinal()]);
+                }
+            }
+        }
+
+        void recordExecution(long nanos, boolean succeeded) {
+            (succeeded ? this.succeeded : this.failed).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record how many rules of a successful execution fired
+         */
+        void recordRules(int fired, int ruleCount) {
+            this.fired.increment(fired);
+            this.notFired.increment(ruleCount - fired);
+        }
+
+        void recordFallback(boolean condition) {
+            (condition ? conditionFallbacks : transformationFallbacks).increment();
+        }
+
+        /**
+         * Get the timers of a rule's condition and transformation, by
+         * position for rules that were not saved
+         */
+        RuleTimers ruleTimers(RuleDefinition rule, int position) {
+            String ruleId = rule.getId() != null ? rule.getId().toString() : "#" + position;
+            RuleTimers timers = ruleTimers.get(ruleId);
+            return timers != null ? timers
+                    : ruleTimers.computeIfAbsent(ruleId, id -> new RuleTimers(ruleTimer("condition", id, rule),
+                            ruleTimer("transformation", id, rule)));
+        }
+
+        private Timer ruleTimer(String part, String ruleId, RuleDefinition rule) {
+            return Timer.builder("rules.rule.evaluation")
+                    .tag("ruleset", rulesetName)
+                    .tag("rule", ruleId)
+                    .tag("output", String.valueOf(rule.getOutputVariable()))
+                    .tag("part", part)
+                    .description("Sampled evaluations of a rule's condition or transformation")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * The bytes an execution allocated so far on its thread, in total and
+     * per phase. Executions of generated classes only report their total.
+     * Allocations on other threads, such as those running the stages of
+     * parallel executions, are not counted.
+     */
+    static final class Allocations {
+
+        /**
+         * The phases of an execution
+         */
+        enum Phase {
+            /**
+             * Wrapping the input as the root object of the evaluation context
+             */
+            INPUT("input"),
+            /**
+             * Creating the evaluation context and what the rules share
+             */
+            CONTEXT("context"),
+            /**
+             * Selecting and evaluating the rules
+             */
+            EVALUATION("evaluation"),
+            /**
+             * Building the output map
+             */
+            RESPONSE("response");
+
+            private final String tag;
+
+            Phase(String tag) {
+                this.tag = tag;
+            }
+
+            String getTag() {
+                return tag;
+            }
+        }
+
+        static final Phase[] PHASES = Phase.values();
+
+        private final long[] phases = new long[PHASES.length];
+        private final boolean[] measured = new boolean[PHASES.length];
+        private final long start;
+        private long last;
+
+        private Allocations() {
+            this.start = AllocationMeter.allocatedBytes();
+            this.last = start;
+        }
+
+        /**
+         * End a phase, which started where the previous one ended
+         */
+        void end(Phase phase) {
+            long now = AllocationMeter.allocatedBytes();
+            phases[phase.ordinal()] += now - last;
+            measured[phase.ordinal()] = true;
+            last = now;
+        }
+    }
+
+    /**
+     * Timers of a rule's condition and transformation
+     */
+    record RuleTimers(Timer condition, Timer transformation) {
+    }
+}
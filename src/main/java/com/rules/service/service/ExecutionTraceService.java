@@ -0,0 +1,200 @@
+package com.rules.service.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.ExecutionTrace;
+import com.rules.service.dto.RuleTrace;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Records traces of rule executions: the input, the outcome of every rule
+ * that was evaluated, and the outputs or the error of the execution.
+ *
+ * Executions are traced when their ruleset has {@code rules.rulesets.<name>.trace}
+ * on, when the request asked for it with the {@value #TRACE_HEADER} header,
+ * or at random for one in {@code rules.trace.sample-rate} executions.
+ * Untraced executions carry no recorder, so they build no strings and
+ * allocate nothing for tracing. The most recent {@code rules.trace.capacity}
+ * traces are kept in a ring buffer written without locks.
+ */
+@Service
+public class ExecutionTraceService {
+
+    /**
+     * Request header asking for the executions of the request to be traced
+     */
+    public static final String TRACE_HEADER = "X-Rules-Trace";
+
+    private final RuleEngineProperties properties;
+    private final int sampleRate;
+    private final AtomicReferenceArray<ExecutionTrace> traces;
+    private final AtomicLong sequence = new AtomicLong();
+    // Whether the executions started by the current thread were asked to be traced
+    private final ThreadLocal<Boolean> requested = new ThreadLocal<>();
+
+    public ExecutionTraceService(RuleEngineProperties properties) {
+        this.properties = properties;
+        this.sampleRate = properties.getTrace().getSampleRate();
+        this.traces = new AtomicReferenceArray<>(Math.max(1, properties.getTrace().getCapacity()));
+    }
+
+    /**
+     * A scope in which executions are traced, to be closed by the thread that
+     * opened it
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Trace every execution prepared by the current thread until the
+     * returned scope is closed
+     */
+    public Scope traceRequested() {
+        Boolean previous = requested.get();
+        requested.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                requested.remove();
+            } else {
+                requested.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Whether the current thread is within {@link #traceRequested()}
+     */
+    public boolean isTraceRequested() {
+        return requested.get() != null;
+    }
+
+    /**
+     * Decide whether every execution of a ruleset being prepared is traced
+     *
+     * @return The reason of the traces, or null if executions are only
+     *         sampled
+     */
+    String traceReason(String rulesetName) {
+        if (isTraceRequested()) {
+            return "requested";
+        }
+        return properties.isTraced(rulesetName) ? "ruleset" : null;
+    }
+
+    /**
+     * Start recording an execution
+     *
+     * @param reason Why every execution of the prepared ruleset is traced,
+     *               null to trace a sample of executions
+     * @return The recorder, or null if the execution is not traced
+     */
+    Recorder startTrace(RulesetSnapshot ruleset, Map<String, Object> inputData, String reason) {
+        if (reason == null) {
+            if (sampleRate <= 0 || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                return null;
+            }
+            reason = "sampled";
+        }
+        return new Recorder(ruleset, inputData, reason);
+    }
+
+    /**
+     * Add the trace of a finished execution to the ring buffer, replacing the
+     * oldest trace once it is full
+     */
+    void record(Recorder recorder, Map<String, Object> outputs, String error) {
+        long id = sequence.getAndIncrement();
+        traces.set((int) (id % traces.length()), recorder.toTrace(id, outputs, error));
+    }
+
+    /**
+     * Get the most recent traces of a ruleset, newest first
+     *
+     * @param rulesetName The name of the ruleset
+     * @param limit       The largest number of traces to return
+     */
+    public List<ExecutionTrace> getTraces(String rulesetName, int limit) {
+        List<ExecutionTrace> result = new ArrayList<>();
+        long last = sequence.get() - 1;
+        long first = Math.max(0, last - traces.length() + 1);
+        for (long id = last; id >= first && result.size() < limit; id--) {
+            ExecutionTrace trace = traces.get((int) (id % traces.length()));
+            // Slots overwritten since reading the sequence hold newer traces,
+            // and slots not written yet still hold older ones
+            if (trace != null && trace.getId() == id && trace.getRulesetName().equals(rulesetName)) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects what happens during one traced execution. Every rule is
+     * recorded by the thread executing it, at its own position.
+     */
+    static final class Recorder {
+
+        private final RulesetSnapshot ruleset;
+        private final String reason;
+        private final Instant timestamp = Instant.now();
+        private final long start = System.nanoTime();
+        private final Map<String, Object> input;
+        private final RuleTrace[] rules;
+        private final String[] nullPropertyAccesses;
+
+        private Recorder(RulesetSnapshot ruleset, Map<String, Object> inputData, String reason) {
+            this.ruleset = ruleset;
+            this.reason = reason;
+            this.input = inputData != null ? new LinkedHashMap<>(inputData) : null;
+            this.rules = new RuleTrace[ruleset.getRuleCount()];
+            this.nullPropertyAccesses = new String[ruleset.getRuleCount()];
+        }
+
+        /**
+         * Record a null property access of a rule that null-safe evaluation
+         * turned into a false condition or a null output
+         */
+        void nullPropertyAccess(int position, String message) {
+            nullPropertyAccesses[position] = message;
+        }
+
+        /**
+         * Record the evaluation of a rule
+         *
+         * @param conditionResult Result of the condition, null if it failed
+         * @param output          Value written by the rule, if it fired
+         * @param error           Message of the failure, if the rule failed
+         * @param start           {@link System#nanoTime()} when the rule
+         *                        started
+         */
+        void rule(int position, RuleDefinition rule, Boolean conditionResult, Object output, String error,
+                long start) {
+            rules[position] = new RuleTrace(position, rule.getId(), rule.getOutputVariable(), conditionResult,
+                    output, nullPropertyAccesses[position], error, System.nanoTime() - start);
+        }
+
+        private ExecutionTrace toTrace(long id, Map<String, Object> outputs, String error) {
+            List<RuleTrace> evaluated = new ArrayList<>();
+            for (RuleTrace rule : rules) {
+                if (rule != null) {
+                    evaluated.add(rule);
+                }
+            }
+            return new ExecutionTrace(id, ruleset.getName(), ruleset.getVersion(), reason, timestamp,
+                    System.nanoTime() - start, input, evaluated, outputs, error);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+
+/**
+ * Service responsible for caching parsed rule expressions
+ *
+ * Expressions are keyed by ruleset, rule id and expression text. The cache is
+ * bounded: once it grows past its maximum size the least recently used entries
+ * are evicted. Concurrent lookups of the same cold expression are parsed only
+ * once, the other callers wait for and share the parsed result.
+ *
+ * Each expression is parsed by the {@link ExpressionEngine} configured for its
+ * ruleset, see {@link RuleEngineProperties#getEngine(String)}, and SpEL
+ * expressions use the ruleset's compiler mode, see
+ * {@link RuleEngineProperties#getCompilerMode(String)}.
+ */
+@Service
+public class ExpressionCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpressionCacheService.class);
+
+    /**
+     * Entries touched within this window are not re-stamped, which keeps hot
+     * entries from writing their access time on every single lookup
+     */
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000L;
+
+    private final Map<RuleEngineProperties.Engine, ExpressionEngine> engines =
+            new EnumMap<>(RuleEngineProperties.Engine.class);
+    private final RuleEngineProperties properties;
+    private final int maxSize;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpressionCacheService(RuleEngineProperties properties) {
+        int maxSize = properties.getExpressionCache().getMaxSize();
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Expression cache size must be positive: " + maxSize);
+        }
+        ExpressionEngine spel = new SpelExpressionEngine(properties);
+        engines.put(spel.getType(), spel);
+        ExpressionEngine nativeEngine = new NativeExpressionEngine(spel);
+        engines.put(nativeEngine.getType(), nativeEngine);
+        this.properties = properties;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the parsed expression for a rule, parsing and caching it on first use
+     *
+     * @param rulesetName    The name of the ruleset the rule belongs to
+     * @param ruleId         The id of the rule (may be null for unsaved rules)
+     * @param expressionText The expression text
+     * @return The parsed expression
+     */
+    public RuleExpression getExpression(String rulesetName, UUID ruleId, String expressionText) {
+        lookups.increment();
+        CacheKey key = new CacheKey(rulesetName, ruleId, expressionText, properties.getEngine(rulesetName),
+                properties.getCompilerMode(rulesetName));
+
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            // computeIfAbsent runs the parse at most once per key, concurrent
+            // callers for the same key block until it completes
+            entry = entries.computeIfAbsent(key, k -> {
+                misses.increment();
+                return new CacheEntry(engines.get(k.engine()).parse(k.rulesetName(), k.expressionText()));
+            });
+            if (entries.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+        }
+
+        entry.touch();
+        return entry.expression;
+    }
+
+    /**
+     * Remove all cached expressions belonging to a ruleset
+     *
+     * @param rulesetName The name of the ruleset that changed
+     */
+    public void invalidateRuleset(String rulesetName) {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> Objects.equals(key.rulesetName(), rulesetName));
+        logger.debug("Invalidated {} cached expressions for ruleset '{}'", before - entries.size(), rulesetName);
+    }
+
+    /**
+     * Remove all cached expressions
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Get a point-in-time view of the cache counters
+     */
+    public CacheStats getStats() {
+        long lookupCount = lookups.sum();
+        long missCount = misses.sum();
+        return new CacheStats(entries.size(), maxSize, lookupCount - missCount, missCount, evictions.sum());
+    }
+
+    /**
+     * Evict the least recently used entries down to 90% of the maximum size.
+     * Evicting in a batch amortises the sort over many subsequent inserts, and
+     * only one thread evicts at a time.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = maxSize - Math.max(1, maxSize / 10);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            List<Map.Entry<CacheKey, CacheEntry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+
+            int removed = 0;
+            for (Map.Entry<CacheKey, CacheEntry> candidate : candidates) {
+                if (removed >= excess) {
+                    break;
+                }
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    removed++;
+                }
+            }
+            evictions.add(removed);
+            logger.debug("Evicted {} expressions from cache (max size {})", removed, maxSize);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Cache key: a rule's expression is identified by its ruleset, rule id and
+     * text. The ruleset is part of the key so a ruleset can be invalidated as a
+     * whole, the engine and compiler mode so a changed setting yields a fresh
+     * expression.
+     */
+    private record CacheKey(String rulesetName, UUID ruleId, String expressionText,
+            RuleEngineProperties.Engine engine, SpelCompilerMode compilerMode) {
+    }
+
+    private static final class CacheEntry {
+        private final RuleExpression expression;
+        private volatile long lastAccess;
+
+        private CacheEntry(RuleExpression expression) {
+            this.expression = expression;
+            this.lastAccess = System.nanoTime();
+        }
+
+        private void touch() {
+            long now = System.nanoTime();
+            if (now - lastAccess > ACCESS_GRANULARITY_NANOS) {
+                lastAccess = now;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the expression cache counters
+     */
+    public static class CacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public CacheStats(int size, int maxSize, long hits, long misses, long evictions) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
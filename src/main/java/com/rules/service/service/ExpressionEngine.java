@@ -0,0 +1,26 @@
+package com.rules.service.service;
+
+import com.rules.service.config.RuleEngineProperties;
+
+/**
+ * Parses rule expressions into evaluable {@link RuleExpression}s.
+ * The engine used for a ruleset is selected with {@code rules.engine} and
+ * {@code rules.rulesets.<name>.engine}.
+ */
+public interface ExpressionEngine {
+
+    /**
+     * The engine type this implementation provides
+     */
+    RuleEngineProperties.Engine getType();
+
+    /**
+     * Parse an expression of the given ruleset
+     *
+     * @param rulesetName    The ruleset the expression belongs to
+     * @param expressionText The expression text
+     * @return The parsed expression
+     * @throws org.springframework.expression.ParseException if the text is invalid
+     */
+    RuleExpression parse(String rulesetName, String expressionText);
+}
@@ -0,0 +1,115 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import com.rules.service.service.ConditionAnalyzer.RangePredicate;
+
+/**
+ * Centered interval tree over the ranges of the rules indexed on one field.
+ *
+ * Every node holds the ranges that span its center, sorted once by lower
+ * bound and once by upper bound, and passes the ranges entirely below or
+ * above the center on to its children. A lookup follows a single path from
+ * the root and, at every node, only scans the ranges that start before or
+ * end after the value, so it costs O(log n + m) for m matching ranges.
+ */
+final class IntervalIndex {
+
+    private final Node root;
+
+    /**
+     * @param ranges Ranges of the indexed rules, none of them empty
+     * @param rules  Position of the rule of each range in the ruleset
+     */
+    IntervalIndex(List<RangePredicate> ranges, int[] rules) {
+        List<Entry> entries = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            entries.add(new Entry(ranges.get(i), rules[i]));
+        }
+        this.root = build(entries);
+    }
+
+    /**
+     * Add the rules whose range contains a value to the candidates
+     */
+    void collect(double value, BitSet candidates) {
+        Node node = root;
+        while (node != null) {
+            if (value < node.center) {
+                // Ranges at this node end at or after the center, so only their lower bound matters
+                for (Entry entry : node.byLower) {
+                    if (entry.range().lower() > value) {
+                        break;
+                    }
+                    if (entry.range().contains(value)) {
+                        candidates.set(entry.rule());
+                    }
+                }
+                node = node.left;
+            } else if (value > node.center) {
+                for (Entry entry : node.byUpper) {
+                    if (entry.range().upper() < value) {
+                        break;
+                    }
+                    if (entry.range().contains(value)) {
+                        candidates.set(entry.rule());
+                    }
+                }
+                node = node.right;
+            } else {
+                for (Entry entry : node.byLower) {
+                    if (entry.range().contains(value)) {
+                        candidates.set(entry.rule());
+                    }
+                }
+                node = null;
+            }
+        }
+    }
+
+    private static Node build(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        // The median endpoint is the bound of at least one range, which
+        // therefore stays at this node, so every child is smaller. Ranges
+        // without finite bounds all stay at a leaf.
+        double[] endpoints = entries.stream()
+                .flatMapToDouble(entry -> Arrays.stream(new double[] { entry.range().lower(), entry.range().upper() }))
+                .filter(Double::isFinite)
+                .sorted()
+                .toArray();
+        boolean bounded = endpoints.length > 0;
+        double center = bounded ? endpoints[endpoints.length / 2] : 0;
+
+        List<Entry> here = new ArrayList<>();
+        List<Entry> below = new ArrayList<>();
+        List<Entry> above = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!bounded) {
+                here.add(entry);
+            } else if (entry.range().upper() < center) {
+                below.add(entry);
+            } else if (entry.range().lower() > center) {
+                above.add(entry);
+            } else {
+                here.add(entry);
+            }
+        }
+        Entry[] byLower = here.toArray(new Entry[0]);
+        Arrays.sort(byLower, Comparator.comparingDouble(entry -> entry.range().lower()));
+        Entry[] byUpper = here.toArray(new Entry[0]);
+        Arrays.sort(byUpper, Comparator.comparingDouble((Entry entry) -> entry.range().upper()).reversed());
+        return new Node(center, byLower, byUpper, build(below), build(above));
+    }
+
+    private record Entry(RangePredicate range, int rule) {
+    }
+
+    private record Node(double center, Entry[] byLower, Entry[] byUpper, Node left, Node right) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.rules.service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.rulelang.Node;
+import com.rules.service.service.rulelang.RuleLanguageParser;
+import com.rules.service.service.rulelang.UnsupportedExpressionException;
+
+/**
+ * Purpose-built expression engine for the rule language.
+ *
+ * Parses expressions into a typed syntax tree (see
+ * {@link com.rules.service.service.rulelang}) that navigates maps directly,
+ * compares and computes on primitives and calls the builtin functions without
+ * reflection, while keeping SpEL's results and error messages. Expressions
+ * using syntax the rule language does not cover are handed to the fallback
+ * engine, so every expression that is valid SpEL still runs.
+ */
+public class NativeExpressionEngine implements ExpressionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(NativeExpressionEngine.class);
+
+    private final RuleLanguageParser parser = new RuleLanguageParser();
+    private final ExpressionEngine fallback;
+
+    public NativeExpressionEngine(ExpressionEngine fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public RuleEngineProperties.Engine getType() {
+        return RuleEngineProperties.Engine.NATIVE;
+    }
+
+    @Override
+    public RuleExpression parse(String rulesetName, String expressionText) {
+        try {
+            Node root = parser.parse(expressionText);
+            return new NativeRuleExpression(expressionText, root);
+        } catch (UnsupportedExpressionException e) {
+            logger.debug("Expression '{}' falls back to {}: {}", expressionText, fallback.getType(), e.getMessage());
+            return fallback.parse(rulesetName, expressionText);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rules.service.service;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+import com.rules.service.service.rulelang.Node;
+import com.rules.service.service.rulelang.Operators;
+
+/**
+ * Rule expression evaluated by walking the native engine's syntax tree
+ */
+public class NativeRuleExpression implements RuleExpression {
+
+    static final String MODE = "NATIVE";
+
+    private final String expressionString;
+    private final Node root;
+
+    public NativeRuleExpression(String expressionString, Node root) {
+        this.expressionString = expressionString;
+        this.root = root;
+    }
+
+    @Override
+    public Object getValue(RuleEvaluationContext context) {
+        return root.evaluate(context);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(RuleEvaluationContext context, Class<T> expectedResultType) {
+        Object value = root.evaluate(context);
+        if (expectedResultType == Boolean.class) {
+            return (T) Operators.toBooleanObject(value);
+        }
+        if (value == null || expectedResultType.isInstance(value)) {
+            return (T) value;
+        }
+        return (T) context.getTypeConverter().convertValue(value, TypeDescriptor.forObject(value),
+                TypeDescriptor.valueOf(expectedResultType));
+    }
+
+    /**
+     * Get the root of the syntax tree
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    @Override
+    public String getExpressionString() {
+        return expressionString;
+    }
+
+    @Override
+    public String getMode() {
+        return MODE;
+    }
+
+    @Override
+    public boolean isCompiled() {
+        return false;
+    }
+}
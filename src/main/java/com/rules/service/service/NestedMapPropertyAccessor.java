@@ -2,18 +2,22 @@ package com.rules.service.service;
 
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 /**
  * Custom PropertyAccessor to handle nested Map access directly
  * This allows SpEL to navigate nested Map structures using dot notation
+ * Compilable, so the SpEL compiler can turn each step of a nested path into a
+ * direct {@link Map#get(Object)} call
  */
-public class NestedMapPropertyAccessor implements PropertyAccessor {
+public class NestedMapPropertyAccessor implements CompilablePropertyAccessor {
 
     @Override
     public Class<?>[] getSpecificTargetClasses() {
@@ -52,4 +56,27 @@ public class NestedMapPropertyAccessor implements PropertyAccessor {
             throws AccessException {
         throw new AccessException("Writing not supported");
     }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getPropertyType() {
+        return Object.class;
+    }
+
+    @Override
+    public void generateCode(@NonNull String propertyName, @NonNull MethodVisitor mv, @NonNull CodeFlow cf) {
+        String descriptor = cf.lastDescriptor();
+        if (descriptor == null || !descriptor.equals("Ljava/util/Map")) {
+            if (descriptor == null) {
+                cf.loadTarget(mv);
+            }
+            CodeFlow.insertCheckCast(mv, "Ljava/util/Map");
+        }
+        mv.visitLdcInsn(propertyName);
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.rules.service.service;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.RuleDependencyGraph;
+import com.rules.service.model.RulesetSnapshot;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the independent rules of a ruleset in parallel.
+ *
+ * The rules are grouped into stages by {@link RuleDependencyAnalyzer}. Stages
+ * run one after another; the rules of a stage run at the same time on a
+ * dedicated fork-join pool, each writing its own output slot. Results are the
+ * same as running the rules in order, including which failure is reported:
+ * when rules fail, the one that comes first in the ruleset wins.
+ */
+@Service
+public class ParallelRulesetExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelRulesetExecutor.class);
+
+    private final RuleEngineProperties properties;
+    private final ForkJoinPool pool;
+    private final Map<String, AnalyzedRuleset> graphs = new ConcurrentHashMap<>();
+
+    public ParallelRulesetExecutor(RuleEngineProperties properties) {
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallel().getParallelism());
+    }
+
+    /**
+     * Whether a ruleset is configured to run its independent rules in parallel
+     */
+    public boolean isEnabled(String rulesetName) {
+        return properties.getExecutionMode(rulesetName) == RuleEngineProperties.ExecutionMode.PARALLEL;
+    }
+
+    /**
+     * Get the dependency graph of a ruleset snapshot, analysing the ruleset if
+     * it is new or has changed since it was last analysed
+     */
+    public RuleDependencyGraph getDependencyGraph(RulesetSnapshot snapshot) {
+        AnalyzedRuleset current = graphs.get(snapshot.getName());
+        if (current != null && current.snapshot() == snapshot) {
+            return current.graph();
+        }
+        RuleDependencyGraph graph = RuleDependencyAnalyzer.analyze(snapshot);
+        logger.debug("Ruleset '{}' version {}: {} rules in {} stages, at most {} in parallel", snapshot.getName(),
+                snapshot.getVersion(), snapshot.getRuleCount(), graph.getStageCount(), graph.getMaxStageWidth());
+        graphs.put(snapshot.getName(), new AnalyzedRuleset(snapshot, graph));
+        return graph;
+    }
+
+    /**
+     * Run every rule of a ruleset, stage by stage
+     *
+     * @param snapshot The ruleset to run
+     * @param rule     Executes the rule at the given position in the ruleset
+     */
+    public void execute(RulesetSnapshot snapshot, IntConsumer rule) {
+        execute(snapshot, null, rule);
+    }
+
+    /**
+     * Run the selected rules of a ruleset, stage by stage
+     *
+     * @param snapshot The ruleset to run
+     * @param selected Positions of the rules to run, null to run all rules
+     * @param rule     Executes the rule at the given position in the ruleset
+     */
+    public void execute(RulesetSnapshot snapshot, BitSet selected, IntConsumer rule) {
+        RuleDependencyGraph graph = getDependencyGraph(snapshot);
+        int minStageSize = properties.getParallel().getMinStageSize();
+
+        // Position of the first failed rule; rules after it no longer need to run
+        int failedRule = Integer.MAX_VALUE;
+        RuntimeException failure = null;
+
+        for (int stage = 0; stage < graph.getStageCount(); stage++) {
+            int[] stageRules = new int[graph.getStageSize(stage)];
+            int size = 0;
+            for (int n = 0; n < stageRules.length; n++) {
+                int ruleIndex = graph.getStageRule(stage, n);
+                if (ruleIndex < failedRule && (selected == null || selected.get(ruleIndex))) {
+                    stageRules[size++] = ruleIndex;
+                }
+            }
+            if (size == 0) {
+                continue;
+            }
+
+            RuntimeException[] failures = new RuntimeException[size];
+            if (size < minStageSize) {
+                for (int n = 0; n < size; n++) {
+                    failures[n] = run(rule, stageRules[n]);
+                    if (failures[n] != null) {
+                        break;
+                    }
+                }
+            } else {
+                runInParallel(stageRules, size, rule, failures);
+            }
+
+            for (int n = 0; n < size; n++) {
+                if (failures[n] != null) {
+                    failedRule = stageRules[n];
+                    failure = failures[n];
+                    break;
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void runInParallel(int[] stageRules, int size, IntConsumer rule, RuntimeException[] failures) {
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[size];
+        for (int n = 1; n < size; n++) {
+            int position = n;
+            int ruleIndex = stageRules[n];
+            tasks[n] = pool.submit(() -> {
+                failures[position] = run(rule, ruleIndex);
+            });
+        }
+        // The calling thread takes the first rule itself
+        failures[0] = run(rule, stageRules[0]);
+        for (int n = 1; n < size; n++) {
+            tasks[n].join();
+        }
+    }
+
+    private static RuntimeException run(IntConsumer rule, int ruleIndex) {
+        try {
+            rule.accept(ruleIndex);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private record AnalyzedRuleset(RulesetSnapshot snapshot, RuleDependencyGraph graph) {
+    }
+}
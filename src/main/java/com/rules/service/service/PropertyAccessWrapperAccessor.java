@@ -1,17 +1,23 @@
 package com.rules.service.service;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 /**
  * Custom PropertyAccessor to enable dynamic property access on
  * PropertyAccessWrapper
+ * Compilable, so the SpEL compiler can turn a property read into a direct
+ * call to {@link PropertyAccessWrapper#get(String)}
  */
-public class PropertyAccessWrapperAccessor implements PropertyAccessor {
+public class PropertyAccessWrapperAccessor implements CompilablePropertyAccessor {
+
+    private static final String WRAPPER_TYPE = "com/rules/service/service/PropertyAccessWrapper";
 
     @Override
     public Class<?>[] getSpecificTargetClasses() {
@@ -48,4 +54,27 @@ public class PropertyAccessWrapperAccessor implements PropertyAccessor {
             throws AccessException {
         throw new AccessException("Writing not supported");
     }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getPropertyType() {
+        return Object.class;
+    }
+
+    @Override
+    public void generateCode(@NonNull String propertyName, @NonNull MethodVisitor mv, @NonNull CodeFlow cf) {
+        String descriptor = cf.lastDescriptor();
+        if (descriptor == null || !descriptor.equals("L" + WRAPPER_TYPE)) {
+            if (descriptor == null) {
+                cf.loadTarget(mv);
+            }
+            CodeFlow.insertCheckCast(mv, "L" + WRAPPER_TYPE);
+        }
+        mv.visitLdcInsn(propertyName);
+        mv.visitMethodInsn(INVOKEVIRTUAL, WRAPPER_TYPE, "get", "(Ljava/lang/String;)Ljava/lang/Object;", false);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-tokenized property path such as "user.profile.name" or
+ * "company.employees[1].profile.title".
+ *
+ * A path is split into field and index segments once and cached by its
+ * string, so navigating a document allocates nothing and parses nothing.
+ * Paths with a malformed index (e.g. "users[x]") never resolve to a value,
+ * matching the previous string-based navigation.
+ */
+public final class PropertyPath {
+
+    /**
+     * Upper bound on cached paths. Paths normally come from rule expressions,
+     * so the set is small; past the bound paths are still tokenized, just not
+     * cached.
+     */
+    static final int MAX_CACHED_PATHS = 4096;
+
+    private static final int NO_INDEX = -1;
+    private static final Map<String, PropertyPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final String[] fields;
+    private final int[] indexes;
+    private final boolean resolvable;
+
+    private PropertyPath(String path, String[] fields, int[] indexes, boolean resolvable) {
+        this.path = path;
+        this.fields = fields;
+        this.indexes = indexes;
+        this.resolvable = resolvable;
+    }
+
+    /**
+     * Get the tokenized form of a path, tokenizing and caching it on first use
+     *
+     * @param path The property path using dot and [index] notation
+     * @return The tokenized path
+     */
+    public static PropertyPath of(String path) {
+        PropertyPath cached = CACHE.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        PropertyPath parsed = parse(path);
+        if (CACHE.size() < MAX_CACHED_PATHS) {
+            CACHE.putIfAbsent(path, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Navigate the given source map along this path
+     *
+     * @param source The map to start navigating from
+     * @return The value at the end of the path, or null if any step is missing
+     */
+    public Object resolve(Map<String, Object> source) {
+        if (!resolvable || source == null) {
+            return null;
+        }
+        return resolveFromRoot(source.get(fields[0]));
+    }
+
+    /**
+     * Navigate the rest of this path from the value of its first field
+     *
+     * @param rootValue The value the first field resolved to
+     * @return The value at the end of the path, or null if any step is missing
+     */
+    public Object resolveFromRoot(Object rootValue) {
+        if (!resolvable) {
+            return null;
+        }
+        Object current = indexes[0] != NO_INDEX ? element(rootValue, indexes[0]) : rootValue;
+        for (int i = 1; i < fields.length; i++) {
+            if (!(current instanceof Map<?, ?> currentMap)) {
+                return null;
+            }
+            current = currentMap.get(fields[i]);
+            if (indexes[i] != NO_INDEX) {
+                current = element(current, indexes[i]);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the name of the first field, the top-level variable this path reads
+     */
+    public String getRootField() {
+        return fields.length > 0 ? fields[0] : null;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getSegmentCount() {
+        return fields.length;
+    }
+
+    /**
+     * Whether this path is a single plain field with no nesting or indexing
+     */
+    public boolean isSimple() {
+        return resolvable && fields.length == 1 && indexes[0] == NO_INDEX;
+    }
+
+    private static Object element(Object container, int index) {
+        if (container instanceof List<?> list) {
+            return index < list.size() ? list.get(index) : null;
+        }
+        if (container instanceof Object[] array) {
+            return index < array.length ? array[index] : null;
+        }
+        return null;
+    }
+
+    private static PropertyPath parse(String path) {
+        // Same segmentation as String.split("\\."): trailing empty segments are dropped
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '.') {
+            end--;
+        }
+        if (end == 0) {
+            return new PropertyPath(path, new String[0], new int[0], false);
+        }
+
+        int count = 1;
+        for (int i = 0; i < end; i++) {
+            if (path.charAt(i) == '.') {
+                count++;
+            }
+        }
+
+        String[] fields = new String[count];
+        int[] indexes = new int[count];
+        boolean resolvable = true;
+        int start = 0;
+        for (int segment = 0; segment < count; segment++) {
+            int dot = path.indexOf('.', start);
+            int stop = dot == -1 || dot > end ? end : dot;
+            String part = path.substring(start, stop);
+            start = stop + 1;
+
+            int openBracket = part.indexOf('[');
+            int closeBracket = part.indexOf(']');
+            if (openBracket == -1 || closeBracket == -1) {
+                fields[segment] = part;
+                indexes[segment] = NO_INDEX;
+                continue;
+            }
+            fields[segment] = openBracket < closeBracket ? part.substring(0, openBracket) : part;
+            indexes[segment] = openBracket < closeBracket
+                    ? parseIndex(part.substring(openBracket + 1, closeBracket))
+                    : NO_INDEX;
+            if (openBracket >= closeBracket || indexes[segment] == NO_INDEX) {
+                resolvable = false;
+            }
+        }
+        return new PropertyPath(path, fields, indexes, resolvable);
+    }
+
+    private static int parseIndex(String index) {
+        try {
+            int value = Integer.parseInt(index);
+            return value >= 0 ? value : NO_INDEX;
+        } catch (NumberFormatException e) {
+            return NO_INDEX;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
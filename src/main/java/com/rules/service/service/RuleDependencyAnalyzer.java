@@ -0,0 +1,177 @@
+package com.rules.service.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.Assign;
+import org.springframework.expression.spel.ast.BeanReference;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.Projection;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Selection;
+import org.springframework.expression.spel.ast.TypeReference;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RuleDependencyGraph;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Static analysis of the variables read by rule expressions.
+ *
+ * Expressions are analysed on their SpEL syntax tree, which covers both
+ * engines since the native rule language is a subset of SpEL. A name read
+ * from the root object or through a {@code #variable} counts as a read.
+ * Expressions whose reads cannot be determined statically, such as
+ * {@code #root}, root-level indexing, selections, assignments or arbitrary
+ * methods on the root object, make their rule a barrier that runs after every
+ * earlier rule and before every later one.
+ */
+final class RuleDependencyAnalyzer {
+
+    /**
+     * Functions available as methods on the root object that only read their
+     * arguments
+     */
+    private static final Set<String> ROOT_FUNCTIONS = Set.of(
+            "STRING_UPPERCASE", "STRING_LOWERCASE", "STRING_SUBSTRING", "STRING_CONCAT");
+
+    private static final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private RuleDependencyAnalyzer() {
+    }
+
+    /**
+     * Compute the execution stages of a ruleset
+     */
+    static RuleDependencyGraph analyze(RulesetSnapshot snapshot) {
+        List<RuleDefinition> rules = snapshot.getRules();
+        OutputSlotLayout layout = snapshot.getOutputLayout();
+
+        // Highest stage of any rule so far that writes, or reads, each slot
+        int[] lastWriterStage = new int[layout.getSlotCount()];
+        int[] lastReaderStage = new int[layout.getSlotCount()];
+        Arrays.fill(lastWriterStage, -1);
+        Arrays.fill(lastReaderStage, -1);
+        int[] ruleStages = new int[rules.size()];
+        int[] writeSlots = new int[rules.size()];
+        int[][] readSlots = new int[rules.size()][];
+        int lastStage = -1;
+        int barrierStage = -1;
+
+        for (int i = 0; i < rules.size(); i++) {
+            RuleDefinition rule = rules.get(i);
+            Set<String> reads = new HashSet<>();
+            boolean analyzable = collectReads(rule.getCondition(), reads)
+                    && collectReads(rule.getTransformation(), reads);
+
+            // Names that no rule writes are plain input and never create a dependency
+            int[] slotsRead = analyzable ? reads.stream().mapToInt(layout::slotOf)
+                    .filter(slot -> slot != OutputSlotLayout.NO_SLOT).sorted().toArray() : null;
+
+            int stage;
+            int writtenSlot = layout.getRuleSlot(i);
+            if (!analyzable) {
+                stage = lastStage + 1;
+                barrierStage = stage;
+            } else {
+                stage = Math.max(barrierStage + 1,
+                        Math.max(lastWriterStage[writtenSlot], lastReaderStage[writtenSlot]) + 1);
+                for (int slot : slotsRead) {
+                    stage = Math.max(stage, lastWriterStage[slot] + 1);
+                }
+            }
+
+            ruleStages[i] = stage;
+            writeSlots[i] = writtenSlot;
+            readSlots[i] = slotsRead;
+            lastStage = Math.max(lastStage, stage);
+            lastWriterStage[writtenSlot] = Math.max(lastWriterStage[writtenSlot], stage);
+            if (slotsRead != null) {
+                for (int slot : slotsRead) {
+                    lastReaderStage[slot] = Math.max(lastReaderStage[slot], stage);
+                }
+            }
+        }
+        return RuleDependencyGraph.of(ruleStages, writeSlots, readSlots);
+    }
+
+    /**
+     * Add the names read by an expression
+     *
+     * @return false if the reads of the expression cannot be determined
+     */
+    static boolean collectReads(String expressionText, Set<String> reads) {
+        if (expressionText == null) {
+            return true;
+        }
+        try {
+            SpelExpression expression = (SpelExpression) parser.parseExpression(expressionText);
+            return collectReads(expression.getAST(), true, reads);
+        } catch (ParseException e) {
+            // Reported when the rule is executed
+            return false;
+        }
+    }
+
+    /**
+     * @param rootRelative Whether the node is evaluated against the root
+     *                     object, rather than against the value of the
+     *                     previous node of a property chain
+     */
+    private static boolean collectReads(SpelNode node, boolean rootRelative, Set<String> reads) {
+        if (node instanceof Assign || node instanceof BeanReference || node instanceof Selection
+                || node instanceof Projection) {
+            return false;
+        }
+        if (node instanceof TypeReference) {
+            return true;
+        }
+        if (node instanceof VariableReference) {
+            String name = node.toStringAST().substring(1);
+            if (name.equals("this") || name.equals("root")) {
+                return false;
+            }
+            reads.add(name);
+            return true;
+        }
+        if (node instanceof PropertyOrFieldReference property) {
+            if (rootRelative) {
+                reads.add(property.getName());
+            }
+            return true;
+        }
+        if (node instanceof MethodReference method && rootRelative
+                && !ROOT_FUNCTIONS.contains(method.getName())) {
+            return false;
+        }
+        if (node instanceof Indexer && rootRelative) {
+            return false;
+        }
+        if (node instanceof CompoundExpression) {
+            // Only the head of a property chain is evaluated against the root
+            for (int i = 0; i < node.getChildCount(); i++) {
+                if (!collectReads(node.getChild(i), i == 0, reads)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // Operands, method arguments and indexes are evaluated against the root
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (!collectReads(node.getChild(i), true, reads)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rules.service.service;
+
+import java.util.List;
+
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Lightweight, per-request SpEL evaluation context.
+ * Everything that does not change between requests comes from a shared
+ * {@link EvaluationContextTemplate}; the context itself only holds the root
+ * object and the execution's {@link VariableScope}, which it shares with the
+ * root object.
+ *
+ * Variables are resolved in this order:
+ * <ol>
+ * <li>variables set during evaluation (output variables of earlier rules)</li>
+ * <li>input data entries, read in place without copying</li>
+ * <li>registered functions</li>
+ * </ol>
+ * Not thread-safe: create one context per execution.
+ */
+public class RuleEvaluationContext implements EvaluationContext {
+    private final EvaluationContextTemplate template;
+    private final TypedValue rootObject;
+    private final VariableScope scope;
+
+    RuleEvaluationContext(EvaluationContextTemplate template, PropertyAccessWrapper rootObject) {
+        this.template = template;
+        this.rootObject = new TypedValue(rootObject);
+        this.scope = rootObject.getScope();
+    }
+
+    /**
+     * Get the variable scope shared by this context and its root object
+     */
+    public VariableScope getScope() {
+        return scope;
+    }
+
+    @Override
+    @NonNull
+    public TypedValue getRootObject() {
+        return rootObject;
+    }
+
+    @Override
+    @NonNull
+    public List<PropertyAccessor> getPropertyAccessors() {
+        return template.getPropertyAccessors();
+    }
+
+    @Override
+    @NonNull
+    public List<ConstructorResolver> getConstructorResolvers() {
+        return template.getConstructorResolvers();
+    }
+
+    @Override
+    @NonNull
+    public List<MethodResolver> getMethodResolvers() {
+        return template.getMethodResolvers();
+    }
+
+    @Override
+    @Nullable
+    public BeanResolver getBeanResolver() {
+        return null;
+    }
+
+    @Override
+    @NonNull
+    public TypeLocator getTypeLocator() {
+        return template.getTypeLocator();
+    }
+
+    @Override
+    @NonNull
+    public TypeConverter getTypeConverter() {
+        return template.getTypeConverter();
+    }
+
+    @Override
+    @NonNull
+    public TypeComparator getTypeComparator() {
+        return template.getTypeComparator();
+    }
+
+    @Override
+    @NonNull
+    public OperatorOverloader getOperatorOverloader() {
+        return template.getOperatorOverloader();
+    }
+
+    @Override
+    public void setVariable(@NonNull String name, @Nullable Object value) {
+        scope.define(name, value);
+    }
+
+    @Override
+    @Nullable
+    public Object lookupVariable(@NonNull String name) {
+        Object value = scope.lookup(name);
+        if (value != null || scope.isDefined(name)) {
+            return value;
+        }
+        return template.getFunction(name);
+    }
+}
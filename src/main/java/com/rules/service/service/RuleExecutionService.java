@@ -1,24 +1,35 @@
 package com.rules.service.service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionException;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.SpelEvaluationException;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.rules.service.model.Rule;
+import com.rules.service.dto.RuleCompilationStatus;
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+
+import jakarta.annotation.PreDestroy;
 
 /**
- * Service responsible for executing rule sets against input data
+ * Service responsible for executing rule sets against input data.
+ * Rulesets are read from the in-memory registry, so execution does not need
+ * a database connection or a transaction. What individual rules do is not
+ * logged but recorded in traces of the executions chosen by the
+ * {@link ExecutionTraceService}.
  */
 @Service
 public class RuleExecutionService {
@@ -26,19 +37,36 @@ public class RuleExecutionService {
     private static final Logger logger = LoggerFactory.getLogger(RuleExecutionService.class);
 
     private final RuleService ruleService;
-    private final ExpressionParser parser;
     private final SpelContextConfigurationService spelContextService;
+    private final ExpressionCacheService expressionCache;
+    private final RulesetCompiler rulesetCompiler;
+    private final ParallelRulesetExecutor parallelExecutor;
+    private final ConditionIndexService conditionIndexService;
+    private final ConditionNetworkService conditionNetworkService;
+    private final ExecutionTraceService traceService;
+    private final ExecutionMetricsService metricsService;
+    // Asynchronous executions each run on their own virtual thread
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public RuleExecutionService(RuleService ruleService, SpelContextConfigurationService spelContextService) {
+    public RuleExecutionService(RuleService ruleService, SpelContextConfigurationService spelContextService,
+            ExpressionCacheService expressionCache, RulesetCompiler rulesetCompiler,
+            ParallelRulesetExecutor parallelExecutor, ConditionIndexService conditionIndexService,
+            ConditionNetworkService conditionNetworkService, ExecutionTraceService traceService,
+            ExecutionMetricsService metricsService) {
         this.ruleService = ruleService;
-        this.parser = new SpelExpressionParser();
         this.spelContextService = spelContextService;
+        this.expressionCache = expressionCache;
+        this.rulesetCompiler = rulesetCompiler;
+        this.parallelExecutor = parallelExecutor;
+        this.conditionIndexService = conditionIndexService;
+        this.conditionNetworkService = conditionNetworkService;
+        this.traceService = traceService;
+        this.metricsService = metricsService;
     }
 
     /**
      * Execute a ruleset with null-safe evaluation enabled by default
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> executeRuleset(String rulesetName, Map<String, Object> inputData) {
         return executeRuleset(rulesetName, inputData, true);
     }
@@ -51,102 +79,432 @@ public class RuleExecutionService {
      * @param nullSafeEvaluation Whether to handle null property access gracefully
      * @return Map of output variables from rule execution
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> executeRuleset(String rulesetName, Map<String, Object> inputData,
             boolean nullSafeEvaluation) {
+        return executeRuleset(rulesetName, inputData, nullSafeEvaluation, null);
+    }
+
+    /**
+     * Execute the rules of a ruleset needed to produce the requested outputs.
+     * Rules that cannot affect any requested output are skipped, and only the
+     * requested outputs are returned.
+     *
+     * @param rulesetName        The name of the ruleset to execute
+     * @param inputData          The input data for rule evaluation
+     * @param nullSafeEvaluation Whether to handle null property access gracefully
+     * @param requestedOutputs   The output variables to produce, null or empty
+     *                           to run every rule and return all outputs
+     * @return Map of output variables from rule execution
+     */
+    public Map<String, Object> executeRuleset(String rulesetName, Map<String, Object> inputData,
+            boolean nullSafeEvaluation, Collection<String> requestedOutputs) {
+        return prepare(rulesetName, requestedOutputs).execute(inputData, nullSafeEvaluation);
+    }
+
+    /**
+     * Execute a ruleset asynchronously with null-safe evaluation enabled
+     *
+     * @see #executeRulesetAsync(String, Map, boolean, Collection)
+     */
+    public CompletableFuture<Map<String, Object>> executeRulesetAsync(String rulesetName,
+            Map<String, Object> inputData) {
+        return executeRulesetAsync(rulesetName, inputData, true, null);
+    }
+
+    /**
+     * Execute a ruleset on a virtual thread, without blocking the caller.
+     * A virtual thread only holds a platform thread while it runs, so
+     * callers can have any number of executions pending.
+     *
+     * @param rulesetName        The name of the ruleset to execute
+     * @param inputData          The input data for rule evaluation
+     * @param nullSafeEvaluation Whether to handle null property access gracefully
+     * @param requestedOutputs   The output variables to produce, null or empty
+     *                           to run every rule and return all outputs
+     * @return The output variables, or the exception the execution failed
+     *         with, such as {@link IllegalArgumentException} for an unknown
+     *         ruleset
+     */
+    public CompletableFuture<Map<String, Object>> executeRulesetAsync(String rulesetName,
+            Map<String, Object> inputData, boolean nullSafeEvaluation, Collection<String> requestedOutputs) {
+        if (!traceService.isTraceRequested()) {
+            return CompletableFuture.supplyAsync(
+                    () -> executeRuleset(rulesetName, inputData, nullSafeEvaluation, requestedOutputs),
+                    asyncExecutor);
+        }
+        // A trace asked for by the caller is taken on the virtual thread too
+        return CompletableFuture.supplyAsync(() -> {
+            ExecutionTraceService.Scope scope = traceService.traceRequested();
+            try {
+                return executeRuleset(rulesetName, inputData, nullSafeEvaluation, requestedOutputs);
+            } finally {
+                scope.close();
+            }
+        }, asyncExecutor);
+    }
+
+    /**
+     * Resolve a ruleset and everything its executions share, so that it can
+     * be executed against many inputs without looking it up again
+     *
+     * @param rulesetName      The name of the ruleset to execute
+     * @param requestedOutputs The output variables to produce, null or empty
+     *                         to run every rule and return all outputs
+     * @return The ruleset, ready to execute
+     */
+    public PreparedRuleset prepare(String rulesetName, Collection<String> requestedOutputs) {
+        return new PreparedRuleset(getRuleset(rulesetName), requestedOutputs);
+    }
 
-        List<Rule> rules = getRulesForRuleset(rulesetName);
-        Map<String, Object> outputVariables = new HashMap<>();
+    /**
+     * A ruleset snapshot resolved for execution, together with its generated
+     * class, condition index and condition network where the ruleset uses
+     * them. Every execution of a prepared ruleset runs the same snapshot,
+     * even if the ruleset changes in the meantime. Thread-safe.
+     */
+    public final class PreparedRuleset {
 
-        StandardEvaluationContext context = spelContextService.createEvaluationContext(inputData);
-        PropertyAccessWrapper rootObject = (PropertyAccessWrapper) context.getRootObject().getValue();
+        private final RulesetSnapshot ruleset;
+        private final Collection<String> requestedOutputs;
+        private final CompiledRuleset compiledRuleset;
+        private final BitSet requiredRules;
+        private final ConditionIndex conditionIndex;
+        private final ConditionNetwork conditionNetwork;
+        private final boolean parallel;
+        // Why every execution is traced, null to trace a sample of them
+        private final String traceReason;
+        private final ExecutionMetricsService.RulesetMeters meters;
 
-        logInputDataForDebugging(inputData, context);
+        private PreparedRuleset(RulesetSnapshot ruleset, Collection<String> requestedOutputs) {
+            String rulesetName = ruleset.getName();
+            boolean projected = requestedOutputs != null && !requestedOutputs.isEmpty();
+            this.ruleset = ruleset;
+            this.requestedOutputs = projected ? requestedOutputs : null;
+            // A generated class always runs the whole ruleset
+            this.compiledRuleset = !projected && rulesetCompiler.isEnabled(rulesetName)
+                    ? rulesetCompiler.getCompiledRuleset(ruleset)
+                    : null;
+            boolean interpreted = compiledRuleset == null;
+            this.requiredRules = interpreted && projected ? getRequiredRules(ruleset, requestedOutputs) : null;
+            this.conditionIndex = interpreted && conditionIndexService.isEnabled(ruleset)
+                    ? conditionIndexService.getIndex(ruleset)
+                    : null;
+            this.conditionNetwork = interpreted && conditionNetworkService.isEnabled(rulesetName)
+                    ? conditionNetworkService.getNetwork(ruleset)
+                    : null;
+            this.parallel = interpreted && parallelExecutor.isEnabled(rulesetName);
+            this.traceReason = traceService.traceReason(rulesetName);
+            this.meters = metricsService.forRuleset(rulesetName);
+        }
 
-        // Execute rules in order
-        for (Rule rule : rules) {
-            executeRule(rule, context, rootObject, outputVariables, nullSafeEvaluation);
+        /**
+         * Number of rules in the prepared ruleset
+         */
+        public int getRuleCount() {
+            return ruleset.getRuleCount();
         }
 
-        return outputVariables;
+        /**
+         * The ruleset snapshot every execution runs
+         */
+        RulesetSnapshot getSnapshot() {
+            return ruleset;
+        }
+
+        /**
+         * Whether executions evaluate conditions rule by rule, rather than
+         * through a generated class, so that they can use conditions
+         * evaluated for a whole block of inputs
+         */
+        boolean isInterpreted() {
+            return compiledRuleset == null;
+        }
+
+        /**
+         * Execute the ruleset against input data
+         *
+         * @param inputData          The input data for rule evaluation
+         * @param nullSafeEvaluation Whether to handle null property access gracefully
+         * @return Map of output variables from rule execution
+         */
+        public Map<String, Object> execute(Map<String, Object> inputData, boolean nullSafeEvaluation) {
+            return execute(inputData, nullSafeEvaluation, null);
+        }
+
+        /**
+         * Execute the ruleset against one input of a block whose conditions
+         * were evaluated column by column
+         *
+         * @param columnar The conditions of the input, null to evaluate every
+         *                 condition during the execution
+         */
+        Map<String, Object> execute(Map<String, Object> inputData, boolean nullSafeEvaluation,
+                ColumnarConditions.Block.Row columnar) {
+            long start = System.nanoTime();
+            ExecutionTraceService.Recorder trace = traceService.startTrace(ruleset, inputData, traceReason);
+            ExecutionMetricsService.Allocations allocations = meters.startAllocations();
+            Map<String, Object> outputs;
+            try {
+                outputs = run(inputData, nullSafeEvaluation, columnar, trace, allocations);
+            } catch (RuntimeException e) {
+                meters.recordExecution(System.nanoTime() - start, false);
+                if (trace != null) {
+                    traceService.record(trace, null, e.getMessage());
+                }
+                throw e;
+            }
+            if (allocations != null) {
+                meters.recordAllocations(allocations);
+            }
+            meters.recordExecution(System.nanoTime() - start, true);
+            if (trace != null) {
+                traceService.record(trace, outputs, null);
+            }
+            return outputs;
+        }
+
+        /**
+         * Execute the ruleset, recording every evaluated rule if the
+         * execution is traced and the allocations of each phase if they are
+         * measured
+         */
+        private Map<String, Object> run(Map<String, Object> inputData, boolean nullSafeEvaluation,
+                ColumnarConditions.Block.Row columnar, ExecutionTraceService.Recorder trace,
+                ExecutionMetricsService.Allocations allocations) {
+            if (compiledRuleset != null) {
+                // Generated classes do not report what individual rules did,
+                // nor the phases of their executions
+                return compiledRuleset.execute(inputData, nullSafeEvaluation);
+            }
+
+            OutputSlotLayout outputLayout = ruleset.getOutputLayout();
+            PropertyAccessWrapper rootObject = spelContextService.wrapInput(inputData, outputLayout);
+            if (allocations != null) {
+                allocations.end(ExecutionMetricsService.Allocations.Phase.INPUT);
+            }
+            RuleEvaluationContext context = spelContextService.createEvaluationContext(rootObject);
+
+            // Shared sub-conditions are evaluated once for all rules of this execution
+            ConditionNetwork.Evaluation conditions = conditionNetwork != null
+                    ? conditionNetwork.newEvaluation(context)
+                    : null;
+            Execution execution = new Execution(context, nullSafeEvaluation, conditions, columnar, trace, meters,
+                    meters.sampleRules());
+            if (allocations != null) {
+                allocations.end(ExecutionMetricsService.Allocations.Phase.CONTEXT);
+            }
+
+            // Rules to run, null for all: those the requested outputs depend on,
+            // less those whose indexed condition cannot match. Columnar
+            // conditions already decide every indexed predicate.
+            BitSet selectedRules = requiredRules;
+            if (conditionIndex != null && columnar == null) {
+                BitSet candidates = conditionIndex.getCandidateRules(inputData);
+                if (requiredRules != null) {
+                    candidates.and(requiredRules);
+                }
+                selectedRules = candidates;
+            }
+
+            // Execute rules in order, each writing its result into its output slot
+            List<RuleDefinition> rules = ruleset.getRules();
+            int fired = 0;
+            if (parallel) {
+                AtomicInteger firedInParallel = new AtomicInteger();
+                parallelExecutor.execute(ruleset, selectedRules, i -> {
+                    if (executeRule(rules.get(i), i, outputLayout.getRuleSlot(i), execution)) {
+                        firedInParallel.incrementAndGet();
+                    }
+                });
+                fired = firedInParallel.get();
+            } else if (selectedRules != null) {
+                for (int i = selectedRules.nextSetBit(0); i >= 0; i = selectedRules.nextSetBit(i + 1)) {
+                    if (executeRule(rules.get(i), i, outputLayout.getRuleSlot(i), execution)) {
+                        fired++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < rules.size(); i++) {
+                    if (executeRule(rules.get(i), i, outputLayout.getRuleSlot(i), execution)) {
+                        fired++;
+                    }
+                }
+            }
+            meters.recordRules(fired, rules.size());
+            if (allocations != null) {
+                allocations.end(ExecutionMetricsService.Allocations.Phase.EVALUATION);
+            }
+
+            // The output map is only built once all rules have run
+            Map<String, Object> outputs = context.getScope().toOutputMap();
+            if (requestedOutputs != null) {
+                outputs.keySet().retainAll(requestedOutputs);
+            }
+            if (allocations != null) {
+                allocations.end(ExecutionMetricsService.Allocations.Phase.RESPONSE);
+            }
+            return outputs;
+        }
     }
 
     /**
-     * Get rules for a specific ruleset
+     * What the rules of one execution share
+     *
+     * @param conditions Condition network of the execution, null to evaluate
+     *                   each condition on its own
+     * @param columnar   Conditions evaluated for the input's block, null if
+     *                   there are none
+     * @param trace      Recorder of the execution, null if it is not traced
+     * @param timed      Whether each rule's condition and transformation are
+     *                   timed
      */
-    private List<Rule> getRulesForRuleset(String rulesetName) {
-        List<Rule> rules = ruleService.getRulesByRuleset(rulesetName);
-        if (rules.isEmpty()) {
-            throw new IllegalArgumentException("Ruleset not found: " + rulesetName);
+    private record Execution(RuleEvaluationContext context, boolean nullSafeEvaluation,
+            ConditionNetwork.Evaluation conditions, ColumnarConditions.Block.Row columnar,
+            ExecutionTraceService.Recorder trace, ExecutionMetricsService.RulesetMeters meters, boolean timed) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncExecutor.shutdown();
+    }
+
+    /**
+     * Find the rules that can affect the requested outputs
+     */
+    private BitSet getRequiredRules(RulesetSnapshot ruleset, Collection<String> requestedOutputs) {
+        OutputSlotLayout outputLayout = ruleset.getOutputLayout();
+        BitSet outputSlots = new BitSet(outputLayout.getSlotCount());
+        for (String output : requestedOutputs) {
+            int slot = outputLayout.slotOf(output);
+            if (slot != OutputSlotLayout.NO_SLOT) {
+                outputSlots.set(slot);
+            }
+        }
+        BitSet requiredRules = parallelExecutor.getDependencyGraph(ruleset).getRequiredRules(outputSlots);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Outputs {} of ruleset '{}' need {} of {} rules", requestedOutputs, ruleset.getName(),
+                    requiredRules.cardinality(), ruleset.getRuleCount());
         }
-        return rules;
+        return requiredRules;
     }
 
     /**
-     * Execute a single rule
+     * Report for every rule of a ruleset whether its condition and
+     * transformation currently run as compiled bytecode
+     *
+     * @param rulesetName The name of the ruleset
+     * @return Compilation status per rule, in execution order
      */
-    private void executeRule(Rule rule, StandardEvaluationContext context, PropertyAccessWrapper rootObject,
-            Map<String, Object> outputVariables, boolean nullSafeEvaluation) {
+    public List<RuleCompilationStatus> getCompilationStatus(String rulesetName) {
+        RulesetSnapshot ruleset = getRuleset(rulesetName);
+        List<RuleCompilationStatus> statuses = new ArrayList<>();
+        for (RuleDefinition rule : ruleset.getRules()) {
+            RuleExpression condition = expressionCache.getExpression(rule.getRuleset(), rule.getId(),
+                    rule.getCondition());
+            RuleExpression transformation = expressionCache.getExpression(rule.getRuleset(), rule.getId(),
+                    rule.getTransformation());
+            statuses.add(new RuleCompilationStatus(rule.getId(), rule.getOutputVariable(),
+                    condition.getMode(), condition.isCompiled(), transformation.isCompiled()));
+        }
+        return statuses;
+    }
 
-        logger.info("Executing rule {}: condition='{}', transformation='{}'",
-                rule.getId(), rule.getCondition(), rule.getTransformation());
-        logger.debug("Available output variables from previous rules: {}",
-                rootObject.getOutputVariables().keySet());
+    /**
+     * Get the current snapshot of a ruleset
+     */
+    private RulesetSnapshot getRuleset(String rulesetName) {
+        RulesetSnapshot ruleset = ruleService.getRuleset(rulesetName);
+        if (ruleset == null || ruleset.getRuleCount() == 0) {
+            throw new IllegalArgumentException("Ruleset not found: " + rulesetName);
+        }
+        return ruleset;
+    }
 
+    /**
+     * Execute a single rule
+     *
+     * @param position Position of the rule in its ruleset
+     * @return Whether the rule fired, that is its transformation ran
+     */
+    private boolean executeRule(RuleDefinition rule, int position, int outputSlot, Execution execution) {
+        ExecutionTraceService.Recorder trace = execution.trace();
+        long start = trace != null ? System.nanoTime() : 0;
+        Boolean conditionResult = null;
         try {
-            if (evaluateCondition(rule, context, nullSafeEvaluation)) {
-                Object result = evaluateTransformation(rule, context, nullSafeEvaluation);
-                storeRuleResult(rule, result, context, rootObject, outputVariables);
-                logger.info("Rule {} executed successfully. Output: {} = {}",
-                        rule.getId(), rule.getOutputVariable(), result);
-            } else {
-                logger.info("Rule {} condition was false, skipping transformation", rule.getId());
+            conditionResult = evaluateCondition(rule, position, execution);
+            Object result = null;
+            if (conditionResult) {
+                result = evaluateTransformation(rule, position, execution);
+                execution.context().getScope().write(outputSlot, result);
             }
+            if (trace != null) {
+                trace.rule(position, rule, conditionResult, result, null, start);
+            }
+            return conditionResult;
         } catch (ExpressionException e) {
             logger.error("Error executing rule {}: condition='{}', transformation='{}', error='{}'",
                     rule.getId(), rule.getCondition(), rule.getTransformation(), e.getMessage());
-            throw new RuntimeException("Error executing rule " + rule.getId() + ": " + e.getMessage(), e);
+            RuntimeException failure = RuleFailures.ruleFailed(rule, e);
+            if (trace != null) {
+                trace.rule(position, rule, conditionResult, null, failure.getMessage(), start);
+            }
+            throw failure;
         }
     }
 
     /**
      * Evaluate rule condition
      */
-    private boolean evaluateCondition(Rule rule, StandardEvaluationContext context, boolean nullSafeEvaluation) {
-        Expression conditionExpr = parser.parseExpression(rule.getCondition());
-        Boolean conditionResult = safeEvaluateCondition(conditionExpr, context, rule, nullSafeEvaluation);
-        logger.info("Rule {} condition result: {}", rule.getId(), conditionResult);
+    private boolean evaluateCondition(RuleDefinition rule, int position, Execution execution) {
+        // Conditions decided for the whole block are not evaluated again
+        Boolean conditionResult = execution.columnar() != null ? execution.columnar().valueOf(position) : null;
+        if (conditionResult == null) {
+            RuleExpression conditionExpr = execution.conditions() == null
+                    ? expressionCache.getExpression(rule.getRuleset(), rule.getId(), rule.getCondition())
+                    : null;
+            if (!execution.timed()) {
+                conditionResult = safeEvaluateCondition(conditionExpr, position, execution);
+            } else {
+                long start = System.nanoTime();
+                conditionResult = safeEvaluateCondition(conditionExpr, position, execution);
+                execution.meters().ruleTimers(rule, position).condition().record(System.nanoTime() - start,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
         return Boolean.TRUE.equals(conditionResult);
     }
 
     /**
      * Evaluate rule transformation
      */
-    private Object evaluateTransformation(Rule rule, StandardEvaluationContext context, boolean nullSafeEvaluation) {
-        Expression transformExpr = parser.parseExpression(rule.getTransformation());
-        return safeEvaluateTransformation(transformExpr, context, rule, nullSafeEvaluation);
-    }
-
-    /**
-     * Store rule execution result
-     */
-    private void storeRuleResult(Rule rule, Object result, StandardEvaluationContext context,
-            PropertyAccessWrapper rootObject, Map<String, Object> outputVariables) {
-        outputVariables.put(rule.getOutputVariable(), result);
-        spelContextService.addOutputVariable(context, rootObject, rule.getOutputVariable(), result);
+    private Object evaluateTransformation(RuleDefinition rule, int position, Execution execution) {
+        RuleExpression transformExpr = expressionCache.getExpression(rule.getRuleset(), rule.getId(),
+                rule.getTransformation());
+        if (!execution.timed()) {
+            return safeEvaluateTransformation(transformExpr, position, execution);
+        }
+        long start = System.nanoTime();
+        Object result = safeEvaluateTransformation(transformExpr, position, execution);
+        execution.meters().ruleTimers(rule, position).transformation().record(System.nanoTime() - start,
+                TimeUnit.NANOSECONDS);
+        return result;
     }
 
     /**
-     * Safely evaluate condition with null handling
+     * Safely evaluate condition with null handling, either through the
+     * condition network or on its own
      */
-    private Boolean safeEvaluateCondition(Expression conditionExpr, StandardEvaluationContext context,
-            Rule rule, boolean nullSafeEvaluation) {
+    private Boolean safeEvaluateCondition(RuleExpression conditionExpr, int position, Execution execution) {
         try {
-            return conditionExpr.getValue(context, Boolean.class);
+            return execution.conditions() != null
+                    ? execution.conditions().evaluate(position)
+                    : conditionExpr.getValue(execution.context(), Boolean.class);
         } catch (SpelEvaluationException e) {
-            if (nullSafeEvaluation && isNullPropertyAccess(e)) {
-                logger.warn("Null property access in rule {} condition '{}'. Treating as false. Error: {}",
-                        rule.getId(), rule.getCondition(), e.getMessage());
+            if (execution.nullSafeEvaluation() && RuleFailures.isNullPropertyAccess(e)) {
+                execution.meters().recordFallback(true);
+                if (execution.trace() != null) {
+                    execution.trace().nullPropertyAccess(position, e.getMessage());
+                }
                 return false;
             }
             throw e;
@@ -156,48 +514,18 @@ public class RuleExecutionService {
     /**
      * Safely evaluate transformation with null handling
      */
-    private Object safeEvaluateTransformation(Expression transformExpr, StandardEvaluationContext context,
-            Rule rule, boolean nullSafeEvaluation) {
+    private Object safeEvaluateTransformation(RuleExpression transformExpr, int position, Execution execution) {
         try {
-            return transformExpr.getValue(context);
+            return transformExpr.getValue(execution.context());
         } catch (SpelEvaluationException e) {
-            if (nullSafeEvaluation && isNullPropertyAccess(e)) {
-                logger.warn("Null property access in rule {} transformation '{}'. Returning null. Error: {}",
-                        rule.getId(), rule.getTransformation(), e.getMessage());
+            if (execution.nullSafeEvaluation() && RuleFailures.isNullPropertyAccess(e)) {
+                execution.meters().recordFallback(false);
+                if (execution.trace() != null) {
+                    execution.trace().nullPropertyAccess(position, e.getMessage());
+                }
                 return null;
             }
             throw e;
         }
     }
-
-    /**
-     * Check if exception is due to null property access
-     */
-    private boolean isNullPropertyAccess(SpelEvaluationException e) {
-        String message = e.getMessage();
-        return message != null &&
-                (message.contains("cannot be found on null") ||
-                        message.contains("EL1007E") ||
-                        message.contains("Property or field") && message.contains("null"));
-    }
-
-    /**
-     * Log input data for debugging purposes
-     */
-    private void logInputDataForDebugging(Map<String, Object> inputData, StandardEvaluationContext context) {
-        logger.info("Input data: {}", inputData);
-        try {
-            // Test direct property access (new way)
-            Expression testDirectExpr = parser.parseExpression("age");
-            Object testDirectResult = testDirectExpr.getValue(context);
-            logger.info("Test direct 'age' expression result: {}", testDirectResult);
-
-            // Test variable access (old way)
-            Expression testVarExpr = parser.parseExpression("#age");
-            Object testVarResult = testVarExpr.getValue(context);
-            logger.info("Test '#age' expression result: {}", testVarResult);
-        } catch (ExpressionException e) {
-            logger.warn("Error testing age access: {}", e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.rules.service.service;
+
+/**
+ * A parsed rule condition or transformation, ready to be evaluated.
+ * Produced by an {@link ExpressionEngine}; implementations are thread-safe
+ * and shared between concurrent executions.
+ */
+public interface RuleExpression {
+
+    /**
+     * Evaluate the expression against the given context
+     */
+    Object getValue(RuleEvaluationContext context);
+
+    /**
+     * Evaluate the expression and convert the result to the expected type
+     */
+    <T> T getValue(RuleEvaluationContext context, Class<T> expectedResultType);
+
+    String getExpressionString();
+
+    /**
+     * How the expression is evaluated, e.g. the SpEL compiler mode or
+     * {@code NATIVE}
+     */
+    String getMode();
+
+    /**
+     * Whether the expression currently runs as generated bytecode
+     */
+    boolean isCompiled();
+}
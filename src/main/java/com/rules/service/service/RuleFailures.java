@@ -0,0 +1,37 @@
+package com.rules.service.service;
+
+import org.springframework.expression.ExpressionException;
+import org.springframework.expression.spel.SpelEvaluationException;
+
+import com.rules.service.model.RuleDefinition;
+
+/**
+ * Classification and reporting of rule evaluation failures, shared by the
+ * per-rule executor and generated rulesets
+ */
+final class RuleFailures {
+
+    private RuleFailures() {
+    }
+
+    /**
+     * Check if exception is due to null property access
+     */
+    static boolean isNullPropertyAccess(ExpressionException e) {
+        if (!(e instanceof SpelEvaluationException)) {
+            return false;
+        }
+        String message = e.getMessage();
+        return message != null &&
+                (message.contains("cannot be found on null") ||
+                        message.contains("EL1007E") ||
+                        message.contains("Property or field") && message.contains("null"));
+    }
+
+    /**
+     * Wrap an evaluation failure with the rule it happened in
+     */
+    static RuntimeException ruleFailed(RuleDefinition rule, ExpressionException e) {
+        return new RuntimeException("Error executing rule " + rule.getId() + ": " + e.getMessage(), e);
+    }
+}
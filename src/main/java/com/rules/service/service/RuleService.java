@@ -1,37 +1,63 @@
 package com.rules.service.service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.rules.service.dto.AddRuleRequest;
 import com.rules.service.dto.CreateRulesetRequest;
 import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
 import com.rules.service.repository.RuleRepository;
 
+import jakarta.annotation.PostConstruct;
+
 /**
  * Service responsible for managing rules and rulesets
  */
 @Service
-@Transactional
 public class RuleService {
 
     private final RuleRepository ruleRepository;
     private final RuleParserService ruleParserService;
+    private final ExpressionCacheService expressionCache;
+    private final RulesetRegistry rulesetRegistry;
+    private final Map<String, ReentrantLock> rulesetLocks = new ConcurrentHashMap<>();
 
-    public RuleService(RuleRepository ruleRepository, RuleParserService ruleParserService) {
+    public RuleService(RuleRepository ruleRepository, RuleParserService ruleParserService,
+            ExpressionCacheService expressionCache, RulesetRegistry rulesetRegistry) {
         this.ruleRepository = ruleRepository;
         this.ruleParserService = ruleParserService;
+        this.expressionCache = expressionCache;
+        this.rulesetRegistry = rulesetRegistry;
+    }
+
+    /**
+     * Load all persisted rulesets into the in-memory registry
+     */
+    @PostConstruct
+    public void loadRulesets() {
+        Map<String, List<Rule>> rulesByRuleset = ruleRepository.findAllByOrderByPositionAscIdAsc().stream()
+                .collect(Collectors.groupingBy(Rule::getRuleset, LinkedHashMap::new, Collectors.toList()));
+        rulesetRegistry.reload(rulesByRuleset);
     }
 
     /**
      * Create a new ruleset with multiple rules
-     * 
+     *
      * @param request The ruleset creation request
      * @return List of created rules
      */
+    @Transactional
     public List<Rule> createRuleset(CreateRulesetRequest request) {
         List<Rule> rules = request.getRules().stream()
                 .map(r -> {
@@ -41,31 +67,41 @@ public class RuleService {
                 })
                 .collect(Collectors.toList());
 
-        return ruleRepository.saveAll(rules);
+        return writeRuleset(request.getName(), position -> {
+            for (Rule rule : rules) {
+                rule.setPosition(position++);
+            }
+            return ruleRepository.saveAll(rules);
+        });
     }
 
     /**
      * Add a single rule to a ruleset
-     * 
+     *
      * @param rulesetName The name of the ruleset
      * @param request     The add rule request
      * @return The created rule
      * @throws IllegalArgumentException if the rule format is invalid
      */
+    @Transactional
     public Rule addRule(String rulesetName, AddRuleRequest request) throws IllegalArgumentException {
         RuleParserService.RuleParts parts = ruleParserService.parseRule(request.getRule());
         Rule rule = new Rule(parts.getCondition(), parts.getTransformation(), request.getOutputVariable(), rulesetName);
-        return ruleRepository.save(rule);
+
+        return writeRuleset(rulesetName, position -> {
+            rule.setPosition(position);
+            return ruleRepository.save(rule);
+        });
     }
 
     /**
      * Get all ruleset names
-     * 
+     *
      * @return List of unique ruleset names
      */
     @Transactional(readOnly = true)
     public List<String> getAllRulesetNames() {
-        return ruleRepository.findAll().stream()
+        return ruleRepository.findAllByOrderByPositionAscIdAsc().stream()
                 .map(Rule::getRuleset)
                 .distinct()
                 .collect(Collectors.toList());
@@ -73,34 +109,90 @@ public class RuleService {
 
     /**
      * Get rules for a specific ruleset
-     * 
+     *
      * @param rulesetName The name of the ruleset
      * @return List of rules in the ruleset
      */
     @Transactional(readOnly = true)
     public List<Rule> getRulesByRuleset(String rulesetName) {
-        return ruleRepository.findByRuleset(rulesetName);
+        return ruleRepository.findByRulesetOrderByPositionAscIdAsc(rulesetName);
+    }
+
+    /**
+     * Get the in-memory snapshot of a ruleset. Does not touch the database.
+     *
+     * @param rulesetName The name of the ruleset
+     * @return The ruleset snapshot, or null if the ruleset does not exist
+     */
+    public RulesetSnapshot getRuleset(String rulesetName) {
+        return rulesetRegistry.get(rulesetName);
     }
 
     /**
      * Check if a ruleset exists
-     * 
+     *
      * @param rulesetName The name of the ruleset
      * @return true if the ruleset exists, false otherwise
      */
-    @Transactional(readOnly = true)
     public boolean rulesetExists(String rulesetName) {
-        return !ruleRepository.findByRuleset(rulesetName).isEmpty();
+        return rulesetRegistry.get(rulesetName) != null;
     }
 
     /**
      * Get the count of rules in a ruleset
-     * 
+     *
      * @param rulesetName The name of the ruleset
      * @return The number of rules in the ruleset
      */
-    @Transactional(readOnly = true)
     public int getRuleCountForRuleset(String rulesetName) {
-        return ruleRepository.findByRuleset(rulesetName).size();
+        RulesetSnapshot snapshot = rulesetRegistry.get(rulesetName);
+        return snapshot != null ? snapshot.getRuleCount() : 0;
+    }
+
+    /**
+     * Add rules to a ruleset, starting at the position after its last rule,
+     * and publish a fresh snapshot of it once the writing transaction has
+     * committed, so that the registry only ever holds committed rules.
+     * Writers to the same ruleset hold its lock until their transaction
+     * completes, so no two of them read the same next position.
+     */
+    private <T> T writeRuleset(String rulesetName, LongFunction<T> writer) {
+        ReentrantLock lock = rulesetLocks.computeIfAbsent(rulesetName, name -> new ReentrantLock());
+        lock.lock();
+        boolean unlockOnCompletion = false;
+        try {
+            T written = writer.apply(ruleRepository.nextPosition(rulesetName));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publish(rulesetName);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                unlockOnCompletion = true;
+            } else {
+                publish(rulesetName);
+            }
+            return written;
+        } finally {
+            if (!unlockOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Re-read a ruleset and publish it, dropping its cached expressions.
+     * Runs under the ruleset's lock, after the writer's commit, so the last
+     * snapshot published holds every committed rule.
+     */
+    private void publish(String rulesetName) {
+        rulesetRegistry.publish(rulesetName, ruleRepository.findByRulesetOrderByPositionAscIdAsc(rulesetName));
+        expressionCache.invalidateRuleset(rulesetName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,334 @@
+package com.rules.service.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.expression.ExpressionException;
+import org.springframework.stereotype.Service;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * Compiles whole rulesets into generated classes, one
+ * {@link CompiledRuleset.Chunk} per {@value #RULES_PER_CLASS} consecutive
+ * rules.
+ *
+ * For every rule the generated class gets a final field for its condition and
+ * transformation, typed with the expression's concrete class, and its
+ * {@code execute} method evaluates the rules one after another as
+ * straight-line code: no loop, no per-rule dispatch, and a separate call site
+ * per expression so the JIT sees a single receiver type at each one and can
+ * inline across rules. Bounding the rules per class keeps the generated
+ * methods far below the JVM's 64 KB limit on the bytecode of a method, so
+ * rulesets of any size compile.
+ *
+ * Classes are defined as hidden classes, so a generated class is unloaded
+ * once the ruleset version it was built for is no longer used. Classes are
+ * regenerated the first time a ruleset is executed after it changed.
+ */
+@Service
+public class RulesetCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulesetCompiler.class);
+
+    /**
+     * Rules per generated class. Every rule adds about 65 bytes to the
+     * generated execute method.
+     */
+    static final int RULES_PER_CLASS = 256;
+
+    private static final String GENERATED_NAME = "com/rules/service/service/GeneratedRuleset";
+    private static final String BASE_TYPE = Type.getInternalName(CompiledRuleset.Chunk.class);
+    private static final String CONTEXT_TYPE = Type.getInternalName(RuleEvaluationContext.class);
+    private static final String SCOPE_TYPE = Type.getInternalName(VariableScope.class);
+    private static final String EXCEPTION_TYPE = Type.getInternalName(ExpressionException.class);
+    private static final String EXPRESSION_TYPE = Type.getInternalName(RuleExpression.class);
+    private static final String OBJECT_DESCRIPTOR = Type.getDescriptor(Object.class);
+    private static final String BASE_CONSTRUCTOR_DESCRIPTOR = "(" + Type.getDescriptor(List.class)
+            + Type.getDescriptor(ExecutionMetricsService.RulesetMeters.class) + ")V";
+    private static final String CONSTRUCTOR_DESCRIPTOR = "(" + Type.getDescriptor(List.class)
+            + Type.getDescriptor(ExecutionMetricsService.RulesetMeters.class)
+            + "[" + Type.getDescriptor(RuleExpression.class) + "[" + Type.getDescriptor(RuleExpression.class) + ")V";
+
+    // Local variable slots of the generated execute method
+    private static final int THIS = 0;
+    private static final int CONTEXT = 1;
+    private static final int SCOPE = 2;
+    private static final int NULL_SAFE = 3;
+    private static final int FAILURE = 4;
+
+    private final RuleEngineProperties properties;
+    private final ExpressionCacheService expressionCache;
+    private final SpelContextConfigurationService contextService;
+    private final ExecutionMetricsService metricsService;
+    private final Map<String, CompiledRuleset> compiled = new ConcurrentHashMap<>();
+
+    public RulesetCompiler(RuleEngineProperties properties, ExpressionCacheService expressionCache,
+            SpelContextConfigurationService contextService, ExecutionMetricsService metricsService) {
+        this.properties = properties;
+        this.expressionCache = expressionCache;
+        this.contextService = contextService;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Whether a ruleset is configured to run as a generated class
+     */
+    public boolean isEnabled(String rulesetName) {
+        return properties.getExecutionMode(rulesetName) == RuleEngineProperties.ExecutionMode.GENERATED;
+    }
+
+    /**
+     * Get the generated class for the given ruleset snapshot, generating it if
+     * the ruleset is new or has changed since it was last compiled
+     *
+     * @param snapshot The current snapshot of the ruleset
+     * @return The compiled ruleset
+     */
+    public CompiledRuleset getCompiledRuleset(RulesetSnapshot snapshot) {
+        CompiledRuleset current = compiled.get(snapshot.getName());
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+        return compiled.compute(snapshot.getName(), (name, existing) -> existing != null
+                && existing.getSnapshot() == snapshot ? existing : compile(snapshot));
+    }
+
+    /**
+     * Generate, define and instantiate the classes for a ruleset snapshot
+     */
+    CompiledRuleset compile(RulesetSnapshot snapshot) {
+        List<RuleDefinition> rules = snapshot.getRules();
+        RuleExpression[] conditions = new RuleExpression[rules.size()];
+        RuleExpression[] transformations = new RuleExpression[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            RuleDefinition rule = rules.get(i);
+            try {
+                conditions[i] = expressionCache.getExpression(rule.getRuleset(), rule.getId(), rule.getCondition());
+                transformations[i] = expressionCache.getExpression(rule.getRuleset(), rule.getId(),
+                        rule.getTransformation());
+            } catch (ExpressionException e) {
+                throw RuleFailures.ruleFailed(rule, e);
+            }
+        }
+
+        ExecutionMetricsService.RulesetMeters meters = metricsService.forRuleset(snapshot.getName());
+        CompiledRuleset.Chunk[] chunks = new CompiledRuleset.Chunk[(rules.size() + RULES_PER_CLASS - 1)
+                / RULES_PER_CLASS];
+        int bytes = 0;
+        try {
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                int from = chunk * RULES_PER_CLASS;
+                int to = Math.min(from + RULES_PER_CLASS, rules.size());
+                byte[] bytecode = generate(snapshot.getOutputLayout(), conditions, transformations, from, to);
+                bytes += bytecode.length;
+                Class<?> generatedClass = MethodHandles.lookup().defineHiddenClass(bytecode, true).lookupClass();
+                chunks[chunk] = (CompiledRuleset.Chunk) generatedClass
+                        .getDeclaredConstructor(List.class, ExecutionMetricsService.RulesetMeters.class,
+                                RuleExpression[].class, RuleExpression[].class)
+                        .newInstance(rules, meters, conditions, transformations);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to generate class for ruleset " + snapshot.getName(), e);
+        }
+        logger.debug("Generated {} classes for ruleset '{}' version {} ({} rules, {} bytes)", chunks.length,
+                snapshot.getName(), snapshot.getVersion(), rules.size(), bytes);
+        return new CompiledRuleset(snapshot, contextService, chunks);
+    }
+
+    /**
+     * Generate the class evaluating rules {@code from} to {@code to}
+     * (exclusive). Fields and failure handlers use the rules' positions in
+     * the whole ruleset.
+     */
+    private static byte[] generate(OutputSlotLayout layout, RuleExpression[] conditions,
+            RuleExpression[] transformations, int from, int to) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return RulesetCompiler.class.getClassLoader();
+            }
+        };
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, GENERATED_NAME, null,
+                BASE_TYPE, null);
+
+        for (int i = from; i < to; i++) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, conditionField(i), fieldDescriptor(conditions[i]),
+                    null, null).visitEnd();
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, transformationField(i),
+                    fieldDescriptor(transformations[i]), null, null).visitEnd();
+        }
+
+        generateConstructor(cw, conditions, transformations, from, to);
+        generateExecute(cw, layout, conditions, transformations, from, to);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void generateConstructor(ClassWriter cw, RuleExpression[] conditions,
+            RuleExpression[] transformations, int from, int to) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_TYPE, "<init>", BASE_CONSTRUCTOR_DESCRIPTOR, false);
+        for (int i = from; i < to; i++) {
+            storeField(mv, 3, i, conditionField(i), conditions[i]);
+            storeField(mv, 4, i, transformationField(i), transformations[i]);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void storeField(MethodVisitor mv, int arrayArgument, int index, String field,
+            RuleExpression expression) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, arrayArgument);
+        mv.visitLdcInsn(index);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(fieldType(expression)));
+        mv.visitFieldInsn(Opcodes.PUTFIELD, GENERATED_NAME, field, fieldDescriptor(expression));
+    }
+
+    /**
+     * Generates, for every rule i writing slot s:
+     *
+     * <pre>
+     * boolean matched;
+     * try { matched = isTrue(c_i.getValue(context, Boolean.class)); }
+     * catch (ExpressionException e) { matched = conditionFailed(i, e, nullSafe); }
+     * if (matched) {
+     *     Object result;
+     *     try { result = t_i.getValue(context); }
+     *     catch (ExpressionException e) { result = transformationFailed(i, e, nullSafe); }
+     *     scope.write(s, result);
+     * }
+     * </pre>
+     */
+    private static void generateExecute(ClassWriter cw, OutputSlotLayout layout, RuleExpression[] conditions,
+            RuleExpression[] transformations, int from, int to) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "execute",
+                "(L" + CONTEXT_TYPE + ";L" + SCOPE_TYPE + ";Z)V", null, null);
+        mv.visitCode();
+
+        for (int i = from; i < to; i++) {
+            Label conditionStart = new Label();
+            Label conditionEnd = new Label();
+            Label conditionHandler = new Label();
+            Label conditionDone = new Label();
+            Label transformationStart = new Label();
+            Label transformationEnd = new Label();
+            Label transformationHandler = new Label();
+            Label transformationDone = new Label();
+            Label nextRule = new Label();
+            mv.visitTryCatchBlock(conditionStart, conditionEnd, conditionHandler, EXCEPTION_TYPE);
+            mv.visitTryCatchBlock(transformationStart, transformationEnd, transformationHandler, EXCEPTION_TYPE);
+
+            // Condition
+            mv.visitLabel(conditionStart);
+            loadField(mv, conditionField(i), conditions[i]);
+            mv.visitVarInsn(Opcodes.ALOAD, CONTEXT);
+            mv.visitLdcInsn(Type.getType(Boolean.class));
+            invokeGetValue(mv, conditions[i], true);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, BASE_TYPE, "isTrue", "(" + OBJECT_DESCRIPTOR + ")Z", false);
+            mv.visitLabel(conditionEnd);
+            mv.visitJumpInsn(Opcodes.GOTO, conditionDone);
+            mv.visitLabel(conditionHandler);
+            mv.visitVarInsn(Opcodes.ASTORE, FAILURE);
+            mv.visitVarInsn(Opcodes.ALOAD, THIS);
+            mv.visitLdcInsn(i);
+            mv.visitVarInsn(Opcodes.ALOAD, FAILURE);
+            mv.visitVarInsn(Opcodes.ILOAD, NULL_SAFE);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_TYPE, "conditionFailed", "(IL" + EXCEPTION_TYPE + ";Z)Z",
+                    false);
+            mv.visitLabel(conditionDone);
+            mv.visitJumpInsn(Opcodes.IFEQ, nextRule);
+
+            // Transformation, written straight into the rule's output slot
+            mv.visitVarInsn(Opcodes.ALOAD, SCOPE);
+            mv.visitLdcInsn(layout.getRuleSlot(i));
+            mv.visitLabel(transformationStart);
+            loadField(mv, transformationField(i), transformations[i]);
+            mv.visitVarInsn(Opcodes.ALOAD, CONTEXT);
+            invokeGetValue(mv, transformations[i], false);
+            mv.visitLabel(transformationEnd);
+            mv.visitJumpInsn(Opcodes.GOTO, transformationDone);
+            mv.visitLabel(transformationHandler);
+            mv.visitVarInsn(Opcodes.ASTORE, FAILURE);
+            // The handler starts with an empty stack, reload the write target
+            mv.visitVarInsn(Opcodes.ALOAD, SCOPE);
+            mv.visitLdcInsn(layout.getRuleSlot(i));
+            mv.visitVarInsn(Opcodes.ALOAD, THIS);
+            mv.visitLdcInsn(i);
+            mv.visitVarInsn(Opcodes.ALOAD, FAILURE);
+            mv.visitVarInsn(Opcodes.ILOAD, NULL_SAFE);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_TYPE, "transformationFailed",
+                    "(IL" + EXCEPTION_TYPE + ";Z)" + OBJECT_DESCRIPTOR, false);
+            mv.visitLabel(transformationDone);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SCOPE_TYPE, "write", "(I" + OBJECT_DESCRIPTOR + ")V", false);
+
+            mv.visitLabel(nextRule);
+        }
+
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void loadField(MethodVisitor mv, String field, RuleExpression expression) {
+        mv.visitVarInsn(Opcodes.ALOAD, THIS);
+        mv.visitFieldInsn(Opcodes.GETFIELD, GENERATED_NAME, field, fieldDescriptor(expression));
+    }
+
+    private static void invokeGetValue(MethodVisitor mv, RuleExpression expression, boolean withResultType) {
+        String descriptor = "(L" + CONTEXT_TYPE + ";" + (withResultType ? Type.getDescriptor(Class.class) : "")
+                + ")" + OBJECT_DESCRIPTOR;
+        Class<?> type = fieldType(expression);
+        if (type.isInterface()) {
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, EXPRESSION_TYPE, "getValue", descriptor, true);
+        } else {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(type), "getValue", descriptor, false);
+        }
+    }
+
+    /**
+     * The declared type of an expression field: the expression's own class
+     * when the generated code can link against it, else the interface
+     */
+    private static Class<?> fieldType(RuleExpression expression) {
+        Class<?> type = expression.getClass();
+        if (Modifier.isPublic(type.getModifiers()) && !type.isHidden() && !type.isAnonymousClass()
+                && type.getClassLoader() == RulesetCompiler.class.getClassLoader()) {
+            return type;
+        }
+        return RuleExpression.class;
+    }
+
+    private static String fieldDescriptor(RuleExpression expression) {
+        return Type.getDescriptor(fieldType(expression));
+    }
+
+    private static String conditionField(int ruleIndex) {
+        return "condition" + ruleIndex;
+    }
+
+    private static String transformationField(int ruleIndex) {
+        return "transformation" + ruleIndex;
+    }
+}
@@ -0,0 +1,71 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+/**
+ * In-memory registry of immutable ruleset snapshots.
+ * The execution path reads rulesets exclusively from here, so executing a
+ * ruleset never needs a database connection or a transaction. Writes go
+ * through {@link RuleService}, which publishes a fresh snapshot after every
+ * committed change.
+ */
+@Component
+public class RulesetRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulesetRegistry.class);
+
+    private final Map<String, RulesetSnapshot> rulesets = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Get the current snapshot of a ruleset
+     *
+     * @param rulesetName The name of the ruleset
+     * @return The snapshot, or null if the ruleset does not exist
+     */
+    public RulesetSnapshot get(String rulesetName) {
+        return rulesets.get(rulesetName);
+    }
+
+    /**
+     * Publish the rules of a ruleset as a new snapshot, replacing the previous
+     * one. Publishing an empty rule list removes the ruleset.
+     *
+     * @param rulesetName The name of the ruleset
+     * @param rules       The complete, ordered list of rules in the ruleset
+     * @return The published snapshot, or null if the ruleset was removed
+     */
+    public RulesetSnapshot publish(String rulesetName, List<Rule> rules) {
+        if (rules.isEmpty()) {
+            rulesets.remove(rulesetName);
+            logger.debug("Removed ruleset '{}' from registry", rulesetName);
+            return null;
+        }
+        RulesetSnapshot snapshot = RulesetSnapshot.of(rulesetName, versions.incrementAndGet(), rules);
+        rulesets.put(rulesetName, snapshot);
+        logger.debug("Published ruleset '{}' version {} with {} rules", rulesetName, snapshot.getVersion(),
+                snapshot.getRuleCount());
+        return snapshot;
+    }
+
+    /**
+     * Replace the whole registry content
+     *
+     * @param rulesByRuleset Rules grouped by ruleset name
+     */
+    public void reload(Map<String, List<Rule>> rulesByRuleset) {
+        rulesets.clear();
+        rulesByRuleset.forEach(this::publish);
+        logger.info("Loaded {} rulesets into registry", rulesets.size());
+    }
+}
@@ -1,72 +1,132 @@
 package com.rules.service.service;
 
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.ReflectiveConstructorResolver;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardOperatorOverloader;
+import org.springframework.expression.spel.support.StandardTypeComparator;
+import org.springframework.expression.spel.support.StandardTypeConverter;
+import org.springframework.expression.spel.support.StandardTypeLocator;
 import org.springframework.stereotype.Service;
 
+import com.rules.service.model.OutputSlotLayout;
+
 /**
  * Service responsible for configuring SpEL evaluation contexts
+ *
+ * Accessors, resolvers, type support and functions are set up once when the
+ * service is created and shared through an {@link EvaluationContextTemplate}.
+ * Creating a context per request then only binds the root object and input.
  */
 @Service
 public class SpelContextConfigurationService {
 
     private static final Logger logger = LoggerFactory.getLogger(SpelContextConfigurationService.class);
 
+    private final EvaluationContextTemplate template;
+
+    public SpelContextConfigurationService() {
+        this.template = new EvaluationContextTemplate(
+                // Custom property accessors for dynamic property access come before the reflective default
+                List.of(new PropertyAccessWrapperAccessor(), new NestedMapPropertyAccessor(),
+                        new ReflectivePropertyAccessor()),
+                List.of(new ReflectiveConstructorResolver()),
+                List.of(new ReflectiveMethodResolver()),
+                new StandardTypeLocator(SpelContextConfigurationService.class.getClassLoader()),
+                new StandardTypeConverter(),
+                new StandardTypeComparator(),
+                new StandardOperatorOverloader(),
+                resolveSpelFunctions());
+    }
+
     /**
-     * Create and configure a StandardEvaluationContext for rule evaluation
-     * 
+     * Create and configure an evaluation context for rule evaluation
+     *
      * @param inputData Input data for the rule evaluation
-     * @return Configured StandardEvaluationContext
+     * @return Configured RuleEvaluationContext
      */
-    public StandardEvaluationContext createEvaluationContext(Map<String, Object> inputData) {
-        // Create wrapper for direct property access
-        PropertyAccessWrapper rootObject = new PropertyAccessWrapper(inputData);
-        StandardEvaluationContext context = new StandardEvaluationContext(rootObject);
+    public RuleEvaluationContext createEvaluationContext(Map<String, Object> inputData) {
+        return createEvaluationContext(inputData, OutputSlotLayout.EMPTY);
+    }
 
-        // Register custom property accessors for dynamic property access
-        context.addPropertyAccessor(new PropertyAccessWrapperAccessor());
-        context.addPropertyAccessor(new NestedMapPropertyAccessor());
+    /**
+     * Create an evaluation context whose output variables are stored in the
+     * slots of the given layout
+     *
+     * @param inputData    Input data for the rule evaluation
+     * @param outputLayout Output slot layout of the ruleset being executed
+     * @return Configured RuleEvaluationContext
+     */
+    public RuleEvaluationContext createEvaluationContext(Map<String, Object> inputData,
+            OutputSlotLayout outputLayout) {
+        return createEvaluationContext(wrapInput(inputData, outputLayout));
+    }
 
-        // Register SpEL functions
-        registerSpelFunctions(context);
+    /**
+     * Wrap input data as the root object of an evaluation context
+     *
+     * @param inputData    Input data for the rule evaluation
+     * @param outputLayout Output slot layout of the ruleset being executed
+     * @return The root object
+     */
+    public PropertyAccessWrapper wrapInput(Map<String, Object> inputData, OutputSlotLayout outputLayout) {
+        // One scope backs both direct property access and # variables; the
+        // input map is read in place, not copied
+        return new PropertyAccessWrapper(new VariableScope(inputData, outputLayout));
+    }
 
-        // Add input data as variables for backward compatibility with # syntax
-        inputData.forEach(context::setVariable);
+    /**
+     * Create an evaluation context around an input wrapped with
+     * {@link #wrapInput}
+     */
+    public RuleEvaluationContext createEvaluationContext(PropertyAccessWrapper rootObject) {
+        return template.createContext(rootObject);
+    }
 
-        return context;
+    /**
+     * Get the shared, immutable part of every evaluation context
+     */
+    public EvaluationContextTemplate getTemplate() {
+        return template;
     }
 
     /**
-     * Register SpEL functions in the evaluation context
-     * 
-     * @param context The evaluation context to register functions in
+     * Resolve the SpEL functions available to rules
+     *
+     * @return Function methods by name
      */
-    private void registerSpelFunctions(StandardEvaluationContext context) {
+    private Map<String, Method> resolveSpelFunctions() {
         try {
+            Map<String, Method> functions = new LinkedHashMap<>();
             // Register string functions
-            context.registerFunction("STRING_UPPERCASE",
+            functions.put("STRING_UPPERCASE",
                     SpelFunctionUtils.class.getDeclaredMethod("toUpperCase", String.class));
-            context.registerFunction("STRING_LOWERCASE",
+            functions.put("STRING_LOWERCASE",
                     SpelFunctionUtils.class.getDeclaredMethod("toLowerCase", String.class));
-            context.registerFunction("STRING_SUBSTRING",
+            functions.put("STRING_SUBSTRING",
                     SpelFunctionUtils.class.getDeclaredMethod("substring", String.class, int.class, int.class));
-            context.registerFunction("STRING_CONCAT",
+            functions.put("STRING_CONCAT",
                     SpelFunctionUtils.class.getDeclaredMethod("concat", String[].class));
-            context.registerFunction("STRING_LENGTH",
+            functions.put("STRING_LENGTH",
                     SpelFunctionUtils.class.getDeclaredMethod("length", String.class));
-            context.registerFunction("STRING_CONTAINS",
+            functions.put("STRING_CONTAINS",
                     SpelFunctionUtils.class.getDeclaredMethod("contains", String.class, String.class));
-            context.registerFunction("STRING_STARTS_WITH",
+            functions.put("STRING_STARTS_WITH",
                     SpelFunctionUtils.class.getDeclaredMethod("startsWith", String.class, String.class));
-            context.registerFunction("STRING_ENDS_WITH",
+            functions.put("STRING_ENDS_WITH",
                     SpelFunctionUtils.class.getDeclaredMethod("endsWith", String.class, String.class));
-            context.registerFunction("STRING_TRIM",
+            functions.put("STRING_TRIM",
                     SpelFunctionUtils.class.getDeclaredMethod("trim", String.class));
 
             logger.debug("Successfully registered SpEL functions");
+            return functions;
         } catch (NoSuchMethodException e) {
             logger.error("Failed to register SpEL functions: {}", e.getMessage());
             throw new RuntimeException("Failed to register SpEL functions", e);
@@ -75,17 +135,13 @@ public class SpelContextConfigurationService {
 
     /**
      * Update the evaluation context with new output variables
-     * 
+     *
      * @param context      The evaluation context to update
-     * @param rootObject   The root object wrapper
      * @param variableName The name of the output variable
      * @param value        The value of the output variable
      */
-    public void addOutputVariable(StandardEvaluationContext context, PropertyAccessWrapper rootObject,
-            String variableName, Object value) {
-        // Add to context for # syntax access
-        context.setVariable(variableName, value);
-        // Add to root object for direct property access
-        rootObject.addOutputVariable(variableName, value);
+    public void addOutputVariable(RuleEvaluationContext context, String variableName, Object value) {
+        // Visible to both # syntax and direct property access through the shared scope
+        context.getScope().define(variableName, value);
     }
-}
\ No newline at end of file
+}
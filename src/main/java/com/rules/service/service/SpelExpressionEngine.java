@@ -0,0 +1,38 @@
+package com.rules.service.service;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.rules.service.config.RuleEngineProperties;
+
+/**
+ * Expression engine backed by the Spring Expression Language.
+ * Each expression is created with the SpEL compiler mode configured for its
+ * ruleset, see {@link RuleEngineProperties#getCompilerMode(String)}.
+ */
+public class SpelExpressionEngine implements ExpressionEngine {
+
+    private final SpelExpressionParser parser;
+    private final ClassLoader compilerClassLoader;
+    private final RuleEngineProperties properties;
+
+    public SpelExpressionEngine(RuleEngineProperties properties) {
+        // Compilation is driven by SpelRuleExpression, the parser itself never compiles
+        this.compilerClassLoader = SpelExpressionEngine.class.getClassLoader();
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.OFF, compilerClassLoader));
+        this.properties = properties;
+    }
+
+    @Override
+    public RuleEngineProperties.Engine getType() {
+        return RuleEngineProperties.Engine.SPEL;
+    }
+
+    @Override
+    public RuleExpression parse(String rulesetName, String expressionText) {
+        SpelExpression parsed = (SpelExpression) parser.parseExpression(expressionText);
+        return new SpelRuleExpression(parsed, properties.getCompilerMode(rulesetName), compilerClassLoader);
+    }
+}
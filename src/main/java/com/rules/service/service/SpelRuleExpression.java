@@ -0,0 +1,172 @@
+package com.rules.service.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.common.ExpressionUtils;
+import org.springframework.expression.spel.CompiledExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.expression.spel.standard.SpelCompiler;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/**
+ * A parsed rule expression that can be compiled to bytecode by the SpEL
+ * compiler.
+ *
+ * The expression is parsed with compilation switched off and compilation is
+ * driven from here instead, so the engine knows whether an expression is
+ * currently running compiled and can always fall back to the interpreter:
+ * <ul>
+ * <li>OFF - always interpreted</li>
+ * <li>IMMEDIATE - compiled after the first interpreted evaluation</li>
+ * <li>MIXED - compiled after {@link #MIXED_COMPILE_THRESHOLD} interpreted
+ * evaluations</li>
+ * </ul>
+ * If compiled code fails (for example because an input field changed type) the
+ * evaluation is retried in the interpreter and the compiled code is discarded.
+ * Expressions that keep failing stay interpreted.
+ */
+public class SpelRuleExpression implements RuleExpression {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpelRuleExpression.class);
+
+    static final int MIXED_COMPILE_THRESHOLD = 100;
+    static final int FAILED_ATTEMPTS_THRESHOLD = 100;
+
+    private final SpelExpression expression;
+    private final SpelCompilerMode compilerMode;
+    private final ClassLoader compilerClassLoader;
+
+    private final AtomicInteger interpretedCount = new AtomicInteger();
+    private final AtomicInteger failedAttempts = new AtomicInteger();
+    private volatile CompiledExpression compiledExpression;
+
+    public SpelRuleExpression(SpelExpression expression, SpelCompilerMode compilerMode,
+            ClassLoader compilerClassLoader) {
+        this.expression = expression;
+        this.compilerMode = compilerMode;
+        this.compilerClassLoader = compilerClassLoader;
+    }
+
+    @Override
+    public Object getValue(RuleEvaluationContext context) {
+        return getValue((EvaluationContext) context);
+    }
+
+    @Override
+    public <T> T getValue(RuleEvaluationContext context, Class<T> expectedResultType) {
+        return getValue((EvaluationContext) context, expectedResultType);
+    }
+
+    /**
+     * Evaluate the expression against the given context
+     */
+    public Object getValue(EvaluationContext context) {
+        CompiledExpression compiled = this.compiledExpression;
+        if (compiled != null) {
+            try {
+                return compiled.getValue(context.getRootObject().getValue(), context);
+            } catch (RuntimeException e) {
+                revertToInterpreted(compiled, e);
+            }
+        }
+
+        Object value = expression.getValue(context);
+        afterInterpretedEvaluation();
+        return value;
+    }
+
+    /**
+     * Evaluate the expression and convert the result to the expected type
+     */
+    public <T> T getValue(EvaluationContext context, Class<T> expectedResultType) {
+        CompiledExpression compiled = this.compiledExpression;
+        if (compiled != null) {
+            try {
+                Object value = compiled.getValue(context.getRootObject().getValue(), context);
+                return ExpressionUtils.convertTypedValue(context, new TypedValue(value), expectedResultType);
+            } catch (RuntimeException e) {
+                revertToInterpreted(compiled, e);
+            }
+        }
+
+        T value = expression.getValue(context, expectedResultType);
+        afterInterpretedEvaluation();
+        return value;
+    }
+
+    @Override
+    public String getExpressionString() {
+        return expression.getExpressionString();
+    }
+
+    public SpelExpression getSpelExpression() {
+        return expression;
+    }
+
+    public SpelCompilerMode getCompilerMode() {
+        return compilerMode;
+    }
+
+    @Override
+    public String getMode() {
+        return compilerMode.name();
+    }
+
+    /**
+     * Whether the expression currently runs as compiled bytecode
+     */
+    @Override
+    public boolean isCompiled() {
+        return compiledExpression != null;
+    }
+
+    /**
+     * Count an interpreted evaluation and compile once the mode's threshold is
+     * reached. Compilation has to follow an interpreted run because the AST
+     * only learns the runtime types it needs for code generation by evaluating.
+     */
+    private void afterInterpretedEvaluation() {
+        if (compilerMode == SpelCompilerMode.OFF || compiledExpression != null) {
+            return;
+        }
+        int threshold = compilerMode == SpelCompilerMode.IMMEDIATE ? 1 : MIXED_COMPILE_THRESHOLD;
+        if (interpretedCount.incrementAndGet() >= threshold) {
+            compile();
+        }
+    }
+
+    private synchronized void compile() {
+        if (compiledExpression != null || failedAttempts.get() >= FAILED_ATTEMPTS_THRESHOLD) {
+            return;
+        }
+        try {
+            CompiledExpression compiled = SpelCompiler.getCompiler(compilerClassLoader)
+                    .compile((SpelNodeImpl) expression.getAST());
+            if (compiled != null) {
+                compiledExpression = compiled;
+                logger.debug("Compiled expression '{}' ({} mode)", getExpressionString(), compilerMode);
+                return;
+            }
+        } catch (RuntimeException | LinkageError e) {
+            logger.debug("Failed to compile expression '{}': {}", getExpressionString(), e.getMessage());
+        }
+        failedAttempts.incrementAndGet();
+    }
+
+    private void revertToInterpreted(CompiledExpression failed, RuntimeException cause) {
+        synchronized (this) {
+            if (compiledExpression == failed) {
+                compiledExpression = null;
+                interpretedCount.set(0);
+                failedAttempts.incrementAndGet();
+            }
+        }
+        logger.debug("Compiled expression '{}' failed, falling back to interpreter: {}", getExpressionString(),
+                cause.toString());
+    }
+}
@@ -0,0 +1,159 @@
+package com.rules.service.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.rules.service.model.OutputSlotLayout;
+
+/**
+ * Layered variable scope for one ruleset execution.
+ *
+ * The bottom layer is the caller's input map, read in place and never copied
+ * or modified. Output variables written by rules go into a layer on top that
+ * shadows the input. The same scope serves bare-name property access through
+ * {@link PropertyAccessWrapper} and {@code #var} access through
+ * {@link RuleEvaluationContext}, so a value is stored exactly once.
+ *
+ * The output layer is a slot frame laid out by the ruleset's
+ * {@link OutputSlotLayout}: rules write their result straight into their
+ * slot, and the output map is only materialized by {@link #toOutputMap()}.
+ * Variables the layout does not know about (e.g. SpEL assignments) go into a
+ * small overflow map.
+ *
+ * Not thread-safe: create one scope per execution.
+ */
+public final class VariableScope {
+
+    /**
+     * Marks a slot no rule has written yet, so a slot holding null is still
+     * distinguishable from an unwritten one
+     */
+    private static final Object UNSET = new Object();
+
+    private final Map<String, Object> input;
+    private final OutputSlotLayout layout;
+    private final Object[] slots;
+    private Map<String, Object> overflow;
+
+    public VariableScope(Map<String, Object> input) {
+        this(input, OutputSlotLayout.EMPTY);
+    }
+
+    public VariableScope(Map<String, Object> input, OutputSlotLayout layout) {
+        this.input = input != null ? input : Map.of();
+        this.layout = layout;
+        this.slots = new Object[layout.getSlotCount()];
+        Arrays.fill(slots, UNSET);
+    }
+
+    /**
+     * Look up a top-level variable. An output variable shadows an input entry
+     * of the same name, even when its value is null.
+     *
+     * @param name The variable name
+     * @return The variable value, or null if not defined
+     */
+    public Object lookup(String name) {
+        Object value = outputValue(name);
+        return value != UNSET ? value : input.get(name);
+    }
+
+    /**
+     * Whether a top-level variable is defined in either layer
+     */
+    public boolean isDefined(String name) {
+        return outputValue(name) != UNSET || input.containsKey(name);
+    }
+
+    /**
+     * Resolve a nested property path. Output variables are tried first and
+     * the input is used when they hold no value at that path.
+     *
+     * @param path The tokenized property path
+     * @return The value at the path, or null if not found
+     */
+    public Object resolve(PropertyPath path) {
+        String rootField = path.getRootField();
+        if (rootField == null) {
+            return null;
+        }
+        Object root = outputValue(rootField);
+        if (root != UNSET && root != null) {
+            Object value = path.resolveFromRoot(root);
+            if (value != null) {
+                return value;
+            }
+        }
+        return path.resolve(input);
+    }
+
+    /**
+     * Write a rule result into its slot
+     *
+     * @param slot  The slot assigned by the layout
+     * @param value The value to store
+     */
+    public void write(int slot, Object value) {
+        slots[slot] = value;
+    }
+
+    /**
+     * Define or overwrite a variable in the output layer by name
+     */
+    public void define(String name, Object value) {
+        int slot = layout.slotOf(name);
+        if (slot != OutputSlotLayout.NO_SLOT) {
+            slots[slot] = value;
+            return;
+        }
+        if (overflow == null) {
+            overflow = new HashMap<>();
+        }
+        overflow.put(name, value);
+    }
+
+    /**
+     * Materialize the output layer as a new map of variable name to value
+     */
+    public Map<String, Object> toOutputMap() {
+        Map<String, Object> outputs = new HashMap<>();
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] != UNSET) {
+                outputs.put(layout.getName(slot), slots[slot]);
+            }
+        }
+        if (overflow != null) {
+            outputs.putAll(overflow);
+        }
+        return outputs;
+    }
+
+    /**
+     * Get the input layer exactly as the caller passed it
+     */
+    public Map<String, Object> getInput() {
+        return input;
+    }
+
+    private Object outputValue(String name) {
+        int slot = layout.slotOf(name);
+        if (slot != OutputSlotLayout.NO_SLOT && slots[slot] != UNSET) {
+            return slots[slot];
+        }
+        if (overflow != null) {
+            Object value = overflow.get(name);
+            if (value != null || overflow.containsKey(name)) {
+                return value;
+            }
+        }
+        return UNSET;
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Object> all = new HashMap<>(input);
+        all.putAll(toOutputMap());
+        return all.toString();
+    }
+}
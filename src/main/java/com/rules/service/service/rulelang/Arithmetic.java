@@ -0,0 +1,63 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Binary arithmetic operator. Integer and Double operands are computed on
+ * primitives; other numeric types are promoted as in SpEL.
+ */
+public final class Arithmetic extends Node {
+    private final ArithmeticOperator operator;
+    private final Node left;
+    private final Node right;
+
+    Arithmetic(ArithmeticOperator operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    public ArithmeticOperator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        Object l = left.evaluate(context);
+        Object r = right.evaluate(context);
+        if (l instanceof Double a && r instanceof Double b) {
+            return switch (operator) {
+                case ADD -> a + b;
+                case SUBTRACT -> a - b;
+                case MULTIPLY -> a * b;
+                case DIVIDE -> a / b;
+                case MODULUS -> a % b;
+            };
+        }
+        if (operator == ArithmeticOperator.ADD) {
+            return Operators.add(l, r);
+        }
+        if (l instanceof Integer a && r instanceof Integer b) {
+            return switch (operator) {
+                case SUBTRACT -> a - b;
+                case MULTIPLY -> a * b;
+                case DIVIDE -> a / b;
+                case MODULUS -> a % b;
+                default -> Operators.arithmetic(operator, l, r);
+            };
+        }
+        return Operators.arithmetic(operator, l, r);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(left, right);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + " " + operator.getSymbol() + " " + right + ")";
+    }
+}
@@ -0,0 +1,23 @@
+package com.rules.service.service.rulelang;
+
+/**
+ * Binary arithmetic operators of the rule language. Names match the operator
+ * names SpEL reports in its error messages.
+ */
+public enum ArithmeticOperator {
+    ADD("+"),
+    SUBTRACT("-"),
+    MULTIPLY("*"),
+    DIVIDE("/"),
+    MODULUS("%");
+
+    private final String symbol;
+
+    ArithmeticOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rules.service.service.rulelang;
+
+import com.rules.service.service.SpelFunctionUtils;
+
+/**
+ * Functions the native engine calls directly instead of through reflection.
+ * Names and behaviour match the functions registered for SpEL in
+ * {@code SpelContextConfigurationService}.
+ */
+public enum BuiltinFunction {
+    STRING_UPPERCASE(1),
+    STRING_LOWERCASE(1),
+    STRING_SUBSTRING(3),
+    STRING_CONCAT(-1),
+    STRING_LENGTH(1),
+    STRING_CONTAINS(2),
+    STRING_STARTS_WITH(2),
+    STRING_ENDS_WITH(2),
+    STRING_TRIM(1);
+
+    private final int arity;
+
+    BuiltinFunction(int arity) {
+        this.arity = arity;
+    }
+
+    /**
+     * Find the builtin function with the given name
+     *
+     * @return The function, or null if the name is not a builtin
+     */
+    public static BuiltinFunction forName(String name) {
+        for (BuiltinFunction function : values()) {
+            if (function.name().equals(name)) {
+                return function;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the function accepts the given number of arguments
+     */
+    public boolean accepts(int argumentCount) {
+        return arity < 0 || arity == argumentCount;
+    }
+
+    /**
+     * Whether the argument at the given position is an int rather than a String
+     */
+    boolean isIntArgument(int position) {
+        return this == STRING_SUBSTRING && position > 0;
+    }
+
+    Object apply(Object[] args) {
+        return switch (this) {
+            case STRING_UPPERCASE -> SpelFunctionUtils.toUpperCase((String) args[0]);
+            case STRING_LOWERCASE -> SpelFunctionUtils.toLowerCase((String) args[0]);
+            case STRING_SUBSTRING -> SpelFunctionUtils.substring((String) args[0], (Integer) args[1],
+                    (Integer) args[2]);
+            case STRING_CONCAT -> {
+                String[] strings = new String[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    strings[i] = (String) args[i];
+                }
+                yield SpelFunctionUtils.concat(strings);
+            }
+            case STRING_LENGTH -> SpelFunctionUtils.length((String) args[0]);
+            case STRING_CONTAINS -> SpelFunctionUtils.contains((String) args[0], (String) args[1]);
+            case STRING_STARTS_WITH -> SpelFunctionUtils.startsWith((String) args[0], (String) args[1]);
+            case STRING_ENDS_WITH -> SpelFunctionUtils.endsWith((String) args[0], (String) args[1]);
+            case STRING_TRIM -> SpelFunctionUtils.trim((String) args[0]);
+        };
+    }
+}
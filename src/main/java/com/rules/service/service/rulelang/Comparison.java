@@ -0,0 +1,50 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Relational operator between two arbitrary operands
+ */
+public final class Comparison extends Node {
+    private final ComparisonOperator operator;
+    private final Node left;
+    private final Node right;
+
+    Comparison(ComparisonOperator operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    public ComparisonOperator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public boolean test(RuleEvaluationContext context) {
+        Object l = left.evaluate(context);
+        Object r = right.evaluate(context);
+        return switch (operator) {
+            case EQ -> Operators.equalityCheck(l, r);
+            case NE -> !Operators.equalityCheck(l, r);
+            default -> operator.test(Operators.compare(l, r));
+        };
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return test(context);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(left, right);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + " " + operator.getSymbol() + " " + right + ")";
+    }
+}
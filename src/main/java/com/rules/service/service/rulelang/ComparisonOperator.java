@@ -0,0 +1,41 @@
+package com.rules.service.service.rulelang;
+
+/**
+ * Relational operators of the rule language
+ */
+public enum ComparisonOperator {
+    EQ("=="),
+    NE("!="),
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">=");
+
+    private final String symbol;
+
+    ComparisonOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Whether the result of {@code compare(left, right)} satisfies this operator
+     */
+    public boolean test(int comparison) {
+        return switch (this) {
+            case EQ -> comparison == 0;
+            case NE -> comparison != 0;
+            case LT -> comparison < 0;
+            case LE -> comparison <= 0;
+            case GT -> comparison > 0;
+            case GE -> comparison >= 0;
+        };
+    }
+
+    public boolean isEquality() {
+        return this == EQ || this == NE;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rules.service.service.rulelang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Ternary {@code condition ? a : b}, or Elvis {@code a ?: b} when there is no
+ * condition. Elvis falls back to {@code b} when {@code a} is null or an empty
+ * string, as in SpEL.
+ */
+public final class Conditional extends Node {
+    private final Node condition;
+    private final Node whenTrue;
+    private final Node whenFalse;
+
+    Conditional(Node condition, Node whenTrue, Node whenFalse) {
+        this.condition = condition;
+        this.whenTrue = whenTrue;
+        this.whenFalse = whenFalse;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        if (condition != null) {
+            return condition.test(context) ? whenTrue.evaluate(context) : whenFalse.evaluate(context);
+        }
+        Object value = whenTrue.evaluate(context);
+        if (value != null && !"".equals(value)) {
+            return value;
+        }
+        return whenFalse.evaluate(context);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        List<Node> children = new ArrayList<>(3);
+        if (condition != null) {
+            children.add(condition);
+        }
+        children.add(whenTrue);
+        children.add(whenFalse);
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return condition != null ? "(" + condition + " ? " + whenTrue + " : " + whenFalse + ")"
+                : "(" + whenTrue + " ?: " + whenFalse + ")";
+    }
+}
@@ -0,0 +1,79 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Relational operator against a numeric literal, such as {@code age >= 18}.
+ * The literal is unpacked to a primitive once at parse time, so comparing an
+ * Integer, Long or Double operand neither boxes nor promotes.
+ */
+public final class ConstantComparison extends Node {
+    private final ComparisonOperator operator;
+    private final Node operand;
+    private final Number constant;
+    private final boolean integral;
+    private final long longConstant;
+    private final double doubleConstant;
+
+    ConstantComparison(ComparisonOperator operator, Node operand, Number constant) {
+        this.operator = operator;
+        this.operand = operand;
+        this.constant = constant;
+        this.integral = constant instanceof Integer || constant instanceof Long;
+        this.longConstant = constant.longValue();
+        this.doubleConstant = constant.doubleValue();
+    }
+
+    public ComparisonOperator getOperator() {
+        return operator;
+    }
+
+    public Node getOperand() {
+        return operand;
+    }
+
+    public Number getConstant() {
+        return constant;
+    }
+
+    @Override
+    public boolean test(RuleEvaluationContext context) {
+        Object value = operand.evaluate(context);
+        if (operator.isEquality()) {
+            return equalsConstant(value) == (operator == ComparisonOperator.EQ);
+        }
+        return operator.test(Operators.compareToConstant(value, longConstant, doubleConstant, integral, constant));
+    }
+
+    private boolean equalsConstant(Object value) {
+        if (integral) {
+            if (value instanceof Integer v) {
+                return v == longConstant;
+            }
+            if (value instanceof Long v) {
+                return v == longConstant;
+            }
+        }
+        if (value instanceof Double v) {
+            return v == doubleConstant;
+        }
+        return Operators.equalityCheck(value, constant);
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return test(context);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(operand);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + operand + " " + operator.getSymbol() + " " + constant + ")";
+    }
+}
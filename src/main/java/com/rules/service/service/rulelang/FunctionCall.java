@@ -0,0 +1,74 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Call of a builtin function, with or without the {@code #} prefix, such as
+ * {@code STRING_UPPERCASE(name)}. Arguments are converted with the context's
+ * type converter, so {@code STRING_UPPERCASE(age)} works as it does in SpEL.
+ */
+public final class FunctionCall extends Node {
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+    private static final TypeDescriptor INTEGER_TYPE = TypeDescriptor.valueOf(Integer.class);
+
+    private final BuiltinFunction function;
+    private final List<Node> arguments;
+
+    FunctionCall(BuiltinFunction function, List<Node> arguments) {
+        this.function = function;
+        this.arguments = List.copyOf(arguments);
+    }
+
+    public BuiltinFunction getFunction() {
+        return function;
+    }
+
+    public List<Node> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        Object[] args = new Object[arguments.size()];
+        for (int i = 0; i < args.length; i++) {
+            Object value = arguments.get(i).evaluate(context);
+            args[i] = function.isIntArgument(i) ? toInteger(context, value) : toText(context, value);
+        }
+        return function.apply(args);
+    }
+
+    private static Object toText(RuleEvaluationContext context, Object value) {
+        if (value == null || value instanceof String) {
+            return value;
+        }
+        return context.getTypeConverter().convertValue(value, TypeDescriptor.forObject(value), STRING_TYPE);
+    }
+
+    private static Object toInteger(RuleEvaluationContext context, Object value) {
+        if (value instanceof Integer) {
+            return value;
+        }
+        if (value == null) {
+            throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, "null", "int");
+        }
+        return context.getTypeConverter().convertValue(value, TypeDescriptor.forObject(value), INTEGER_TYPE);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return arguments;
+    }
+
+    @Override
+    public String toString() {
+        return function.name() + "(" + arguments.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                + ")";
+    }
+}
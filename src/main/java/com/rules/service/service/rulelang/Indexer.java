@@ -0,0 +1,92 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Index access such as {@code users[0]} or {@code map['key']}
+ */
+public final class Indexer extends Node {
+    private final Node target;
+    private final Node index;
+
+    Indexer(Node target, Node index) {
+        this.target = target;
+        this.index = index;
+    }
+
+    public Node getTarget() {
+        return target;
+    }
+
+    public Node getIndex() {
+        return index;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        Object value = target.evaluate(context);
+        if (value == null) {
+            throw new SpelEvaluationException(SpelMessage.CANNOT_INDEX_INTO_NULL_VALUE);
+        }
+        if (value instanceof Map<?, ?> map) {
+            // As in SpEL, a bare name inside the brackets of a map index is the key itself
+            Object key = index instanceof RootProperty property ? property.getName() : index.evaluate(context);
+            return map.get(key);
+        }
+
+        int position = toIndex(index.evaluate(context));
+        if (value instanceof List<?> list) {
+            if (position < 0 || position >= list.size()) {
+                throw new SpelEvaluationException(SpelMessage.COLLECTION_INDEX_OUT_OF_BOUNDS, list.size(), position);
+            }
+            return list.get(position);
+        }
+        if (value instanceof Object[] array) {
+            if (position < 0 || position >= array.length) {
+                throw new SpelEvaluationException(SpelMessage.ARRAY_INDEX_OUT_OF_BOUNDS, array.length, position);
+            }
+            return array[position];
+        }
+        if (value instanceof String text) {
+            if (position < 0 || position >= text.length()) {
+                throw new SpelEvaluationException(SpelMessage.STRING_INDEX_OUT_OF_BOUNDS, text.length(), position);
+            }
+            return String.valueOf(text.charAt(position));
+        }
+        throw new SpelEvaluationException(SpelMessage.INDEXING_NOT_SUPPORTED_FOR_TYPE, value.getClass().getName());
+    }
+
+    private static int toIndex(Object value) {
+        if (value instanceof Integer i) {
+            return i;
+        }
+        if (value instanceof Number n) {
+            return n.intValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+        throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, Operators.typeName(value),
+                Integer.class.getName());
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(target, index);
+    }
+
+    @Override
+    public String toString() {
+        return target + "[" + index + "]";
+    }
+}
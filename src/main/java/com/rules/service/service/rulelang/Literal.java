@@ -0,0 +1,28 @@
+package com.rules.service.service.rulelang;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Constant value: number, string, boolean or null
+ */
+public final class Literal extends Node {
+    private final Object value;
+
+    Literal(Object value) {
+        this.value = value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value instanceof String ? "'" + value + "'" : String.valueOf(value);
+    }
+}
@@ -0,0 +1,47 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Short-circuiting {@code AND} / {@code OR}
+ */
+public final class LogicalOperator extends Node {
+    private final boolean and;
+    private final Node left;
+    private final Node right;
+
+    LogicalOperator(boolean and, Node left, Node right) {
+        this.and = and;
+        this.left = left;
+        this.right = right;
+    }
+
+    public boolean isAnd() {
+        return and;
+    }
+
+    @Override
+    public boolean test(RuleEvaluationContext context) {
+        if (and) {
+            return left.test(context) && right.test(context);
+        }
+        return left.test(context) || right.test(context);
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return test(context);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(left, right);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + (and ? " AND " : " OR ") + right + ")";
+    }
+}
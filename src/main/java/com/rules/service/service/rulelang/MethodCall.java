@@ -0,0 +1,208 @@
+package com.rules.service.service.rulelang;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.AccessException;
+import org.springframework.expression.MethodExecutor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Method call on the result of another node, such as {@code name.length()}.
+ *
+ * The String, collection and map methods rules commonly use are invoked
+ * directly. Anything else is resolved through the context's method resolvers
+ * like SpEL does, and the resolved executor is cached per target type.
+ */
+public final class MethodCall extends Node {
+
+    /**
+     * Returned by the direct path when the call has to be resolved generically
+     */
+    private static final Object NOT_HANDLED = new Object();
+
+    private final Node target;
+    private final String name;
+    private final List<Node> arguments;
+    private final boolean nullSafe;
+
+    private volatile CachedExecutor cachedExecutor;
+
+    MethodCall(Node target, String name, List<Node> arguments, boolean nullSafe) {
+        this.target = target;
+        this.name = name;
+        this.arguments = List.copyOf(arguments);
+        this.nullSafe = nullSafe;
+    }
+
+    public Node getTarget() {
+        return target;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Node> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        Object value = target.evaluate(context);
+        if (value == null) {
+            if (nullSafe) {
+                return null;
+            }
+            throw new SpelEvaluationException(SpelMessage.METHOD_CALL_ON_NULL_OBJECT_NOT_ALLOWED,
+                    name + "(" + arguments.stream().map(a -> "?").collect(Collectors.joining(",")) + ")");
+        }
+
+        Object[] args = new Object[arguments.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = arguments.get(i).evaluate(context);
+        }
+
+        try {
+            Object result = invokeDirect(value, args);
+            if (result != NOT_HANDLED) {
+                return result;
+            }
+        } catch (RuntimeException e) {
+            throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_METHOD_INVOCATION, name,
+                    value.getClass().getName(), e.getMessage());
+        }
+        return invokeResolved(context, value, args);
+    }
+
+    private Object invokeDirect(Object value, Object[] args) {
+        if (value instanceof String text) {
+            switch (args.length) {
+                case 0:
+                    switch (name) {
+                        case "length":
+                            return text.length();
+                        case "toUpperCase":
+                            return text.toUpperCase();
+                        case "toLowerCase":
+                            return text.toLowerCase();
+                        case "trim":
+                            return text.trim();
+                        case "isEmpty":
+                            return text.isEmpty();
+                        case "toString":
+                            return text;
+                        default:
+                            return NOT_HANDLED;
+                    }
+                case 1:
+                    if (args[0] instanceof Integer begin && name.equals("substring")) {
+                        return text.substring(begin);
+                    }
+                    if (args[0] instanceof String other) {
+                        switch (name) {
+                            case "contains":
+                                return text.contains(other);
+                            case "startsWith":
+                                return text.startsWith(other);
+                            case "endsWith":
+                                return text.endsWith(other);
+                            case "equals":
+                                return text.equals(other);
+                            default:
+                                return NOT_HANDLED;
+                        }
+                    }
+                    return NOT_HANDLED;
+                case 2:
+                    if (args[0] instanceof Integer begin && args[1] instanceof Integer end
+                            && name.equals("substring")) {
+                        return text.substring(begin, end);
+                    }
+                    return NOT_HANDLED;
+                default:
+                    return NOT_HANDLED;
+            }
+        }
+        if (args.length == 0) {
+            if (value instanceof Collection<?> collection) {
+                if (name.equals("size")) {
+                    return collection.size();
+                }
+                if (name.equals("isEmpty")) {
+                    return collection.isEmpty();
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                if (name.equals("size")) {
+                    return map.size();
+                }
+                if (name.equals("isEmpty")) {
+                    return map.isEmpty();
+                }
+            }
+            if (name.equals("toString")) {
+                return value.toString();
+            }
+        }
+        return NOT_HANDLED;
+    }
+
+    private Object invokeResolved(RuleEvaluationContext context, Object value, Object[] args) {
+        CachedExecutor cached = this.cachedExecutor;
+        if (cached != null && cached.targetType == value.getClass()) {
+            try {
+                return cached.executor.execute(context, value, args).getValue();
+            } catch (AccessException e) {
+                // The cached executor no longer fits the arguments, resolve again
+                this.cachedExecutor = null;
+            }
+        }
+
+        List<TypeDescriptor> argumentTypes = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            argumentTypes.add(TypeDescriptor.forObject(arg));
+        }
+        try {
+            for (MethodResolver resolver : context.getMethodResolvers()) {
+                MethodExecutor executor = resolver.resolve(context, value, name, argumentTypes);
+                if (executor != null) {
+                    this.cachedExecutor = new CachedExecutor(value.getClass(), executor);
+                    return executor.execute(context, value, args).getValue();
+                }
+            }
+        } catch (AccessException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new SpelEvaluationException(cause, SpelMessage.EXCEPTION_DURING_METHOD_INVOCATION, name,
+                    value.getClass().getName(), cause.getMessage());
+        }
+        throw new SpelEvaluationException(SpelMessage.METHOD_NOT_FOUND,
+                name + "(" + argumentTypes.stream().map(t -> t != null ? t.getType().getName() : "null")
+                        .collect(Collectors.joining(",")) + ")",
+                value.getClass().getName());
+    }
+
+    private record CachedExecutor(Class<?> targetType, MethodExecutor executor) {
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        List<Node> children = new ArrayList<>(arguments.size() + 1);
+        children.add(target);
+        children.addAll(arguments);
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return target + (nullSafe ? "?." : ".") + name + "("
+                + arguments.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")";
+    }
+}
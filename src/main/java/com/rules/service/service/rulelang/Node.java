@@ -0,0 +1,35 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Node of the typed syntax tree produced by {@link RuleLanguageParser}.
+ *
+ * Every node can produce its value as an object. Nodes that always yield a
+ * boolean (comparisons and logical operators) also override
+ * {@link #test(RuleEvaluationContext)}, so conditions are evaluated on
+ * primitive booleans without boxing.
+ */
+public abstract class Node {
+
+    /**
+     * Evaluate this node
+     */
+    public abstract Object evaluate(RuleEvaluationContext context);
+
+    /**
+     * Evaluate this node as an operand of a logical operator
+     */
+    public boolean test(RuleEvaluationContext context) {
+        return Operators.toBoolean(evaluate(context));
+    }
+
+    /**
+     * Direct child nodes, in evaluation order
+     */
+    public List<Node> getChildren() {
+        return List.of();
+    }
+}
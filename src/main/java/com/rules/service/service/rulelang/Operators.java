@@ -0,0 +1,378 @@
+package com.rules.service.service.rulelang;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+/**
+ * Operator semantics of the native rule language.
+ *
+ * Mirrors SpEL so that switching a ruleset between engines does not change
+ * its results: numeric operands are promoted the same way (int, long, float,
+ * double, BigInteger, BigDecimal), null sorts before everything else, numbers
+ * compare by value across types, {@code +} concatenates when either side is
+ * a string, and failures are reported as {@link SpelEvaluationException}s
+ * carrying the same message codes SpEL uses.
+ *
+ * The common cases (both operands Integer, Long or Double) are handled on
+ * primitive fast paths before any general promotion.
+ */
+public final class Operators {
+
+    private Operators() {
+    }
+
+    /**
+     * Compare two values using SpEL's ordering
+     */
+    public static int compare(Object left, Object right) {
+        if (left instanceof Integer l && right instanceof Integer r) {
+            return Integer.compare(l, r);
+        }
+        if (left == null) {
+            return right == null ? 0 : -1;
+        }
+        if (right == null) {
+            return 1;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return compareNumbers(leftNumber, rightNumber);
+        }
+        try {
+            if (left instanceof Comparable) {
+                @SuppressWarnings("unchecked")
+                Comparable<Object> comparable = (Comparable<Object>) left;
+                return comparable.compareTo(right);
+            }
+        } catch (ClassCastException e) {
+            throw new SpelEvaluationException(e, SpelMessage.NOT_COMPARABLE, left.getClass(), right.getClass());
+        }
+        throw new SpelEvaluationException(SpelMessage.NOT_COMPARABLE, left.getClass(), right.getClass());
+    }
+
+    /**
+     * Compare a value against a numeric constant known at parse time
+     */
+    public static int compareToConstant(Object left, long longConstant, double doubleConstant, boolean integral,
+            Number constant) {
+        if (integral) {
+            if (left instanceof Integer l) {
+                return Long.compare(l, longConstant);
+            }
+            if (left instanceof Long l) {
+                return Long.compare(l, longConstant);
+            }
+        }
+        if (left instanceof Double l) {
+            return Double.compare(l, doubleConstant);
+        }
+        return compare(left, constant);
+    }
+
+    /**
+     * Equality as defined by SpEL's {@code ==}: numbers by value, with
+     * primitive {@code ==} for doubles and floats, character sequences by
+     * content, otherwise equals or a zero comparison
+     */
+    public static boolean equalityCheck(Object left, Object right) {
+        if (left instanceof Integer l && right instanceof Integer r) {
+            return l.intValue() == r.intValue();
+        }
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return numbersEqual(leftNumber, rightNumber);
+        }
+        if (left instanceof CharSequence && right instanceof CharSequence) {
+            return left.toString().equals(right.toString());
+        }
+        if (left.equals(right)) {
+            return true;
+        }
+        if (left instanceof Comparable && right instanceof Comparable) {
+            Class<?> ancestor = commonAncestor(left.getClass(), right.getClass());
+            if (ancestor != null && Comparable.class.isAssignableFrom(ancestor)) {
+                return compare(left, right) == 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The {@code +} operator: numeric addition, or concatenation when either
+     * operand is a string
+     */
+    public static Object add(Object left, Object right) {
+        if (left instanceof Integer l && right instanceof Integer r) {
+            return l + r;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return arithmetic(ArithmeticOperator.ADD, leftNumber, rightNumber);
+        }
+        if (left instanceof String || right instanceof String) {
+            return String.valueOf(left).concat(String.valueOf(right));
+        }
+        throw operatorNotSupported(ArithmeticOperator.ADD, left, right);
+    }
+
+    /**
+     * The {@code -}, {@code *}, {@code /} and {@code %} operators
+     */
+    public static Object arithmetic(ArithmeticOperator operator, Object left, Object right) {
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return arithmetic(operator, leftNumber, rightNumber);
+        }
+        if (operator == ArithmeticOperator.MULTIPLY && left instanceof String text && right instanceof Integer count) {
+            return text.repeat(count);
+        }
+        if (operator == ArithmeticOperator.ADD) {
+            return add(left, right);
+        }
+        throw operatorNotSupported(operator, left, right);
+    }
+
+    /**
+     * Unary minus
+     */
+    public static Object negate(Object operand) {
+        if (operand instanceof Integer i) {
+            return -i;
+        }
+        if (operand instanceof Long l) {
+            return -l;
+        }
+        if (operand instanceof Double d) {
+            return -d;
+        }
+        if (operand instanceof Float f) {
+            return -f;
+        }
+        if (operand instanceof BigDecimal b) {
+            return b.negate();
+        }
+        if (operand instanceof BigInteger b) {
+            return b.negate();
+        }
+        if (operand instanceof Short s) {
+            return -s;
+        }
+        if (operand instanceof Byte b) {
+            return -b;
+        }
+        throw new SpelEvaluationException(SpelMessage.OPERATOR_NOT_SUPPORTED_BETWEEN_TYPES, "SUBTRACT",
+                typeName(operand), "null");
+    }
+
+    /**
+     * Convert an operand of a logical operator to a primitive boolean.
+     * Null is not a valid boolean, just as in SpEL.
+     */
+    public static boolean toBoolean(Object value) {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        if (value == null) {
+            throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, "null", "boolean");
+        }
+        Boolean converted = convertToBoolean(value);
+        if (converted == null) {
+            throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, value.getClass().getName(),
+                    "boolean");
+        }
+        return converted;
+    }
+
+    /**
+     * Convert a result to {@link Boolean}, allowing null
+     */
+    public static Boolean toBooleanObject(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        Boolean converted = convertToBoolean(value);
+        if (converted == null) {
+            throw new SpelEvaluationException(SpelMessage.TYPE_CONVERSION_ERROR, value.getClass().getName(),
+                    Boolean.class.getName());
+        }
+        return converted;
+    }
+
+    private static Boolean convertToBoolean(Object value) {
+        if (value instanceof String text) {
+            // Same accepted values as Spring's String to Boolean conversion
+            switch (text.trim().toLowerCase()) {
+                case "true", "on", "yes", "1":
+                    return Boolean.TRUE;
+                case "false", "off", "no", "0":
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    private static Object arithmetic(ArithmeticOperator operator, Number left, Number right) {
+        if (left instanceof BigDecimal || right instanceof BigDecimal) {
+            return bigDecimalArithmetic(operator, toBigDecimal(left), toBigDecimal(right));
+        }
+        if (left instanceof Double || right instanceof Double) {
+            double l = left.doubleValue();
+            double r = right.doubleValue();
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+        if (left instanceof Float || right instanceof Float) {
+            float l = left.floatValue();
+            float r = right.floatValue();
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+        if (left instanceof BigInteger || right instanceof BigInteger) {
+            BigInteger l = toBigInteger(left);
+            BigInteger r = toBigInteger(right);
+            return switch (operator) {
+                case ADD -> l.add(r);
+                case SUBTRACT -> l.subtract(r);
+                case MULTIPLY -> l.multiply(r);
+                case DIVIDE -> l.divide(r);
+                case MODULUS -> l.remainder(r);
+            };
+        }
+        if (left instanceof Long || right instanceof Long) {
+            long l = left.longValue();
+            long r = right.longValue();
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+        if (isIntegerType(left) && isIntegerType(right)) {
+            int l = left.intValue();
+            int r = right.intValue();
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+        throw operatorNotSupported(operator, left, right);
+    }
+
+    private static Object bigDecimalArithmetic(ArithmeticOperator operator, BigDecimal left, BigDecimal right) {
+        return switch (operator) {
+            case ADD -> left.add(right);
+            case SUBTRACT -> left.subtract(right);
+            case MULTIPLY -> left.multiply(right);
+            case DIVIDE -> left.divide(right, Math.max(left.scale(), right.scale()), RoundingMode.HALF_EVEN);
+            case MODULUS -> left.remainder(right);
+        };
+    }
+
+    /**
+     * Numeric equality, which unlike {@link #compareNumbers} holds for -0.0
+     * and 0.0 and never for NaN
+     */
+    private static boolean numbersEqual(Number left, Number right) {
+        if (left instanceof BigDecimal || right instanceof BigDecimal) {
+            return toBigDecimal(left).compareTo(toBigDecimal(right)) == 0;
+        }
+        if (left instanceof Double || right instanceof Double) {
+            return left.doubleValue() == right.doubleValue();
+        }
+        if (left instanceof Float || right instanceof Float) {
+            return left.floatValue() == right.floatValue();
+        }
+        if (left instanceof BigInteger || right instanceof BigInteger) {
+            return toBigInteger(left).compareTo(toBigInteger(right)) == 0;
+        }
+        if (left instanceof Long || right instanceof Long) {
+            return left.longValue() == right.longValue();
+        }
+        if (isIntegerType(left) && isIntegerType(right)) {
+            return left.intValue() == right.intValue();
+        }
+        return left.doubleValue() == right.doubleValue();
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (left instanceof BigDecimal || right instanceof BigDecimal) {
+            return toBigDecimal(left).compareTo(toBigDecimal(right));
+        }
+        if (left instanceof Double || right instanceof Double) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        if (left instanceof Float || right instanceof Float) {
+            return Float.compare(left.floatValue(), right.floatValue());
+        }
+        if (left instanceof BigInteger || right instanceof BigInteger) {
+            return toBigInteger(left).compareTo(toBigInteger(right));
+        }
+        if (left instanceof Long || right instanceof Long) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (isIntegerType(left) && isIntegerType(right)) {
+            return Integer.compare(left.intValue(), right.intValue());
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegerType(Number number) {
+        return number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal b) {
+            return b;
+        }
+        if (number instanceof BigInteger b) {
+            return new BigDecimal(b);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    private static BigInteger toBigInteger(Number number) {
+        return number instanceof BigInteger b ? b : BigInteger.valueOf(number.longValue());
+    }
+
+    private static Class<?> commonAncestor(Class<?> left, Class<?> right) {
+        for (Class<?> candidate = left; candidate != null; candidate = candidate.getSuperclass()) {
+            if (candidate.isAssignableFrom(right)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static SpelEvaluationException operatorNotSupported(ArithmeticOperator operator, Object left,
+            Object right) {
+        return new SpelEvaluationException(SpelMessage.OPERATOR_NOT_SUPPORTED_BETWEEN_TYPES, operator.name(),
+                typeName(left), typeName(right));
+    }
+
+    static String typeName(Object value) {
+        return value != null ? value.getClass().getName() : "null";
+    }
+}
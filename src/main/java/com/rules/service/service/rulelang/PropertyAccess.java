@@ -0,0 +1,79 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Property read on the result of another node, such as {@code user.profile}
+ * or {@code user?.profile}. Maps are navigated directly; any other target
+ * goes through the context's property accessors, as in SpEL.
+ */
+public final class PropertyAccess extends Node {
+    private final Node target;
+    private final String name;
+    private final boolean nullSafe;
+
+    PropertyAccess(Node target, String name, boolean nullSafe) {
+        this.target = target;
+        this.name = name;
+        this.nullSafe = nullSafe;
+    }
+
+    public Node getTarget() {
+        return target;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isNullSafe() {
+        return nullSafe;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        Object value = target.evaluate(context);
+        if (value instanceof Map<?, ?> map) {
+            return map.get(name);
+        }
+        if (value == null) {
+            if (nullSafe) {
+                return null;
+            }
+            throw new SpelEvaluationException(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE_ON_NULL, name);
+        }
+        return readWithAccessors(context, value);
+    }
+
+    private Object readWithAccessors(RuleEvaluationContext context, Object value) {
+        try {
+            for (PropertyAccessor accessor : context.getPropertyAccessors()) {
+                if (accessor.canRead(context, value, name)) {
+                    return accessor.read(context, value, name).getValue();
+                }
+            }
+        } catch (AccessException e) {
+            throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_READ, name, e.getMessage());
+        }
+        throw new SpelEvaluationException(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE, name,
+                value.getClass().getName());
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(target);
+    }
+
+    @Override
+    public String toString() {
+        return target + (nullSafe ? "?." : ".") + name;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rules.service.service.rulelang;
+
+import com.rules.service.service.PropertyPath;
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Bare identifier such as {@code age}: an output variable of an earlier rule
+ * or, failing that, an input field. Missing fields read as null.
+ */
+public final class RootProperty extends Node {
+    private final String name;
+    private final PropertyPath path;
+
+    RootProperty(String name) {
+        this.name = name;
+        this.path = PropertyPath.of(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return context.getScope().resolve(path);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
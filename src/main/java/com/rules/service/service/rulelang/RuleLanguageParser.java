@@ -0,0 +1,496 @@
+package com.rules.service.service.rulelang;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive-descent parser for the subset of SpEL that rules are written in.
+ *
+ * Supported: number, string, boolean and null literals; bare and
+ * {@code #}-prefixed identifiers; property, safe-navigation, index and method
+ * access; the builtin {@code STRING_*} functions; arithmetic, relational,
+ * logical, ternary and Elvis operators with SpEL's precedence and its textual
+ * aliases ({@code AND}, {@code gt}, {@code div}, ...).
+ *
+ * Anything outside that subset (type references, constructors, collection
+ * selection and projection, assignment, regular expressions, ...) raises an
+ * {@link UnsupportedExpressionException} so the caller can fall back to SpEL.
+ * The parser is stateless and thread-safe.
+ */
+public final class RuleLanguageParser {
+
+    /**
+     * Parse an expression into a syntax tree
+     *
+     * @param expressionText The expression text
+     * @return The root node
+     * @throws UnsupportedExpressionException if the text is outside the supported
+     *                                        subset or malformed
+     */
+    public Node parse(String expressionText) {
+        if (expressionText == null || expressionText.isBlank()) {
+            throw new UnsupportedExpressionException("Empty expression");
+        }
+        Parse parse = new Parse(expressionText, tokenize(expressionText));
+        Node node = parse.expression();
+        if (parse.peek().kind != TokenKind.END) {
+            throw parse.unsupported("Unexpected token '" + parse.peek().text + "'");
+        }
+        return node;
+    }
+
+    private enum TokenKind {
+        NUMBER, STRING, IDENTIFIER, SYMBOL, END
+    }
+
+    private record Token(TokenKind kind, String text, Object value, int position) {
+        boolean is(String symbol) {
+            return kind == TokenKind.SYMBOL && text.equals(symbol);
+        }
+    }
+
+    private static final String[] SYMBOLS = {
+            "?.", "?:", "?[", "==", "!=", "<=", ">=", "&&", "||", "++", "--", "![", "^[", "$[",
+            "(", ")", "[", "]", ",", ".", "?", ":", "#", "!", "<", ">", "+", "-", "*", "/", "%", "=", "^",
+            "{", "}", "@", "&", "|" };
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isDigit(c)) {
+                i = readNumber(text, i, tokens);
+            } else if (c == '\'' || c == '"') {
+                i = readString(text, i, c, tokens);
+            } else if (Character.isLetter(c) || c == '_' || c == '$' && !text.startsWith("$[", i)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_'
+                        || text.charAt(i) == '$')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenKind.IDENTIFIER, text.substring(start, i), null, start));
+            } else {
+                String symbol = matchSymbol(text, i);
+                tokens.add(new Token(TokenKind.SYMBOL, symbol, null, i));
+                i += symbol.length();
+            }
+        }
+        tokens.add(new Token(TokenKind.END, "<end>", null, length));
+        return tokens;
+    }
+
+    private static String matchSymbol(String text, int position) {
+        for (String symbol : SYMBOLS) {
+            if (text.startsWith(symbol, position)) {
+                return symbol;
+            }
+        }
+        throw new UnsupportedExpressionException(
+                "Unexpected character '" + text.charAt(position) + "' at position " + position);
+    }
+
+    private static int readNumber(String text, int start, List<Token> tokens) {
+        int length = text.length();
+        int i = start;
+        if (text.startsWith("0x", i) || text.startsWith("0X", i)) {
+            throw new UnsupportedExpressionException("Hexadecimal literals are not supported");
+        }
+        while (i < length && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        boolean decimal = false;
+        if (i + 1 < length && text.charAt(i) == '.' && Character.isDigit(text.charAt(i + 1))) {
+            decimal = true;
+            i++;
+            while (i < length && Character.isDigit(text.charAt(i))) {
+                i++;
+            }
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            int exponent = i + 1;
+            if (exponent < length && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            if (exponent < length && Character.isDigit(text.charAt(exponent))) {
+                decimal = true;
+                i = exponent;
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+
+        String digits = text.substring(start, i);
+        char suffix = i < length ? Character.toLowerCase(text.charAt(i)) : 0;
+        Object value;
+        try {
+            if (suffix == 'l' && !decimal) {
+                value = Long.parseLong(digits);
+                i++;
+            } else if (suffix == 'f') {
+                value = Float.parseFloat(digits);
+                i++;
+            } else if (suffix == 'd') {
+                value = Double.parseDouble(digits);
+                i++;
+            } else if (decimal) {
+                value = Double.parseDouble(digits);
+            } else {
+                value = Integer.parseInt(digits);
+            }
+        } catch (NumberFormatException e) {
+            throw new UnsupportedExpressionException("Invalid number '" + digits + "'");
+        }
+        if (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+            throw new UnsupportedExpressionException("Invalid number at position " + start);
+        }
+        tokens.add(new Token(TokenKind.NUMBER, text.substring(start, i), value, start));
+        return i;
+    }
+
+    private static int readString(String text, int start, char quote, List<Token> tokens) {
+        StringBuilder value = new StringBuilder();
+        int i = start + 1;
+        while (true) {
+            if (i >= text.length()) {
+                throw new UnsupportedExpressionException("Unterminated string at position " + start);
+            }
+            char c = text.charAt(i);
+            if (c == quote) {
+                // A doubled quote is an escaped quote
+                if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+                    value.append(quote);
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            value.append(c);
+            i++;
+        }
+        tokens.add(new Token(TokenKind.STRING, text.substring(start, i + 1), value.toString(), start));
+        return i + 1;
+    }
+
+    /**
+     * State of parsing a single expression
+     */
+    private static final class Parse {
+        private final String expressionText;
+        private final List<Token> tokens;
+        private int position;
+
+        Parse(String expressionText, List<Token> tokens) {
+            this.expressionText = expressionText;
+            this.tokens = tokens;
+        }
+
+        Token peek() {
+            return tokens.get(position);
+        }
+
+        Token peek(int ahead) {
+            return tokens.get(Math.min(position + ahead, tokens.size() - 1));
+        }
+
+        Token next() {
+            return tokens.get(position++);
+        }
+
+        boolean accept(String symbol) {
+            if (peek().is(symbol)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean acceptKeyword(String keyword) {
+            Token token = peek();
+            if (token.kind == TokenKind.IDENTIFIER && token.text.equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String symbol) {
+            if (!accept(symbol)) {
+                throw unsupported("Expected '" + symbol + "' but found '" + peek().text + "'");
+            }
+        }
+
+        UnsupportedExpressionException unsupported(String reason) {
+            return new UnsupportedExpressionException(
+                    reason + " at position " + peek().position + " in '" + expressionText + "'");
+        }
+
+        // expression := logicalOr ( '?:' expression | '?' expression ':' expression )?
+        Node expression() {
+            Node node = logicalOr();
+            if (accept("?:")) {
+                return new Conditional(null, node, expression());
+            }
+            if (accept("?")) {
+                Node whenTrue = expression();
+                expect(":");
+                return new Conditional(node, whenTrue, expression());
+            }
+            if (peek().is("=")) {
+                throw unsupported("Assignment is not supported");
+            }
+            return node;
+        }
+
+        Node logicalOr() {
+            Node node = logicalAnd();
+            while (accept("||") || acceptKeyword("or")) {
+                node = new LogicalOperator(false, node, logicalAnd());
+            }
+            return node;
+        }
+
+        Node logicalAnd() {
+            Node node = relational();
+            while (accept("&&") || acceptKeyword("and")) {
+                node = new LogicalOperator(true, node, relational());
+            }
+            return node;
+        }
+
+        Node relational() {
+            Node left = sum();
+            ComparisonOperator operator = comparisonOperator();
+            if (operator == null) {
+                Token token = peek();
+                if (token.kind == TokenKind.IDENTIFIER && isUnsupportedOperator(token.text)) {
+                    throw unsupported("Operator '" + token.text + "' is not supported");
+                }
+                return left;
+            }
+            Node right = sum();
+            if (right instanceof Literal literal && isPrimitiveNumber(literal.getValue())) {
+                return new ConstantComparison(operator, left, (Number) literal.getValue());
+            }
+            if (left instanceof Literal literal && isPrimitiveNumber(literal.getValue())) {
+                return new ConstantComparison(mirror(operator), right, (Number) literal.getValue());
+            }
+            return new Comparison(operator, left, right);
+        }
+
+        ComparisonOperator comparisonOperator() {
+            if (accept("==") || acceptKeyword("eq")) {
+                return ComparisonOperator.EQ;
+            }
+            if (accept("!=") || acceptKeyword("ne")) {
+                return ComparisonOperator.NE;
+            }
+            if (accept("<=") || acceptKeyword("le")) {
+                return ComparisonOperator.LE;
+            }
+            if (accept(">=") || acceptKeyword("ge")) {
+                return ComparisonOperator.GE;
+            }
+            if (accept("<") || acceptKeyword("lt")) {
+                return ComparisonOperator.LT;
+            }
+            if (accept(">") || acceptKeyword("gt")) {
+                return ComparisonOperator.GT;
+            }
+            return null;
+        }
+
+        Node sum() {
+            Node node = product();
+            while (true) {
+                if (accept("+")) {
+                    node = new Arithmetic(ArithmeticOperator.ADD, node, product());
+                } else if (accept("-")) {
+                    node = new Arithmetic(ArithmeticOperator.SUBTRACT, node, product());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        Node product() {
+            Node node = unary();
+            while (true) {
+                if (accept("*")) {
+                    node = new Arithmetic(ArithmeticOperator.MULTIPLY, node, unary());
+                } else if (accept("/") || acceptKeyword("div")) {
+                    node = new Arithmetic(ArithmeticOperator.DIVIDE, node, unary());
+                } else if (accept("%") || acceptKeyword("mod")) {
+                    node = new Arithmetic(ArithmeticOperator.MODULUS, node, unary());
+                } else if (peek().is("^") || peek().is("++") || peek().is("--")) {
+                    throw unsupported("Operator '" + peek().text + "' is not supported");
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        Node unary() {
+            if (accept("!") || acceptKeyword("not")) {
+                return new UnaryOperator(true, unary());
+            }
+            if (accept("-")) {
+                Node operand = unary();
+                // Fold negative numeric literals so they can take the constant comparison path
+                if (operand instanceof Literal literal && literal.getValue() instanceof Number number) {
+                    return new Literal(Operators.negate(number));
+                }
+                return new UnaryOperator(false, operand);
+            }
+            if (peek().is("+") || peek().is("++") || peek().is("--")) {
+                throw unsupported("Operator '" + peek().text + "' is not supported");
+            }
+            return navigation(start());
+        }
+
+        Node start() {
+            Token token = next();
+            switch (token.kind) {
+                case NUMBER:
+                case STRING:
+                    return new Literal(token.value);
+                case IDENTIFIER:
+                    return identifier(token);
+                case SYMBOL:
+                    if (token.is("(")) {
+                        Node node = expression();
+                        expect(")");
+                        return node;
+                    }
+                    if (token.is("#")) {
+                        Token name = next();
+                        if (name.kind != TokenKind.IDENTIFIER) {
+                            throw unsupported("Expected variable name");
+                        }
+                        if (name.text.equals("this") || name.text.equals("root")) {
+                            throw unsupported("#" + name.text + " is not supported");
+                        }
+                        if (peek().is("(")) {
+                            return function(name);
+                        }
+                        return new VariableReference(name.text);
+                    }
+                    position--;
+                    throw unsupported("Unexpected '" + token.text + "'");
+                default:
+                    position--;
+                    throw unsupported("Unexpected end of expression");
+            }
+        }
+
+        Node identifier(Token token) {
+            String lower = token.text.toLowerCase(Locale.ROOT);
+            switch (lower) {
+                case "true":
+                    return new Literal(Boolean.TRUE);
+                case "false":
+                    return new Literal(Boolean.FALSE);
+                case "null":
+                    return new Literal(null);
+                case "new":
+                    throw unsupported("Constructors are not supported");
+                default:
+                    break;
+            }
+            if (isOperatorKeyword(lower)) {
+                throw unsupported("Unexpected operator '" + token.text + "'");
+            }
+            if (peek().is("(")) {
+                return function(token);
+            }
+            return new RootProperty(token.text);
+        }
+
+        Node function(Token name) {
+            BuiltinFunction function = BuiltinFunction.forName(name.text);
+            if (function == null) {
+                throw unsupported("Unknown function '" + name.text + "'");
+            }
+            List<Node> arguments = arguments();
+            if (!function.accepts(arguments.size())) {
+                throw unsupported("Wrong number of arguments for " + name.text);
+            }
+            return new FunctionCall(function, arguments);
+        }
+
+        List<Node> arguments() {
+            expect("(");
+            List<Node> arguments = new ArrayList<>();
+            if (accept(")")) {
+                return arguments;
+            }
+            do {
+                arguments.add(expression());
+            } while (accept(","));
+            expect(")");
+            return arguments;
+        }
+
+        Node navigation(Node node) {
+            while (true) {
+                boolean nullSafe;
+                if (accept(".")) {
+                    nullSafe = false;
+                } else if (accept("?.")) {
+                    nullSafe = true;
+                } else if (accept("[")) {
+                    Node index = expression();
+                    expect("]");
+                    node = new Indexer(node, index);
+                    continue;
+                } else if (peek().is("?[") || peek().is("![") || peek().is("^[") || peek().is("$[")) {
+                    throw unsupported("Collection selection and projection are not supported");
+                } else {
+                    return node;
+                }
+
+                Token name = next();
+                if (name.kind != TokenKind.IDENTIFIER) {
+                    position--;
+                    throw unsupported("Expected property or method name");
+                }
+                if (peek().is("(")) {
+                    node = new MethodCall(node, name.text, arguments(), nullSafe);
+                } else {
+                    node = new PropertyAccess(node, name.text, nullSafe);
+                }
+            }
+        }
+
+        private static boolean isPrimitiveNumber(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof Double;
+        }
+
+        private static ComparisonOperator mirror(ComparisonOperator operator) {
+            return switch (operator) {
+                case LT -> ComparisonOperator.GT;
+                case LE -> ComparisonOperator.GE;
+                case GT -> ComparisonOperator.LT;
+                case GE -> ComparisonOperator.LE;
+                default -> operator;
+            };
+        }
+
+        private static boolean isOperatorKeyword(String lower) {
+            return switch (lower) {
+                case "and", "or", "not", "eq", "ne", "lt", "le", "gt", "ge", "div", "mod" -> true;
+                default -> isUnsupportedOperator(lower);
+            };
+        }
+
+        private static boolean isUnsupportedOperator(String text) {
+            String lower = text.toLowerCase(Locale.ROOT);
+            return lower.equals("instanceof") || lower.equals("matches") || lower.equals("between");
+        }
+    }
+}
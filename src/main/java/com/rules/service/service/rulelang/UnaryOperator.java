@@ -0,0 +1,48 @@
+package com.rules.service.service.rulelang;
+
+import java.util.List;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Logical {@code NOT} / {@code !} or numeric negation
+ */
+public final class UnaryOperator extends Node {
+    private final boolean not;
+    private final Node operand;
+
+    UnaryOperator(boolean not, Node operand) {
+        this.not = not;
+        this.operand = operand;
+    }
+
+    public boolean isNot() {
+        return not;
+    }
+
+    @Override
+    public boolean test(RuleEvaluationContext context) {
+        if (not) {
+            return !operand.test(context);
+        }
+        return super.test(context);
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        if (not) {
+            return !operand.test(context);
+        }
+        return Operators.negate(operand.evaluate(context));
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        return List.of(operand);
+    }
+
+    @Override
+    public String toString() {
+        return (not ? "!" : "-") + operand;
+    }
+}
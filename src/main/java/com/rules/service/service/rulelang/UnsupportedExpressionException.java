@@ -0,0 +1,13 @@
+package com.rules.service.service.rulelang;
+
+/**
+ * Thrown when an expression uses syntax outside the native rule language
+ */
+public class UnsupportedExpressionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedExpressionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.rules.service.service.rulelang;
+
+import com.rules.service.service.RuleEvaluationContext;
+
+/**
+ * Variable reference such as {@code #age}
+ */
+public final class VariableReference extends Node {
+    private final String name;
+
+    VariableReference(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object evaluate(RuleEvaluationContext context) {
+        return context.lookupVariable(name);
+    }
+
+    @Override
+    public String toString() {
+        return "#" + name;
+    }
+}
@@ -9,19 +9,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import com.rules.service.config.RuleEngineProperties;
 import com.rules.service.model.Rule;
-import com.rules.service.service.NestedMapPropertyAccessor;
-import com.rules.service.service.PropertyAccessWrapper;
-import com.rules.service.service.PropertyAccessWrapperAccessor;
+import com.rules.service.model.RulesetSnapshot;
 import com.rules.service.service.RuleExecutionService;
 import com.rules.service.service.RuleService;
-import com.rules.service.service.SpelContextConfigurationService;
+import com.rules.service.service.TestRuleEngine;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Manual Nested JSON Test")
@@ -30,28 +27,15 @@ public class ManualNestedJsonTest {
     @Mock
     private RuleService ruleService;
 
-    @Mock
-    private SpelContextConfigurationService spelContextConfigurationService;
-
-    @InjectMocks
     private RuleExecutionService ruleExecutionService;
 
     @BeforeEach
     void setUp() {
-        // Mock the SpelContextConfigurationService to create a proper context with
-        // input data
-        when(spelContextConfigurationService.createEvaluationContext(any())).thenAnswer(invocation -> {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> inputData = (Map<String, Object>) invocation.getArgument(0);
-            PropertyAccessWrapper wrapper = new PropertyAccessWrapper(inputData);
-            StandardEvaluationContext context = new StandardEvaluationContext(wrapper);
-            context.addPropertyAccessor(new PropertyAccessWrapperAccessor());
-            context.addPropertyAccessor(new NestedMapPropertyAccessor());
-
-            // Add input data as variables for backward compatibility
-            inputData.forEach(context::setVariable);
-
-            return context;
+        ruleExecutionService = new TestRuleEngine(new RuleEngineProperties()).ruleExecutionService(ruleService);
+        // Serve ruleset snapshots from the rules stubbed by each test
+        when(ruleService.getRuleset(any())).thenAnswer(invocation -> {
+            String rulesetName = invocation.getArgument(0);
+            return RulesetSnapshot.of(rulesetName, 1, ruleService.getRulesByRuleset(rulesetName));
         });
     }
 
@@ -1,7 +1,14 @@
 package com.rules.service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,32 +16,37 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
-import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.dto.AddRuleRequest;
+import com.rules.service.model.Rule;
 import com.rules.service.repository.RuleRepository;
+import com.rules.service.service.RuleService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 @ActiveProfiles("test")
-@Transactional
-@Rollback
 @DisplayName("Rule Execution Service - Comprehensive Integration Tests")
 public class RuleExecutionServiceIntegrationTest {
 
     @Autowired
     private RuleRepository ruleRepository;
 
+    @Autowired
+    private RuleService ruleService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -43,7 +55,10 @@ public class RuleExecutionServiceIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        // Rulesets are published when their transaction commits, so every test
+        // commits its rules and starts from an empty database and registry
         ruleRepository.deleteAll();
+        ruleService.loadRulesets();
     }
 
     @Nested
@@ -292,6 +307,44 @@ public class RuleExecutionServiceIntegrationTest {
             assertThat(result.get("name_upper")).isEqualTo("JOHN");
             assertThat(result.get("drink_status")).isEqualTo("john can drink");
         }
+
+        @Test
+        @DisplayName("Rules should execute in the order they were added")
+        void testRulesExecuteInInsertionOrder() throws Exception {
+            for (int i = 0; i < 20; i++) {
+                createRule("order_test", "true THEN " + i, "last");
+            }
+
+            Map<String, Object> result = executeRuleset("order_test", Map.of());
+
+            assertThat(result.get("last")).isEqualTo(19);
+        }
+
+        @Test
+        @DisplayName("Rules added concurrently to one ruleset should get positions of their own")
+        void testConcurrentlyAddedRulesGetDistinctPositions() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> writers = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    writers.add(executor.submit(() -> {
+                        for (int j = 0; j < 10; j++) {
+                            ruleService.addRule("concurrent_test", new AddRuleRequest("true THEN 1", "one"));
+                        }
+                    }));
+                }
+                for (Future<?> writer : writers) {
+                    writer.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(ruleService.getRulesByRuleset("concurrent_test"))
+                    .extracting(Rule::getPosition)
+                    .containsExactlyElementsOf(LongStream.range(0, 80).boxed().toList());
+            assertThat(ruleService.getRuleCountForRuleset("concurrent_test")).isEqualTo(80);
+        }
     }
 
     @Nested
@@ -947,6 +1000,211 @@ public class RuleExecutionServiceIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Output Projection Integration Tests")
+    class OutputProjectionIntegrationTests {
+
+        @Test
+        @DisplayName("Requested outputs limit the returned variables")
+        void testRequestedOutputs() throws Exception {
+            String rulesetPayload = """
+                    {
+                        "name": "projection_test",
+                        "rules": [
+                            { "rule": "age >= 18 THEN 'adult'", "outputVariable": "category" },
+                            { "rule": "true THEN STRING_UPPERCASE(name)", "outputVariable": "name_upper" },
+                            { "rule": "category == 'adult' THEN name_upper + ' is an adult'", "outputVariable": "summary" }
+                        ]
+                    }
+                    """;
+            mockMvc.perform(post("/api/rulesets")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(rulesetPayload))
+                    .andExpect(status().isCreated());
+
+            String executePayload = """
+                    {
+                        "rulesetName": "projection_test",
+                        "inputData": { "name": "alice", "age": 25 },
+                        "requestedOutputs": ["summary"]
+                    }
+                    """;
+            MvcResult result = mockMvc.perform(post("/api/rulesets/execute")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(executePayload))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {
+            };
+            Map<String, Object> response = objectMapper.readValue(result.getResponse().getContentAsString(), typeRef);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> outputVariables = (Map<String, Object>) response.get("outputVariables");
+
+            assertThat(outputVariables).containsOnlyKeys("summary").containsEntry("summary", "ALICE is an adult");
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Execution")
+    class BatchExecutionIntegrationTests {
+
+        @Test
+        @DisplayName("Results are returned in input order with per-item errors")
+        void testExecuteBatch() throws Exception {
+            String rulesetPayload = """
+                    {
+                        "name": "batch_test",
+                        "rules": [
+                            { "rule": "age >= 18 THEN 'adult'", "outputVariable": "category" },
+                            { "rule": "true THEN name.length()", "outputVariable": "name_length" }
+                        ]
+                    }
+                    """;
+            mockMvc.perform(post("/api/rulesets")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(rulesetPayload))
+                    .andExpect(status().isCreated());
+
+            String batchPayload = """
+                    {
+                        "inputs": [
+                            { "name": "alice", "age": 25 },
+                            { "age": 30 },
+                            { "name": "bob", "age": 12 }
+                        ]
+                    }
+                    """;
+            MvcResult result = mockMvc.perform(post("/api/rulesets/batch_test/execute-batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(batchPayload))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {
+            };
+            Map<String, Object> response = objectMapper.readValue(result.getResponse().getContentAsString(), typeRef);
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+
+            assertThat(response).containsEntry("totalRules", 2).containsEntry("failedItems", 1);
+            assertThat(results).extracting(item -> item.get("index")).containsExactly(0, 1, 2);
+            assertThat(results.get(0).get("outputVariables"))
+                    .isEqualTo(Map.of("category", "adult", "name_length", 5));
+            assertThat(results.get(1).get("error")).asString().startsWith("Error executing rule");
+            assertThat(results.get(2).get("outputVariables")).isEqualTo(Map.of("name_length", 3));
+        }
+
+        @Test
+        @DisplayName("Unknown rulesets are not found")
+        void testUnknownRuleset() throws Exception {
+            mockMvc.perform(post("/api/rulesets/missing/execute-batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{ \"inputs\": [ {} ] }"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Newline-delimited inputs stream back one result line each")
+        void testExecuteStream() throws Exception {
+            createRule("stream_test", "age >= 18 THEN 'adult'", "category");
+
+            MvcResult result = mockMvc.perform(post("/api/rulesets/stream_test/execute-stream")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .content("{\"age\": 25}\n{\"age\": 12}\n{\"age\": 40}\n"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+            Map<Object, Object> categories = new HashMap<>();
+            for (String line : result.getResponse().getContentAsString().split("\n")) {
+                Map<String, Object> item = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+                });
+                categories.put(item.get("index"), item.get("outputVariables"));
+            }
+            assertThat(categories).containsOnly(
+                    Map.entry(0, Map.of("category", "adult")),
+                    Map.entry(1, Map.of()),
+                    Map.entry(2, Map.of("category", "adult")));
+        }
+
+        @Test
+        @DisplayName("Streaming to an unknown ruleset is not found")
+        void testExecuteStreamUnknownRuleset() throws Exception {
+            mockMvc.perform(post("/api/rulesets/missing/execute-stream")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content("{}\n"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Execution Traces")
+    class ExecutionTraceIntegrationTests {
+
+        @Test
+        @DisplayName("Requests sent with the trace header can be read back from the traces endpoint")
+        void testTraceHeader() throws Exception {
+            createRule("trace_test", "age >= 18 THEN 'adult'", "category");
+            String executePayload = """
+                    {
+                        "rulesetName": "trace_test",
+                        "inputData": { "age": %d }
+                    }
+                    """;
+            mockMvc.perform(post("/api/rulesets/execute")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(String.format(executePayload, 12)))
+                    .andExpect(status().isOk());
+            mockMvc.perform(post("/api/rulesets/execute")
+                    .header("X-Rules-Trace", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(String.format(executePayload, 25)))
+                    .andExpect(status().isOk());
+
+            MvcResult result = mockMvc.perform(get("/api/rulesets/trace_test/traces"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            List<Map<String, Object>> traces = objectMapper.readValue(result.getResponse().getContentAsString(),
+                    new TypeReference<List<Map<String, Object>>>() {
+                    });
+            assertThat(traces).hasSize(1);
+            assertThat(traces.get(0))
+                    .containsEntry("reason", "requested")
+                    .containsEntry("input", Map.of("age", 25))
+                    .containsEntry("outputs", Map.of("category", "adult"));
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> rules = (List<Map<String, Object>>) traces.get(0).get("rules");
+            assertThat(rules).hasSize(1);
+            assertThat(rules.get(0)).containsEntry("conditionResult", true).containsEntry("output", "adult");
+        }
+    }
+
+    @Nested
+    @DisplayName("Execution Metrics")
+    class ExecutionMetricsIntegrationTests {
+
+        @Test
+        @DisplayName("Execution latencies and rule counts are exported for Prometheus")
+        void testPrometheusEndpoint() throws Exception {
+            createRule("metrics_test", "age >= 18 THEN 'adult'", "category");
+            executeRuleset("metrics_test", Map.of("age", 25));
+            executeRuleset("metrics_test", Map.of("age", 12));
+
+            String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            assertThat(scrape)
+                    .contains("rules_execution_seconds_bucket{outcome=\"success\",ruleset=\"metrics_test\"")
+                    .contains("rules_execution_seconds_count{outcome=\"success\",ruleset=\"metrics_test\",} 2.0")
+                    .contains("rules_rules_evaluated_total{fired=\"true\",ruleset=\"metrics_test\",} 1.0")
+                    .contains("rules_expression_cache_hit_ratio");
+        }
+    }
+
     // Helper methods
     private void createRule(String rulesetName, String rule, String outputVariable) throws Exception {
         String rulePayload = String.format("""
@@ -0,0 +1,121 @@
+package com.rules.service.benchmark;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+import com.rules.service.service.ConditionIndex;
+import com.rules.service.service.ExpressionCacheService;
+import com.rules.service.service.RuleEvaluationContext;
+import com.rules.service.service.RuleExpression;
+import com.rules.service.service.SpelContextConfigurationService;
+
+/**
+ * Measures how the latency of an indexed ruleset grows with the number of
+ * rules. Every rule is shaped like {@code country == 'C17' && tier == 'GOLD'},
+ * with ten rules per country, or like
+ * {@code amount >= 170 && amount < 180 && tier == 'GOLD'}, with ten rules per
+ * band, so a request has the same number of candidate rules whatever the size
+ * of the ruleset. Excluded from the regular test run;
+ * run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Condition index benchmark")
+class ConditionIndexBenchmarkTest {
+
+    private static final int RULES_PER_COUNTRY = 10;
+    private static final String[] TIERS = { "GOLD", "SILVER" };
+
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+
+    @Test
+    @DisplayName("Latency stays flat from 100 to 100k rules")
+    void compareRulesetSizes() {
+        compareRulesetSizes(false);
+    }
+
+    @Test
+    @DisplayName("Latency of range conditions stays flat from 100 to 100k rules")
+    void compareRangeRulesetSizes() {
+        compareRulesetSizes(true);
+    }
+
+    private void compareRulesetSizes(boolean ranges) {
+        double small = measure(100, 200_000, ranges);
+        measure(1_000, 200_000, ranges);
+        measure(10_000, 200_000, ranges);
+        double large = measure(100_000, 200_000, ranges);
+
+        System.out.printf(Locale.ROOT, "100k rules vs 100 rules: %.2fx%n", large / small);
+        assertThat(large).isLessThan(small * 5);
+    }
+
+    private double measure(int ruleCount, int iterations, boolean ranges) {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            Rule rule = new Rule();
+            int group = i / RULES_PER_COUNTRY;
+            rule.setCondition((ranges
+                    ? "amount >= " + group * 10 + " && amount < " + (group * 10 + 10)
+                    : "country == 'C" + group + "'") + " && tier == '" + TIERS[i % 2] + "'");
+            rule.setTransformation("amount * " + (i % 7 + 1));
+            rule.setOutputVariable("out" + (i % 50));
+            rule.setRuleset("benchmark");
+            rules.add(rule);
+        }
+        RulesetSnapshot snapshot = RulesetSnapshot.of("benchmark", 1, rules);
+        ConditionIndex index = ConditionIndex.build(snapshot);
+
+        ExpressionCacheService cache = new ExpressionCacheService(new RuleEngineProperties());
+        RuleExpression[][] expressions = new RuleExpression[ruleCount][];
+        for (int i = 0; i < ruleCount; i++) {
+            expressions[i] = new RuleExpression[] {
+                    cache.getExpression("benchmark", null, rules.get(i).getCondition()),
+                    cache.getExpression("benchmark", null, rules.get(i).getTransformation()) };
+        }
+
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            int group = i * 7919 % (ruleCount / RULES_PER_COUNTRY);
+            inputs.add(Map.of("country", "C" + group, "tier", TIERS[i % 2], "amount", group * 10 + i % 10));
+        }
+
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += runOnce(index, snapshot.getOutputLayout(), expressions, inputs.get(i & 63));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += runOnce(index, snapshot.getOutputLayout(), expressions, inputs.get(i & 63));
+        }
+        double nanosPerRun = (double) (System.nanoTime() - start) / iterations;
+
+        System.out.printf(Locale.ROOT, "%7d rules %10.1f ns/request (checksum %d)%n", ruleCount, nanosPerRun, sink);
+        return nanosPerRun;
+    }
+
+    private int runOnce(ConditionIndex index, OutputSlotLayout layout, RuleExpression[][] expressions,
+            Map<String, Object> input) {
+        RuleEvaluationContext context = contextService.createEvaluationContext(input, layout);
+        BitSet candidates = index.getCandidateRules(input);
+        int fired = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (Boolean.TRUE.equals(expressions[i][0].getValue(context, Boolean.class))) {
+                context.getScope().write(layout.getRuleSlot(i), expressions[i][1].getValue(context));
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,103 @@
+package com.rules.service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.service.ExpressionCacheService;
+import com.rules.service.service.RuleEvaluationContext;
+import com.rules.service.service.RuleExpression;
+import com.rules.service.service.SpelContextConfigurationService;
+
+/**
+ * Compares the expression engines on a representative ruleset. Excluded from
+ * the regular test run; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Expression engine benchmark")
+class ExpressionEngineBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    private static final String[][] RULES = {
+            { "age >= 18", "'adult'", "age_category" },
+            { "age >= 21 AND country == 'USA'", "'eligible_voter'", "voting" },
+            { "user.profile.age >= 18", "STRING_UPPERCASE(user.profile.name)", "profile_name" },
+            { "company.employees[0].performance.rating >= 4.0", "company.employees[0].salary * 1.1", "bonus" },
+            { "name.length() > 3", "STRING_CONCAT(name, ' - ', age_category)", "label" },
+            { "price > 100 OR age < 25", "price * 0.9 + 5", "discounted_price" },
+    };
+
+    private final Map<String, Object> input = Map.of(
+            "age", 25,
+            "country", "USA",
+            "name", "Alice",
+            "price", 120.0,
+            "user", Map.of("profile", Map.of("age", 30, "name", "alice")),
+            "company", Map.of("employees", List.of(
+                    Map.of("salary", 1000, "performance", Map.of("rating", 4.5)))));
+
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+
+    @Test
+    @DisplayName("Native engine outperforms interpreted SpEL")
+    void compareEngines() {
+        double spelInterpreted = measure("SpEL (interpreted)", RuleEngineProperties.Engine.SPEL, SpelCompilerMode.OFF);
+        double spelCompiled = measure("SpEL (compiled)", RuleEngineProperties.Engine.SPEL,
+                SpelCompilerMode.IMMEDIATE);
+        double nativeEngine = measure("Native", RuleEngineProperties.Engine.NATIVE, SpelCompilerMode.OFF);
+
+        System.out.printf(Locale.ROOT, "Native speed-up: %.2fx vs interpreted SpEL, %.2fx vs compiled SpEL%n",
+                spelInterpreted / nativeEngine, spelCompiled / nativeEngine);
+        assertThat(nativeEngine).isLessThan(spelInterpreted);
+    }
+
+    private double measure(String label, RuleEngineProperties.Engine engine, SpelCompilerMode compilerMode) {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.setEngine(engine);
+        properties.getSpel().setCompilerMode(compilerMode);
+        ExpressionCacheService cache = new ExpressionCacheService(properties);
+
+        List<RuleExpression[]> rules = new ArrayList<>();
+        for (String[] rule : RULES) {
+            rules.add(new RuleExpression[] {
+                    cache.getExpression("benchmark", null, rule[0]),
+                    cache.getExpression("benchmark", null, rule[1]) });
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += runOnce(rules);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += runOnce(rules);
+        }
+        double nanosPerRun = (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        System.out.printf(Locale.ROOT, "%-20s %10.1f ns/ruleset (checksum %d)%n", label, nanosPerRun, sink);
+        return nanosPerRun;
+    }
+
+    private int runOnce(List<RuleExpression[]> rules) {
+        RuleEvaluationContext context = contextService.createEvaluationContext(input);
+        int fired = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            RuleExpression[] rule = rules.get(i);
+            if (Boolean.TRUE.equals(rule[0].getValue(context, Boolean.class))) {
+                contextService.addOutputVariable(context, RULES[i][2], rule[1].getValue(context));
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
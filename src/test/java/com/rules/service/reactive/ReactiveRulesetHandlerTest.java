@@ -0,0 +1,199 @@
+package com.rules.service.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.BatchItemResult;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+import com.rules.service.service.BatchExecutionService;
+import com.rules.service.service.ExecutionTraceService;
+import com.rules.service.service.RuleExecutionService;
+import com.rules.service.service.RuleService;
+import com.rules.service.service.TestRuleEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ReactiveRulesetHandler Unit Tests")
+class ReactiveRulesetHandlerTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final RuleService ruleService = mock(RuleService.class);
+    private RuleExecutionService ruleExecutionService;
+    private BatchExecutionService batchExecutionService;
+    private ExecutionTraceService traceService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        properties.getBatch().setParallelism(2);
+        TestRuleEngine engine = new TestRuleEngine(properties);
+        traceService = engine.getTraceService();
+        ruleExecutionService = engine.ruleExecutionService(ruleService);
+        batchExecutionService = new BatchExecutionService(ruleExecutionService, new ObjectMapper(), properties,
+                new SimpleMeterRegistry());
+        client = WebTestClient.bindToRouterFunction(
+                new ReactiveRulesetHandler(ruleExecutionService, ruleService, batchExecutionService, traceService)
+                        .routes())
+                .handlerStrategies(ReactiveServer.handlerStrategies(new ObjectMapper(),
+                        properties.getReactive().getMaxInMemorySize()))
+                .configureClient()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+
+        Rule rule = new Rule();
+        rule.setCondition("age >= 18");
+        rule.setTransformation("'adult'");
+        rule.setOutputVariable("category");
+        rule.setRuleset("test_ruleset");
+        when(ruleService.getRuleset(any())).thenReturn(null);
+        when(ruleService.getRuleset(eq("test_ruleset"))).thenReturn(RulesetSnapshot.of("test_ruleset", 1,
+                List.of(rule)));
+        when(ruleService.getRuleCountForRuleset("test_ruleset")).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutionService.shutdown();
+        ruleExecutionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Single executions return outputs and stats")
+    void testExecuteRuleset() {
+        client.post().uri("/api/rulesets/execute")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("rulesetName", "test_ruleset", "inputData", Map.of("age", 30)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.outputVariables.category").isEqualTo("adult")
+                .jsonPath("$.stats.totalRules").isEqualTo(1);
+
+        client.post().uri("/api/rulesets/execute")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("rulesetName", "missing", "inputData", Map.of()))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Executions are traced when the request asks for it")
+    void testTraceHeader() {
+        client.post().uri("/api/rulesets/execute")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("rulesetName", "test_ruleset", "inputData", Map.of("age", 30)))
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(traceService.getTraces("test_ruleset", 10)).isEmpty();
+
+        client.post().uri("/api/rulesets/execute")
+                .header(ExecutionTraceService.TRACE_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("rulesetName", "test_ruleset", "inputData", Map.of("age", 12)))
+                .exchange()
+                .expectStatus().isOk();
+        client.post().uri("/api/rulesets/test_ruleset/execute-batch")
+                .header(ExecutionTraceService.TRACE_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("inputs", List.of(Map.of("age", 40))))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(traceService.getTraces("test_ruleset", 10))
+                .extracting(trace -> trace.getInput().get("age"), trace -> trace.getReason())
+                .containsExactly(tuple(40, "requested"), tuple(12, "requested"));
+    }
+
+    @Test
+    @DisplayName("Batches larger than the default codec buffer are read whole")
+    void testLargeBatch() {
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            inputs.add(Map.of("age", i % 100, "name", "customer-" + i));
+        }
+
+        client.post().uri("/api/rulesets/test_ruleset/execute-batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("inputs", inputs))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.length()").isEqualTo(10_000)
+                .jsonPath("$.results[9999].outputVariables.category").isEqualTo("adult");
+    }
+
+    @Test
+    @DisplayName("Batches return one result per input, in input order")
+    void testExecuteBatch() {
+        client.post().uri("/api/rulesets/test_ruleset/execute-batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("inputs", List.of(Map.of("age", 30), Map.of("age", 12), Map.of("age", "x"))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].outputVariables.category").isEqualTo("adult")
+                .jsonPath("$.results[1].index").isEqualTo(1)
+                .jsonPath("$.results[2].error").exists()
+                .jsonPath("$.failedItems").isEqualTo(1);
+
+        client.post().uri("/api/rulesets/test_ruleset/execute-batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client.post().uri("/api/rulesets/missing/execute-batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("inputs", List.of(Map.of())))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Newline-delimited inputs stream back one result each, invalid JSON last")
+    void testExecuteStream() {
+        List<BatchItemResult> results = client.post()
+                .uri("/api/rulesets/test_ruleset/execute-stream?requestedOutputs=category")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"age\": 25}\n[1]\n{\"age\": 12}\n{\"age\": \n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BatchItemResult.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(4);
+        assertThat(results.subList(0, 3)).extracting(BatchItemResult::getIndex).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(results).filteredOn(result -> result.getIndex() == 0).singleElement()
+                .extracting(BatchItemResult::getOutputVariables).isEqualTo(Map.of("category", "adult"));
+        assertThat(results).filteredOn(result -> result.getIndex() == 1).singleElement()
+                .extracting(BatchItemResult::getError).isEqualTo("Input is not a JSON object");
+        assertThat(results.get(3).getIndex()).isEqualTo(3);
+        assertThat(results.get(3).getError()).startsWith("Invalid JSON input: ");
+
+        client.post().uri("/api/rulesets/missing/execute-stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}\n")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
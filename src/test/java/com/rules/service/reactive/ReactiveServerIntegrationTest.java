@@ -0,0 +1,61 @@
+package com.rules.service.reactive;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.rules.service.dto.CreateRulesetRequest;
+import com.rules.service.dto.RuleRequest;
+import com.rules.service.service.RuleService;
+
+@SpringBootTest(properties = { "rules.reactive.enabled=true", "rules.reactive.port=0" })
+@ActiveProfiles("test")
+@DisplayName("Reactive Server Integration Tests")
+class ReactiveServerIntegrationTest {
+
+    @Autowired
+    private ReactiveServer reactiveServer;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Test
+    @DisplayName("Execution endpoints are served on the reactive port")
+    void testExecuteOnReactivePort() {
+        assertThat(reactiveServer.isRunning()).isTrue();
+        ruleService.createRuleset(new CreateRulesetRequest("reactive_test",
+                List.of(new RuleRequest("age >= 18 THEN 'adult'", "category"))));
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveServer.getPort())
+                .build();
+
+        client.post().uri("/api/rulesets/execute")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"rulesetName\": \"reactive_test\", \"inputData\": {\"age\": 30}}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.outputVariables.category").isEqualTo("adult")
+                .jsonPath("$.stats.totalRules").isEqualTo(1);
+
+        client.post().uri("/api/rulesets/reactive_test/execute-stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"age\": 12}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"index\":0,\"outputVariables\":{},\"error\":null}\n");
+
+        client.post().uri("/api/rulesets/execute")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"rulesetName\": \"missing\", \"inputData\": {}}")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,165 @@
+package com.rules.service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Fails when an execution of a representative ruleset allocates more than
+ * its budget in {@code allocation-budgets.properties}, in total per
+ * {@code executeRuleset} call or in one of its phases. Budgets are upper
+ * bounds on the mean bytes per execution once the JIT has compiled the
+ * hot paths; lower them when an optimization lands, so that it stays.
+ */
+@DisplayName("Allocation budgets")
+class AllocationBudgetTest {
+
+    private static final int WARMUP_EXECUTIONS = 20_000;
+    private static final int MEASURED_EXECUTIONS = 2_000;
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RulesetRegistry rulesetRegistry = new RulesetRegistry();
+    private RuleExecutionService ruleExecutionService;
+
+    static Stream<Arguments> rulesets() {
+        Map<String, Object> employee = Map.of(
+                "name", "Alice",
+                "department", "Engineering",
+                "salary", 100000,
+                "performance", Map.of("rating", 4.5, "projects", List.of("ProjectA", "ProjectB")));
+        List<Rule> mixed = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            mixed.add(switch (i % 5) {
+                case 0 -> rule("age >= " + (18 + i) + " AND country == 'USA'", "'eligible'", "eligible_" + i);
+                case 1 -> rule("name != null", "STRING_CONCAT('Welcome voter: ', name)", "welcome_" + i);
+                case 2 -> rule("customer.loyaltyPoints >= " + i * 10, "price - " + i, "final_price_" + i);
+                case 3 -> rule("order.quantity >= " + i % 20, "price * 0.95", "bulk_price_" + i);
+                default -> rule("customer.type == 'premium'", "price * 0." + (50 + i), "discounted_" + i);
+            });
+        }
+        return Stream.of(
+                Arguments.of("eligibility", List.of(
+                        rule("age >= 18", "'adult'", "status"),
+                        rule("status == 'adult' AND country == 'USA'", "'eligible'", "voting_eligibility"),
+                        rule("voting_eligibility == 'eligible'", "STRING_CONCAT('Welcome voter: ', name)",
+                                "welcome_message")),
+                        Map.of("age", 25, "country", "USA", "name", "Alice")),
+                Arguments.of("pricing", List.of(
+                        rule("customer.type == 'premium'", "price * 0.9", "discounted_price"),
+                        rule("order.quantity >= 10", "discounted_price * 0.95", "bulk_discount_price"),
+                        rule("customer.loyaltyPoints >= 1000", "bulk_discount_price - 50", "final_price")),
+                        Map.of("price", 200.0, "customer", Map.of("type", "premium", "loyaltyPoints", 1500),
+                                "order", Map.of("quantity", 12))),
+                Arguments.of("employees", List.of(
+                        rule("company.employees[0].performance.rating >= 4.0",
+                                "company.employees[0].salary * 1.1", "bonus_salary"),
+                        rule("company.employees[0].performance.projects.size() >= 2", "'high_performer'",
+                                "performance_category")),
+                        Map.of("company", Map.of("employees", List.of(employee)))),
+                Arguments.of("mixed", mixed,
+                        Map.of("age", 40, "country", "USA", "name", "Bob", "price", 120.0,
+                                "customer", Map.of("type", "premium", "loyaltyPoints", 300),
+                                "order", Map.of("quantity", 7))));
+    }
+
+    private static Rule rule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        return rule;
+    }
+
+    private static Properties loadBudgets() throws IOException {
+        Properties budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+        return budgets;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ruleExecutionService != null) {
+            ruleExecutionService.shutdown();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("rulesets")
+    @DisplayName("Executions stay within their allocation budget")
+    void testAllocationBudget(String name, List<Rule> rules, Map<String, Object> input) throws IOException {
+        assumeTrue(AllocationMeter.allocatedBytes() != AllocationMeter.UNSUPPORTED,
+                "Thread allocations are not measured on this JVM");
+        Properties budgets = loadBudgets();
+        properties.getMetrics().setAllocationSampleRate(1);
+        properties.getMetrics().setRuleSampleRate(0);
+        TestRuleEngine engine = new TestRuleEngine(properties, meterRegistry);
+        ruleExecutionService = engine.ruleExecutionService(engine.ruleService(rulesetRegistry));
+        rules.forEach(rule -> rule.setRuleset(name));
+        rulesetRegistry.publish(name, rules);
+
+        for (int i = 0; i < WARMUP_EXECUTIONS; i++) {
+            ruleExecutionService.executeRuleset(name, input);
+        }
+        Map<String, double[]> before = phaseTotals(name);
+        long allocated = AllocationMeter.measure(() -> {
+            for (int i = 0; i < MEASURED_EXECUTIONS; i++) {
+                ruleExecutionService.executeRuleset(name, input);
+            }
+        });
+        Map<String, double[]> after = phaseTotals(name);
+
+        Map<String, Long> measured = new HashMap<>();
+        measured.put("total", allocated / MEASURED_EXECUTIONS);
+        after.forEach((phase, totals) -> {
+            double[] previous = before.get(phase);
+            measured.put(phase, Math.round((totals[1] - previous[1]) / (totals[0] - previous[0])));
+        });
+
+        List<String> exceeded = new ArrayList<>();
+        measured.forEach((part, bytes) -> {
+            String budget = budgets.getProperty(name + "." + part);
+            assertThat(budget).as("Budget %s.%s", name, part).isNotNull();
+            if (bytes > Long.parseLong(budget.trim())) {
+                exceeded.add(String.format(Locale.ROOT, "%s: %d bytes, budget %s", part, bytes, budget.trim()));
+            }
+        });
+        assertThat(exceeded).as("Allocation budgets of %s exceeded, bytes per execution: %s", name, measured)
+                .isEmpty();
+    }
+
+    /**
+     * Count and total bytes recorded so far for each phase
+     */
+    private Map<String, double[]> phaseTotals(String name) {
+        Map<String, double[]> totals = new HashMap<>();
+        for (DistributionSummary summary : meterRegistry.get("rules.execution.phase.allocation")
+                .tag("ruleset", name).summaries()) {
+            totals.put(summary.getId().getTag("phase"), new double[] { summary.count(), summary.totalAmount() });
+        }
+        return totals;
+    }
+}
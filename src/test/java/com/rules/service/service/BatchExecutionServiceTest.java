@@ -0,0 +1,343 @@
+package com.rules.service.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.BatchItemResult;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@DisplayName("BatchExecutionService Unit Tests")
+class BatchExecutionServiceTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final RuleService ruleService = mock(RuleService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RuleExecutionService ruleExecutionService;
+    private final BatchExecutionService batchExecutionService;
+
+    BatchExecutionServiceTest() {
+        properties.getBatch().setParallelism(4);
+        properties.getBatch().setMaxInFlight(16);
+        ruleExecutionService = new TestRuleEngine(properties).ruleExecutionService(ruleService);
+        batchExecutionService = new BatchExecutionService(ruleExecutionService, new ObjectMapper(), properties,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutionService.shutdown();
+    }
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    @Test
+    @DisplayName("Batch results match executing every input on its own, in input order")
+    void testMatchesSingleExecutions() {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"),
+                createRule("true", "age * 2", "doubled"),
+                createRule("category == 'adult'", "doubled + 1", "score"))));
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            inputs.add(Map.of("age", i % 40));
+        }
+
+        List<BatchItemResult> results = batchExecutionService.executeBatch("test_ruleset", inputs, null);
+
+        assertThat(results).hasSize(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            assertThat(results.get(i).getIndex()).isEqualTo(i);
+            assertThat(results.get(i).getError()).isNull();
+            assertThat(results.get(i).getOutputVariables())
+                    .isEqualTo(ruleExecutionService.executeRuleset("test_ruleset", inputs.get(i)));
+        }
+        // Resolved once for the whole batch, then once per single execution
+        verify(ruleService, times(1 + inputs.size())).getRuleset("test_ruleset");
+    }
+
+    @Test
+    @DisplayName("A failing input is reported without affecting the others")
+    void testPerItemErrors() {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "name.length()", "length"))));
+        Map<String, Object> withoutName = new HashMap<>();
+        withoutName.put("name", null);
+
+        List<BatchItemResult> results = batchExecutionService.executeBatch("test_ruleset",
+                List.of(Map.of("name", "alice"), withoutName, Map.of("name", "bob")), List.of("length"));
+
+        assertThat(results).extracting(BatchItemResult::getOutputVariables)
+                .containsExactly(Map.of("length", 5), null, Map.of("length", 3));
+        assertThat(results.get(1).getError()).startsWith("Error executing rule");
+    }
+
+    @Test
+    @DisplayName("Batches can run on virtual threads")
+    void testVirtualThreads() {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"))));
+        properties.getBatch().setVirtualThreads(true);
+        BatchExecutionService virtualBatchExecutionService = new BatchExecutionService(ruleExecutionService,
+                new ObjectMapper(), properties, new SimpleMeterRegistry());
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(Map.of("age", i));
+        }
+
+        try {
+            List<BatchItemResult> results = virtualBatchExecutionService.executeBatch("test_ruleset", inputs, null);
+
+            assertThat(results).hasSize(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                assertThat(results.get(i).getIndex()).isEqualTo(i);
+            }
+            assertThat(results.get(17).getOutputVariables()).isEmpty();
+            assertThat(results.get(18).getOutputVariables()).isEqualTo(Map.of("category", "adult"));
+        } finally {
+            virtualBatchExecutionService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown rulesets fail the whole batch")
+    void testUnknownRuleset() {
+        assertThatThrownBy(() -> batchExecutionService.executeBatch("missing", List.of(Map.of()), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Streamed inputs produce one result line each, tagged with their position")
+    void testStream() throws IOException {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "name.length()", "length"))));
+        String body = """
+                {"name": "alice"}
+                {"name": null}
+
+                [1, 2]
+                {"name": "bob"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        BatchExecutionService.StreamSummary summary = batchExecutionService.executeStream("test_ruleset", null,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+        Map<Integer, BatchItemResult> results = readResults(output);
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).getOutputVariables()).isEqualTo(Map.of("length", 5));
+        assertThat(results.get(1).getError()).startsWith("Error executing rule");
+        assertThat(results.get(2).getError()).isEqualTo("Input is not a JSON object");
+        assertThat(results.get(3).getOutputVariables()).isEqualTo(Map.of("length", 3));
+        assertThat(summary.inputs()).isEqualTo(4);
+        assertThat(summary.failed()).isEqualTo(2);
+        assertThat(meterRegistry.get("rules.stream.inputs").functionCounter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Invalid JSON ends the stream with an error for its position")
+    void testStreamInvalidJson() throws IOException {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "1", "one"))));
+        String body = "{}\n{}\n{\"broken\n{}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        batchExecutionService.executeStream("test_ruleset", null,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+        Map<Integer, BatchItemResult> results = readResults(output);
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getOutputVariables()).isEqualTo(Map.of("one", 1));
+        assertThat(results.get(1).getOutputVariables()).isEqualTo(Map.of("one", 1));
+        assertThat(results.get(2).getError()).startsWith("Invalid JSON input");
+    }
+
+    @Test
+    @DisplayName("Reading pauses while results cannot be written")
+    void testStreamBackpressure() throws Exception {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "n * 2", "doubled"))));
+        int inputCount = 5_000;
+        CountingInput input = new CountingInput(inputCount);
+        BlockingOutput output = new BlockingOutput();
+
+        CompletableFuture<BatchExecutionService.StreamSummary> stream = CompletableFuture.supplyAsync(() -> {
+            try {
+                return batchExecutionService.executeStream("test_ruleset", null, input, output);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(output.firstWrite.await(10, TimeUnit.SECONDS)).isTrue();
+        // Give the reader time to run ahead if nothing held it back
+        Thread.sleep(200);
+        // The in-flight inputs, plus what the parser buffers ahead of them
+        assertThat(input.records.get()).isLessThan(1_500);
+
+        output.release.countDown();
+        BatchExecutionService.StreamSummary summary = stream.get(30, TimeUnit.SECONDS);
+
+        assertThat(summary.inputs()).isEqualTo(inputCount);
+        assertThat(summary.failed()).isZero();
+        Map<Integer, BatchItemResult> results = readResults(output.buffer);
+        assertThat(results).hasSize(inputCount);
+        assertThat(results.get(1234).getOutputVariables()).isEqualTo(Map.of("doubled", 2468));
+    }
+
+    @Test
+    @DisplayName("A client that stopped reading does not hold up the threads of the pool")
+    void testStreamWritesOffPool() throws Exception {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "n * 2", "doubled"))));
+        BlockingOutput output = new BlockingOutput();
+        CompletableFuture<BatchExecutionService.StreamSummary> stream = CompletableFuture.supplyAsync(() -> {
+            try {
+                return batchExecutionService.executeStream("test_ruleset", null, new CountingInput(1_000), output);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(output.firstWrite.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(Map.of("n", i));
+        }
+        List<BatchItemResult> results = CompletableFuture
+                .supplyAsync(() -> batchExecutionService.executeBatch("test_ruleset", inputs, null))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(results).hasSize(100);
+        output.release.countDown();
+        assertThat(stream.get(30, TimeUnit.SECONDS).inputs()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Reactive streams request inputs only as results are consumed")
+    void testReactiveStreamBackpressure() {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "n * 2", "doubled"))));
+        int inputCount = 1_000;
+        AtomicLong emitted = new AtomicLong();
+        Flux<Map<String, Object>> inputs = Flux.range(0, inputCount)
+                .doOnNext(n -> emitted.incrementAndGet())
+                .map(n -> Map.of("n", n));
+
+        StepVerifier.create(batchExecutionService.executeStream("test_ruleset", null, inputs), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .expectNextCount(10)
+                // The consumed results, plus at most max-in-flight inputs ahead of them
+                .then(() -> assertThat(emitted.get()).isLessThanOrEqualTo(10 + 16))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(inputCount - 10)
+                .verifyComplete();
+
+        assertThat(emitted.get()).isEqualTo(inputCount);
+        assertThat(meterRegistry.get("rules.stream.inputs").functionCounter().count()).isEqualTo(inputCount);
+    }
+
+    private Map<Integer, BatchItemResult> readResults(ByteArrayOutputStream output) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<Integer, BatchItemResult> results = new HashMap<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            BatchItemResult result = objectMapper.readValue(line, BatchItemResult.class);
+            assertThat(results.put(result.getIndex(), result)).isNull();
+        }
+        return results;
+    }
+
+    /**
+     * Generates {"n": i} lines on demand, counting how many were read
+     */
+    private static final class CountingInput extends InputStream {
+        private final int count;
+        private final AtomicLong records = new AtomicLong();
+        private byte[] line = new byte[0];
+        private int position;
+
+        CountingInput(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                long next = records.get();
+                if (next == count) {
+                    return -1;
+                }
+                line = ("{\"n\": " + next + "}\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                records.incrementAndGet();
+            }
+            return line[position++];
+        }
+    }
+
+    /**
+     * Blocks every write until released, as a client that stopped reading
+     */
+    private static final class BlockingOutput extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final CountDownLatch firstWrite = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            firstWrite.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            synchronized (buffer) {
+                buffer.write(b, off, len);
+            }
+        }
+    }
+}
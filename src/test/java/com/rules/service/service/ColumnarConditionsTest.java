@@ -0,0 +1,156 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.BatchItemResult;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ColumnarConditions Unit Tests")
+class ColumnarConditionsTest {
+
+    private final RuleService ruleService = mock(RuleService.class);
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private static Map<String, Object> input(Object... entries) {
+        Map<String, Object> input = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            input.put((String) entries[i], entries[i + 1]);
+        }
+        return input;
+    }
+
+    @Test
+    @DisplayName("Conditions are decided where every test they evaluate is exact")
+    void testDecisions() {
+        ColumnarConditions conditions = ColumnarConditions.build(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18 && country == 'DE'", "1", "a"),
+                createRule("age < 18 or vip", "2", "b"),
+                createRule("age >= 18 && name.length() > 3", "3", "c"),
+                createRule("name.length() > 3", "4", "d"),
+                createRule("country != 'DE' and a == 1", "5", "e"))));
+
+        ColumnarConditions.Block block = conditions.evaluate(List.of(
+                input("age", 30, "country", "DE", "vip", false),
+                input("age", 12.5, "country", "FR"),
+                input("age", "thirty", "country", "DE", "vip", true),
+                input("country", null, "vip", "yes")));
+
+        // Only the fourth rule has nothing but opaque parts
+        assertThat(conditions.getColumnarRuleCount()).isEqualTo(4);
+        // age >= 18, country == 'DE', which != negates, age < 18 and vip
+        assertThat(conditions.getTestCount()).isEqualTo(4);
+
+        assertThat(valuesOf(block, 0, 4)).containsExactly(true, false, null, false);
+        // A string age fails to compare, a missing age is null and so below 18
+        assertThat(valuesOf(block, 1, 4)).containsExactly(false, true, null, true);
+        // Undecided where the opaque operand is evaluated
+        assertThat(valuesOf(block, 2, 4)).containsExactly(null, false, null, false);
+        assertThat(valuesOf(block, 3, 4)).containsExactly(null, null, null, null);
+        // a is written by a rule, so it is never tested
+        assertThat(valuesOf(block, 4, 4)).containsExactly(false, null, false, null);
+    }
+
+    private static List<Boolean> valuesOf(ColumnarConditions.Block block, int rule, int rows) {
+        List<Boolean> values = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            values.add(block.row(row).valueOf(rule));
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Columnar batches produce the same outputs and failures as executing every input")
+    void testMatchesSingleExecutions() {
+        String[] tests = { "age > 30", "age <= 45", "30 < age", "country == 'DE'", "country != 'FR'", "flag",
+                "score < 5", "score == 3", "nothing.foo > 1", "age < 50", "total > 100", "label == 'x'",
+                "true", "false", "amount >= 2.5", "missing == null" };
+        Random random = new Random(7);
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String condition = randomCondition(random, tests, 3);
+            switch (i % 4) {
+                case 0 -> rules.add(createRule(condition, "score + " + i, "total"));
+                case 1 -> rules.add(createRule(condition, i % 3 == 0 ? "'x'" : "'y'", "label"));
+                default -> rules.add(createRule(condition, "'r" + i + "'", "out" + (i % 5)));
+            }
+        }
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, rules));
+
+        Object[] ages = { 12, 30, 31, 45, 60, 30.0, 44.5, Double.NaN, 40L, 1L << 60, 33.0f, "40", null };
+        Object[] flags = { true, false, null, "true", 1 };
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Map<String, Object> input = new HashMap<>();
+            input.put("age", ages[random.nextInt(ages.length)]);
+            if (random.nextInt(10) > 0) {
+                input.put("country", random.nextBoolean() ? "DE" : random.nextBoolean() ? "FR" : null);
+            }
+            input.put("flag", flags[random.nextInt(flags.length)]);
+            input.put("score", random.nextInt(10));
+            input.put("amount", random.nextInt(3) == 0 ? "high" : random.nextDouble() * 5);
+            inputs.add(i % 500 == 0 ? null : input);
+        }
+
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.getBatch().setParallelism(2);
+        RuleExecutionService ruleExecutionService = new TestRuleEngine(properties).ruleExecutionService(ruleService);
+        BatchExecutionService batchExecutionService = new BatchExecutionService(ruleExecutionService,
+                new ObjectMapper(), properties, new SimpleMeterRegistry());
+        try {
+            List<BatchItemResult> results = batchExecutionService.executeBatch("test_ruleset", inputs, null);
+
+            int failures = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                BatchItemResult result = results.get(i);
+                try {
+                    Map<String, Object> expected = ruleExecutionService.executeRuleset("test_ruleset",
+                            inputs.get(i));
+                    assertThat(result.getError()).as("input %d", i).isNull();
+                    assertThat(result.getOutputVariables()).as("input %d", i).isEqualTo(expected);
+                } catch (RuntimeException e) {
+                    assertThat(result.getError()).as("input %d", i).isEqualTo(e.getMessage());
+                    failures++;
+                }
+            }
+            // Both outcomes are covered
+            assertThat(failures).isBetween(1, inputs.size() - 1);
+        } finally {
+            batchExecutionService.shutdown();
+        }
+    }
+
+    private String randomCondition(Random random, String[] tests, int depth) {
+        int choice = depth == 0 ? 0 : random.nextInt(5);
+        return switch (choice) {
+            case 1 -> randomCondition(random, tests, depth - 1) + " && " + randomCondition(random, tests, depth - 1);
+            case 2 -> "(" + randomCondition(random, tests, depth - 1) + " or "
+                    + randomCondition(random, tests, depth - 1) + ")";
+            case 3 -> "!(" + randomCondition(random, tests, depth - 1) + ")";
+            default -> tests[random.nextInt(tests.length)];
+        };
+    }
+}
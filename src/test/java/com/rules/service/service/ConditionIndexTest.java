@@ -0,0 +1,234 @@
+package com.rules.service.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("ConditionIndex Unit Tests")
+class ConditionIndexTest {
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    @Test
+    @DisplayName("Finds the leading equality predicate of a condition")
+    void testFindsIndexPredicate() {
+        assertThat(ConditionAnalyzer.findIndexPredicate("country == 'DE' && tier == 'GOLD'"))
+                .isEqualTo(new ConditionAnalyzer.EqualityPredicate("country", "DE"));
+        assertThat(ConditionAnalyzer.findIndexPredicate("'DE' == country AND age > 18"))
+                .isEqualTo(new ConditionAnalyzer.EqualityPredicate("country", "DE"));
+        assertThat(ConditionAnalyzer.findIndexPredicate("(code eq 42 and a) and b"))
+                .isEqualTo(new ConditionAnalyzer.EqualityPredicate("code", 42L));
+        assertThat(ConditionAnalyzer.findIndexPredicate("active == true"))
+                .isEqualTo(new ConditionAnalyzer.EqualityPredicate("active", true));
+        assertThat(ConditionAnalyzer.findIndexPredicate("level == 3.0"))
+                .isEqualTo(new ConditionAnalyzer.EqualityPredicate("level", 3L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "name > 'a' AND country == 'DE'", "country == 'DE' OR tier == 'GOLD'", "user.age > 18",
+            "amount > 1.5f", "age > limit", "age > 9007199254740993L", "user.country == 'DE'",
+            "#country == 'DE'", "country != 'DE'", "country == null", "rate == 1.5", "country == other",
+            "!(country == 'DE')", "country =="
+    })
+    @DisplayName("Other conditions are not indexed")
+    void testNotIndexable(String condition) {
+        assertThat(ConditionAnalyzer.findIndexPredicate(condition)).isNull();
+    }
+
+    @Test
+    @DisplayName("Finds the leading range of a condition")
+    void testFindsRangePredicate() {
+        assertThat(ConditionAnalyzer.findIndexPredicate("age >= 18 && age < 25 && country == 'DE'"))
+                .isEqualTo(new ConditionAnalyzer.RangePredicate("age", 18, true, 25, false));
+        assertThat(ConditionAnalyzer.findIndexPredicate("amount > 1000"))
+                .isEqualTo(new ConditionAnalyzer.RangePredicate("amount", 1000, false,
+                        Double.POSITIVE_INFINITY, false));
+        assertThat(ConditionAnalyzer.findIndexPredicate("18 <= age and age le 2.5"))
+                .isEqualTo(new ConditionAnalyzer.RangePredicate("age", 18, true, 2.5, true));
+        assertThat(ConditionAnalyzer.findIndexPredicate("balance < -10 AND limit > 0 AND balance > -20"))
+                .isEqualTo(new ConditionAnalyzer.RangePredicate("balance", Double.NEGATIVE_INFINITY, false,
+                        -10, false));
+        assertThat(ConditionAnalyzer.findIndexPredicate("age > 30 && age > 20 && age <= 40"))
+                .isEqualTo(new ConditionAnalyzer.RangePredicate("age", 30, false, 40, true));
+    }
+
+    @Test
+    @DisplayName("Range keys compare exactly as SpEL compares with numeric constants")
+    void testRangeKeys() {
+        assertThat(ConditionAnalyzer.rangeKeyOf(42)).isEqualTo(42.0);
+        assertThat(ConditionAnalyzer.rangeKeyOf(42L)).isEqualTo(42.0);
+        assertThat(ConditionAnalyzer.rangeKeyOf(-0.0)).isEqualTo(0.0);
+        assertThat(ConditionAnalyzer.rangeKeyOf(null)).isNull();
+        assertThat(ConditionAnalyzer.rangeKeyOf(Double.NaN)).isSameAs(ConditionAnalyzer.NO_MATCH);
+        assertThat(ConditionAnalyzer.rangeKeyOf(new BigDecimal("0.1"))).isSameAs(ConditionAnalyzer.UNKNOWN);
+        assertThat(ConditionAnalyzer.rangeKeyOf(1.5f)).isSameAs(ConditionAnalyzer.UNKNOWN);
+        assertThat(ConditionAnalyzer.rangeKeyOf(Long.MAX_VALUE)).isSameAs(ConditionAnalyzer.UNKNOWN);
+        assertThat(ConditionAnalyzer.rangeKeyOf("42")).isSameAs(ConditionAnalyzer.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Keys are equal exactly when SpEL equality holds")
+    void testKeys() {
+        assertThat(ConditionAnalyzer.keyOf(42)).isEqualTo(42L);
+        assertThat(ConditionAnalyzer.keyOf(42L)).isEqualTo(42L);
+        assertThat(ConditionAnalyzer.keyOf(42.0)).isEqualTo(42L);
+        assertThat(ConditionAnalyzer.keyOf(new BigDecimal("42.00"))).isEqualTo(42L);
+        assertThat(ConditionAnalyzer.keyOf(BigInteger.valueOf(42))).isEqualTo(42L);
+        assertThat(ConditionAnalyzer.keyOf(new StringBuilder("DE"))).isEqualTo("DE");
+        assertThat(ConditionAnalyzer.keyOf(42.5)).isSameAs(ConditionAnalyzer.NO_MATCH);
+        assertThat(ConditionAnalyzer.keyOf(null)).isSameAs(ConditionAnalyzer.NO_MATCH);
+        assertThat(ConditionAnalyzer.keyOf(List.of())).isSameAs(ConditionAnalyzer.NO_MATCH);
+        assertThat(ConditionAnalyzer.keyOf(42f)).isSameAs(ConditionAnalyzer.UNKNOWN);
+        assertThat(ConditionAnalyzer.keyOf(Long.MAX_VALUE)).isSameAs(ConditionAnalyzer.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Candidates are the matching indexed rules and all unindexed rules")
+    void testCandidates() {
+        ConditionIndex index = ConditionIndex.build(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("country == 'DE' AND tier == 'GOLD'", "1", "a"),   // 0
+                createRule("country == 'FR'", "2", "b"),                      // 1
+                createRule("name > 'a'", "3", "c"),                           // 2
+                createRule("tier == 'GOLD'", "4", "d"),                       // 3
+                createRule("c == 3", "5", "e"),                               // 4 reads an output
+                createRule("code == 7", "6", "f"))));                         // 5
+
+        assertThat(index.getIndexedRuleCount()).isEqualTo(4);
+        assertThat(index.getIndexedFieldCount()).isEqualTo(3);
+        assertThat(index.getCandidateRules(Map.of("country", "DE", "tier", "SILVER", "code", 7.0)).stream()
+                .toArray()).containsExactly(0, 2, 4, 5);
+        assertThat(index.getCandidateRules(Map.of("tier", "GOLD", "code", 7.5f)).stream().toArray())
+                .containsExactly(2, 3, 4, 5);
+        assertThat(index.getCandidateRules(Map.of()).stream().toArray()).containsExactly(2, 4);
+    }
+
+    @Test
+    @DisplayName("Range candidates are the rules whose range contains the value")
+    void testRangeCandidates() {
+        ConditionIndex index = ConditionIndex.build(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18 && age < 25", "1", "a"),                // 0
+                createRule("age >= 25 && age < 65", "2", "b"),                // 1
+                createRule("age < 18", "3", "c"),                             // 2
+                createRule("age > 65 && age < 60", "4", "d"),                 // 3 never true
+                createRule("amount > 1000", "5", "e"),                        // 4
+                createRule("age == 30", "6", "f"))));                         // 5
+
+        assertThat(index.getIndexedRuleCount()).isEqualTo(6);
+        assertThat(index.getIndexedFieldCount()).isEqualTo(2);
+        assertThat(index.getCandidateRules(Map.of("age", 18, "amount", 1000.5)).stream().toArray())
+                .containsExactly(0, 4);
+        assertThat(index.getCandidateRules(Map.of("age", 30L, "amount", 1000)).stream().toArray())
+                .containsExactly(1, 5);
+        assertThat(index.getCandidateRules(Map.of("age", 17.5)).stream().toArray()).containsExactly(2);
+        assertThat(index.getCandidateRules(Map.of()).stream().toArray()).containsExactly(2);
+        assertThat(index.getCandidateRules(Map.of("age", Double.NaN)).stream().toArray()).isEmpty();
+        assertThat(index.getCandidateRules(Map.of("age", "old", "amount", new BigDecimal("2000"))).stream()
+                .toArray()).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("Interval tree finds the same ranges as scanning them")
+    void testIntervalIndexMatchesScan() {
+        Random random = new Random(7);
+        List<ConditionAnalyzer.RangePredicate> ranges = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double lower = random.nextInt(10) == 0 ? Double.NEGATIVE_INFINITY : random.nextInt(1000);
+            double upper = random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : random.nextInt(1050);
+            ranges.add(new ConditionAnalyzer.RangePredicate("x", lower, random.nextBoolean(), upper,
+                    random.nextBoolean()));
+        }
+        ranges.removeIf(ConditionAnalyzer.RangePredicate::isEmpty);
+        IntervalIndex index = new IntervalIndex(ranges, IntStream.range(0, ranges.size()).toArray());
+
+        for (int i = 0; i < 500; i++) {
+            double value = random.nextInt(2200) / 2.0 - 50;
+            BitSet expected = new BitSet();
+            for (int r = 0; r < ranges.size(); r++) {
+                if (ranges.get(r).contains(value)) {
+                    expected.set(r);
+                }
+            }
+            BitSet actual = new BitSet();
+            index.collect(value, actual);
+            assertThat(actual).as("value %s", value).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Indexed execution produces the same outputs as evaluating every rule")
+    void testMatchesUnindexedExecution() {
+        String[] countries = { "DE", "FR", "US", "IT" };
+        String[] tiers = { "GOLD", "SILVER", "BRONZE" };
+        Random random = new Random(42);
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String country = countries[random.nextInt(countries.length)];
+            String tier = tiers[random.nextInt(tiers.length)];
+            int bound = random.nextInt(60) - 5;
+            switch (i % 6) {
+                case 0 -> rules.add(createRule("country == '" + country + "' && tier == '" + tier + "'",
+                        "'" + country + tier + i + "'", "match" + (i % 25)));
+                case 1 -> rules.add(createRule("score == " + (i % 10) + " AND age > 18",
+                        "score * " + i, "score" + (i % 7)));
+                case 2 -> rules.add(createRule("age > " + (i % 50), "age + " + i, "age" + (i % 5)));
+                case 3 -> rules.add(createRule("age >= " + bound + " && " + (bound + i % 15) + " > age AND score < 8",
+                        "'band" + i + "'", "band" + (i % 9)));
+                case 4 -> rules.add(createRule("amount <= " + bound + ".5", "amount", "low" + (i % 4)));
+                default -> rules.add(createRule("'" + tier + "' == tier", "match" + (i % 25), "copy" + (i % 3)));
+            }
+        }
+        RuleService ruleService = mock(RuleService.class);
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, rules));
+
+        for (int request = 0; request < 50; request++) {
+            Map<String, Object> input = new HashMap<>();
+            input.put("country", countries[random.nextInt(countries.length)]);
+            input.put("tier", tiers[random.nextInt(tiers.length)]);
+            input.put("score", random.nextBoolean() ? random.nextInt(12) : (double) random.nextInt(12));
+            input.put("age", random.nextInt(60));
+            switch (random.nextInt(5)) {
+                case 0 -> input.put("amount", null);
+                case 1 -> input.put("amount", new BigDecimal(random.nextInt(60) + ".5"));
+                case 2 -> input.put("amount", random.nextInt(60) - 5.5);
+                case 3 -> input.put("amount", (long) random.nextInt(60));
+                default -> { }
+            }
+
+            assertThat(execute(ruleService, input, true)).isEqualTo(execute(ruleService, input, false));
+        }
+    }
+
+    private Map<String, Object> execute(RuleService ruleService, Map<String, Object> input, boolean indexed) {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.getConditionIndex().setEnabled(indexed);
+        return new TestRuleEngine(properties).ruleExecutionService(ruleService)
+                .executeRuleset("test_ruleset", input);
+    }
+}
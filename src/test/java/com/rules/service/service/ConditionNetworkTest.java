@@ -0,0 +1,146 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("ConditionNetwork Unit Tests")
+class ConditionNetworkTest {
+
+    private final RuleService ruleService = mock(RuleService.class);
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private void useRules(List<Rule> rules) {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, rules));
+    }
+
+    private Map<String, Object> execute(RuleEngineProperties.ExecutionMode mode, Map<String, Object> input,
+            boolean nullSafe) {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.setExecutionMode(mode);
+        return new TestRuleEngine(properties).ruleExecutionService(ruleService)
+                .executeRuleset("test_ruleset", input, nullSafe);
+    }
+
+    /**
+     * Outputs of an execution, or the message of its failure
+     */
+    private Object outcome(RuleEngineProperties.ExecutionMode mode, Map<String, Object> input, boolean nullSafe) {
+        try {
+            return execute(mode, input, nullSafe);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    @DisplayName("Identical sub-conditions are compiled into shared nodes")
+    void testSharesSubConditions() {
+        ConditionNetwork network = ConditionNetwork.build(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("kyc.verified == true && amount > 100", "1", "a"),
+                createRule("kyc.verified == true AND amount > 500", "2", "b"),
+                createRule("(kyc.verified == true) && (amount > 100)", "3", "c"),
+                createRule("!(kyc.verified == true) or score < 3", "4", "d"),
+                createRule("a > 1", "5", "e"))), new ExpressionCacheService(new RuleEngineProperties()));
+
+        // Tests: verified, amount > 100, amount > 500, score < 3, a > 1;
+        // joins: two ANDs, the NOT and the OR
+        assertThat(network.getOccurrenceCount()).isEqualTo(14);
+        assertThat(network.getNodeCount()).isEqualTo(9);
+        // a is written by a rule
+        assertThat(network.getSharedNodeCount()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("A shared test is evaluated once per execution")
+    void testSharedTestEvaluatedOnce() {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rules.add(createRule("kyc.verified && amount > " + i * 10, "'tier" + i + "'", "tier"));
+        }
+        useRules(rules);
+
+        Kyc network = new Kyc();
+        Map<String, Object> outputs = execute(RuleEngineProperties.ExecutionMode.NETWORK,
+                Map.of("kyc", network, "amount", 55), true);
+        Kyc perRule = new Kyc();
+        execute(RuleEngineProperties.ExecutionMode.PER_RULE, Map.of("kyc", perRule, "amount", 55), true);
+
+        assertThat(outputs).containsEntry("tier", "tier5");
+        assertThat(network.reads).isEqualTo(1);
+        assertThat(perRule.reads).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Network execution produces the same outputs and failures as evaluating every condition")
+    void testMatchesPerRuleExecution() {
+        String[] tests = { "age > 30", "age <= 45", "country == 'DE'", "country != 'FR'", "flag", "score < 5",
+                "nothing.foo > 1", "nested.count >= 2", "age < 50", "total > 100", "label == 'x'", "missing == null" };
+        Random random = new Random(11);
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String condition = randomCondition(random, tests, 3);
+            switch (i % 4) {
+                case 0 -> rules.add(createRule(condition, "age + " + i, "total"));
+                case 1 -> rules.add(createRule(condition, i % 3 == 0 ? "'x'" : "'y'", "label"));
+                default -> rules.add(createRule(condition, "'r" + i + "'", "out" + (i % 5)));
+            }
+        }
+        useRules(rules);
+
+        for (int request = 0; request < 60; request++) {
+            Map<String, Object> input = new HashMap<>();
+            input.put("age", random.nextInt(60));
+            input.put("country", random.nextBoolean() ? "DE" : "FR");
+            input.put("flag", random.nextInt(8) == 0 ? null : random.nextBoolean());
+            input.put("score", random.nextInt(10));
+            input.put("nothing", null);
+            input.put("nested", random.nextBoolean() ? Map.of("count", random.nextInt(4)) : null);
+            boolean nullSafe = request % 3 != 0;
+
+            assertThat(outcome(RuleEngineProperties.ExecutionMode.NETWORK, input, nullSafe))
+                    .isEqualTo(outcome(RuleEngineProperties.ExecutionMode.PER_RULE, input, nullSafe));
+        }
+    }
+
+    private String randomCondition(Random random, String[] tests, int depth) {
+        int choice = depth == 0 ? 0 : random.nextInt(5);
+        return switch (choice) {
+            case 1 -> randomCondition(random, tests, depth - 1) + " && " + randomCondition(random, tests, depth - 1);
+            case 2 -> "(" + randomCondition(random, tests, depth - 1) + " or "
+                    + randomCondition(random, tests, depth - 1) + ")";
+            case 3 -> "!(" + randomCondition(random, tests, depth - 1) + ")";
+            default -> tests[random.nextInt(tests.length)];
+        };
+    }
+
+    public static class Kyc {
+        private int reads;
+
+        public boolean isVerified() {
+            reads++;
+            return true;
+        }
+    }
+}
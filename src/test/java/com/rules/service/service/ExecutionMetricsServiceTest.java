@@ -0,0 +1,152 @@
+package com.rules.service.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ExecutionMetricsService Unit Tests")
+class ExecutionMetricsServiceTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final RuleService ruleService = mock(RuleService.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private RuleExecutionService createService() {
+        return new TestRuleEngine(properties, registry).ruleExecutionService(ruleService);
+    }
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private double count(String name, String... tags) {
+        return registry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    @DisplayName("Executions are timed per ruleset and outcome, with fired rules and fallbacks counted")
+    void testExecutionMeters() {
+        properties.getMetrics().setRuleSampleRate(0);
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"),
+                createRule("address.city == 'Berlin'", "'local'", "origin"),
+                createRule("true", "name.length()", "length"))));
+        RuleExecutionService service = createService();
+        Map<String, Object> withoutName = new HashMap<>();
+        withoutName.put("age", 30);
+        withoutName.put("name", null);
+
+        service.executeRuleset("test_ruleset", Map.of("age", 30, "name", "alice"));
+        service.executeRuleset("test_ruleset", Map.of("age", 12, "name", "bob"));
+        assertThatThrownBy(() -> service.executeRuleset("test_ruleset", withoutName, false))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(registry.get("rules.execution").tags("ruleset", "test_ruleset", "outcome", "success").timer()
+                .count()).isEqualTo(2);
+        assertThat(registry.get("rules.execution").tags("ruleset", "test_ruleset", "outcome", "error").timer()
+                .count()).isEqualTo(1);
+        // Failed executions do not count their rules
+        assertThat(count("rules.rules.evaluated", "ruleset", "test_ruleset", "fired", "true")).isEqualTo(3);
+        assertThat(count("rules.rules.evaluated", "ruleset", "test_ruleset", "fired", "false")).isEqualTo(3);
+        // address is missing in every input, name once without null-safe evaluation
+        assertThat(count("rules.null.safe.fallbacks", "ruleset", "test_ruleset", "part", "condition"))
+                .isEqualTo(2);
+        assertThat(count("rules.null.safe.fallbacks", "ruleset", "test_ruleset", "part", "transformation"))
+                .isZero();
+        assertThat(registry.find("rules.rule.evaluation").timers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Sampled executions time the condition and transformation of every rule")
+    void testRuleTimers() {
+        properties.getMetrics().setRuleSampleRate(1);
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"),
+                createRule("age < 18", "'minor'", "category"))));
+        RuleExecutionService service = createService();
+
+        for (int i = 0; i < 5; i++) {
+            service.executeRuleset("test_ruleset", Map.of("age", 30));
+        }
+
+        assertThat(registry.get("rules.rule.evaluation").tags("part", "condition").timers())
+                .hasSize(2)
+                .allSatisfy(timer -> assertThat(timer.count()).isEqualTo(5));
+        // Only the first rule fires, rules that were not saved are told apart by position
+        assertThat(registry.get("rules.rule.evaluation").tags("part", "transformation", "rule", "#0").timer()
+                .count()).isEqualTo(5);
+        assertThat(registry.get("rules.rule.evaluation").tags("part", "transformation", "rule", "#1").timer()
+                .count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Allocations of sampled executions are recorded in total and per phase")
+    void testAllocationMeters() {
+        assumeTrue(AllocationMeter.isSupported());
+        properties.getMetrics().setAllocationSampleRate(1);
+        when(ruleService.getRuleset("interpreted")).thenReturn(RulesetSnapshot.of("interpreted", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"))));
+        when(ruleService.getRuleset("generated")).thenReturn(RulesetSnapshot.of("generated", 1, List.of(
+                createRule("age >= 18", "'adult'", "category"))));
+        properties.getRulesets().put("generated", new RuleEngineProperties.Ruleset());
+        properties.getRulesets().get("generated").setExecutionMode(RuleEngineProperties.ExecutionMode.GENERATED);
+        RuleExecutionService service = createService();
+
+        for (int i = 0; i < 3; i++) {
+            service.executeRuleset("interpreted", Map.of("age", 30));
+            service.executeRuleset("generated", Map.of("age", 30));
+        }
+
+        assertThat(registry.get("rules.execution.allocation").tag("ruleset", "interpreted").summary().count())
+                .isEqualTo(3);
+        assertThat(registry.get("rules.execution.phase.allocation").tag("ruleset", "interpreted").summaries())
+                .extracting(summary -> summary.getId().getTag("phase"))
+                .containsExactlyInAnyOrder("input", "context", "evaluation", "response");
+        assertThat(registry.get("rules.execution.phase.allocation").tags("ruleset", "interpreted", "phase",
+                "evaluation").summary().totalAmount()).isPositive();
+        // Generated classes only report the allocations of whole executions
+        assertThat(registry.get("rules.execution.allocation").tag("ruleset", "generated").summary().count())
+                .isEqualTo(3);
+        assertThat(registry.get("rules.execution.phase.allocation").tag("ruleset", "generated").summaries())
+                .allSatisfy(summary -> assertThat(summary.count()).isZero());
+    }
+
+    @Test
+    @DisplayName("Expression cache hits and misses are read from the cache")
+    void testExpressionCacheMeters() {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "1", "one"))));
+        RuleExecutionService service = createService();
+
+        service.executeRuleset("test_ruleset", Map.of());
+        service.executeRuleset("test_ruleset", Map.of());
+
+        assertThat(registry.get("rules.expression.cache.requests").tags("result", "miss").functionCounter()
+                .count()).isEqualTo(2);
+        assertThat(registry.get("rules.expression.cache.requests").tags("result", "hit").functionCounter()
+                .count()).isEqualTo(2);
+        assertThat(registry.get("rules.expression.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(registry.get("rules.expression.cache.size").gauge().value()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,89 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.ExecutionTrace;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("ExecutionTraceService Unit Tests")
+class ExecutionTraceServiceTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+
+    private static RulesetSnapshot ruleset(String name) {
+        Rule rule = new Rule();
+        rule.setCondition("true");
+        rule.setTransformation("1");
+        rule.setOutputVariable("one");
+        rule.setRuleset(name);
+        return RulesetSnapshot.of(name, 1, List.of(rule));
+    }
+
+    private static void record(ExecutionTraceService traceService, RulesetSnapshot ruleset, int n) {
+        traceService.record(traceService.startTrace(ruleset, Map.of("n", n), "ruleset"), Map.of(), null);
+    }
+
+    @Test
+    @DisplayName("Traces are off unless sampled, requested or on for the ruleset")
+    void testTraceDecision() {
+        properties.getRulesets().put("traced", new RuleEngineProperties.Ruleset());
+        properties.getRulesets().get("traced").setTrace(true);
+        ExecutionTraceService traceService = new ExecutionTraceService(properties);
+
+        assertThat(traceService.traceReason("other")).isNull();
+        assertThat(traceService.traceReason("traced")).isEqualTo("ruleset");
+        ExecutionTraceService.Scope scope = traceService.traceRequested();
+        try {
+            assertThat(traceService.traceReason("other")).isEqualTo("requested");
+        } finally {
+            scope.close();
+        }
+        assertThat(traceService.isTraceRequested()).isFalse();
+        assertThat(traceService.startTrace(ruleset("other"), Map.of(), null)).isNull();
+    }
+
+    @Test
+    @DisplayName("One in sample-rate executions is traced")
+    void testSampling() {
+        properties.getTrace().setSampleRate(10);
+        ExecutionTraceService traceService = new ExecutionTraceService(properties);
+        RulesetSnapshot ruleset = ruleset("sampled");
+
+        int traced = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (traceService.startTrace(ruleset, Map.of(), null) != null) {
+                traced++;
+            }
+        }
+
+        assertThat(traced).isBetween(800, 1_200);
+    }
+
+    @Test
+    @DisplayName("Only the most recent traces are kept, returned newest first")
+    void testRingBuffer() {
+        properties.getTrace().setCapacity(8);
+        ExecutionTraceService traceService = new ExecutionTraceService(properties);
+        RulesetSnapshot first = ruleset("first");
+        RulesetSnapshot second = ruleset("second");
+
+        for (int i = 0; i < 20; i++) {
+            record(traceService, i % 2 == 0 ? first : second, i);
+        }
+
+        assertThat(traceService.getTraces("first", 10))
+                .extracting(trace -> trace.getInput().get("n"))
+                .containsExactly(18, 16, 14, 12);
+        assertThat(traceService.getTraces("second", 2))
+                .extracting(ExecutionTrace::getId)
+                .containsExactly(19L, 17L);
+        assertThat(traceService.getTraces("missing", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import com.rules.service.config.RuleEngineProperties;
+
+@DisplayName("ExpressionCacheService Unit Tests")
+class ExpressionCacheServiceTest {
+
+    private ExpressionCacheService createCache(int maxSize) {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.getExpressionCache().setMaxSize(maxSize);
+        return new ExpressionCacheService(properties);
+    }
+
+    @Test
+    @DisplayName("Repeated lookups return the same parsed expression")
+    void testRepeatedLookupsAreHits() {
+        ExpressionCacheService cache = createCache(100);
+        UUID ruleId = UUID.randomUUID();
+
+        RuleExpression first = cache.getExpression("ruleset", ruleId, "age >= 18");
+        RuleExpression second = cache.getExpression("ruleset", ruleId, "age >= 18");
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Different rule ids are cached separately")
+    void testKeyIncludesRuleId() {
+        ExpressionCacheService cache = createCache(100);
+
+        RuleExpression first = cache.getExpression("ruleset", UUID.randomUUID(), "age >= 18");
+        RuleExpression second = cache.getExpression("ruleset", UUID.randomUUID(), "age >= 18");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.getStats().getSize()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cache never grows past its maximum size")
+    void testEvictionKeepsCacheBounded() {
+        ExpressionCacheService cache = createCache(50);
+
+        for (int i = 0; i < 500; i++) {
+            cache.getExpression("ruleset", UUID.randomUUID(), "age >= " + i);
+        }
+
+        assertThat(cache.getStats().getSize()).isLessThanOrEqualTo(50);
+        assertThat(cache.getStats().getEvictions()).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Invalidating a ruleset only removes its own expressions")
+    void testInvalidateRuleset() {
+        ExpressionCacheService cache = createCache(100);
+        UUID ruleId = UUID.randomUUID();
+        RuleExpression kept = cache.getExpression("other", UUID.randomUUID(), "name != null");
+        RuleExpression stale = cache.getExpression("ruleset", ruleId, "age >= 18");
+
+        cache.invalidateRuleset("ruleset");
+
+        assertThat(cache.getStats().getSize()).isEqualTo(1);
+        assertThat(cache.getExpression("ruleset", ruleId, "age >= 18")).isNotSameAs(stale);
+        assertThat(cache.getStats().getSize()).isEqualTo(2);
+        assertThat(kept).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Invalid expressions are not cached")
+    void testParseErrorsAreNotCached() {
+        ExpressionCacheService cache = createCache(100);
+
+        assertThatThrownBy(() -> cache.getExpression("ruleset", null, "age >="))
+                .isInstanceOf(ParseException.class);
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Concurrent cold lookups parse the expression only once")
+    void testSingleFlightParsing() throws Exception {
+        ExpressionCacheService cache = createCache(100);
+        UUID ruleId = UUID.randomUUID();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<RuleExpression>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getExpression("ruleset", ruleId, "STRING_UPPERCASE(name) + ' ' + age");
+                }));
+            }
+            start.countDown();
+
+            RuleExpression expected = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RuleExpression> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    @DisplayName("Expressions use the compiler mode configured for their ruleset")
+    void testCompilerModePerRuleset() {
+        RuleEngineProperties properties = new RuleEngineProperties();
+        properties.getSpel().setCompilerMode(SpelCompilerMode.MIXED);
+        RuleEngineProperties.Ruleset hot = new RuleEngineProperties.Ruleset();
+        hot.setCompilerMode(SpelCompilerMode.IMMEDIATE);
+        properties.getRulesets().put("hot", hot);
+        ExpressionCacheService cache = new ExpressionCacheService(properties);
+
+        assertThat(cache.getExpression("hot", null, "1 + 1").getMode()).isEqualTo("IMMEDIATE");
+        assertThat(cache.getExpression("other", null, "1 + 1").getMode()).isEqualTo("MIXED");
+    }
+}
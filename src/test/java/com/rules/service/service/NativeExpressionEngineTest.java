@@ -0,0 +1,149 @@
+package com.rules.service.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.rules.service.config.RuleEngineProperties;
+
+@DisplayName("NativeExpressionEngine Unit Tests")
+class NativeExpressionEngineTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final SpelExpressionEngine spelEngine = new SpelExpressionEngine(properties);
+    private final NativeExpressionEngine nativeEngine = new NativeExpressionEngine(spelEngine);
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+
+    private Map<String, Object> createInput() {
+        Map<String, Object> input = new HashMap<>();
+        input.put("age", 25);
+        input.put("name", "Alice");
+        input.put("price", 99.5);
+        input.put("big", 10_000_000_000L);
+        input.put("amount", new BigDecimal("10.50"));
+        input.put("negativeZero", -0.0);
+        input.put("notANumber", Double.NaN);
+        input.put("floatNaN", Float.NaN);
+        input.put("isActive", true);
+        input.put("nothing", null);
+        input.put("empty", "");
+        input.put("scores", Arrays.asList(90, 85, 70));
+        input.put("user", Map.of(
+                "name", "bob",
+                "profile", Map.of("age", 17, "verified", true, "skills", List.of("Java", "SQL"))));
+        input.put("company", Map.of("employees", List.of(
+                Map.of("name", "carol", "salary", 1000, "performance", Map.of("rating", 4.5)))));
+        return input;
+    }
+
+    private RuleEvaluationContext createContext() {
+        RuleEvaluationContext context = contextService.createEvaluationContext(createInput());
+        contextService.addOutputVariable(context, "status", "adult");
+        return context;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "age >= 18", "age < 18", "18 <= age", "age == 25", "age == 25.0", "age != 25", "-age < 0",
+            "price > 99", "price * 2", "age + 1", "age - 100", "age * 3", "age / 2", "age % 7", "big + 1",
+            "big > age", "amount * 2", "amount > 10", "age + price", "age / 2.0",
+            "nothing > 5", "5 > nothing", "nothing == null", "nothing != null", "name == 'Alice'",
+            "name != \"Bob\"", "name > 'Aaron'", "name + '!'", "name + age", "age + name", "name + nothing",
+            "isActive == true", "isActive AND age >= 18", "isActive and not (age < 18)", "!isActive || age > 5",
+            "age >= 18 AND name.length() > 3 AND age < 65", "age >= 65 OR age <= 12",
+            "age gt 20 and age le 25", "age div 2 eq 12", "age mod 2 ne 0",
+            "STRING_UPPERCASE(name)", "#STRING_LOWERCASE(name)", "STRING_CONCAT('Hello, ', name, '!')",
+            "STRING_UPPERCASE(STRING_CONCAT(\"Mr. \", name))", "STRING_SUBSTRING(name, 0, 3)",
+            "STRING_SUBSTRING(name, 0, 100)", "STRING_UPPERCASE(age)", "STRING_CONCAT(name, \" is \", age)",
+            "#STRING_LENGTH(name)", "#STRING_CONTAINS(name, 'li')", "#STRING_TRIM('  x  ')",
+            "name.length()", "name.substring(1)", "name.substring(0, 1).toUpperCase()", "name.toString()",
+            "age.toString()", "name.startsWith('Al')", "name.charAt(0)", "name.concat('x')",
+            "scores.size()", "scores[0]", "scores[1] + scores[2]", "scores.size() > 0",
+            "user.name", "user.profile.age >= 18", "user.profile.verified == true", "user['name']",
+            "user.profile.skills[0] == 'Java'", "company.employees[0].performance.rating >= 4.0",
+            "company.employees[0].salary * 1.1", "user?.profile?.age", "nothing?.foo", "nothing?.length()",
+            "#age + 1", "#user.name", "#status", "status == 'adult'", "#missing", "missing",
+            "age > 18 ? 'adult' : 'minor'", "nothing ?: 'default'", "empty ?: 'default'", "name ?: 'x'",
+            "'it''s'", "\"say \"\"hi\"\"\"", "1.5f * 2", "2e3", "10L * 3", "null", "true", "name[0]",
+            "'x' * 3", "nothing.foo", "nothing.length()", "nothing AND true", "age + nothing", "age > 'a'",
+            "scores[5]", "name[10]", "user.missing.name", "age.foo", "nothing[0]", "age / 0.0",
+            "negativeZero == 0.0", "negativeZero != 0.0", "negativeZero == 0", "negativeZero == age - 25",
+            "notANumber == notANumber", "notANumber != notANumber", "notANumber == 1.0", "notANumber != 1",
+            "floatNaN == floatNaN", "floatNaN == notANumber", "floatNaN != 1.5f", "0.0 == -0.0"
+    })
+    @DisplayName("Native engine results match SpEL")
+    void testMatchesSpel(String expression) {
+        RuleExpression nativeExpression = nativeEngine.parse("ruleset", expression);
+        RuleExpression spelExpression = spelEngine.parse("ruleset", expression);
+
+        assertThat(nativeExpression.getMode()).as("parsed natively").isEqualTo(NativeRuleExpression.MODE);
+        assertSameOutcome(expression, nativeExpression, spelExpression);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "age >= 18 AND name.length() > 3", "nothing > 5", "name == 'Alice'", "isActive", "'true'",
+            "user.profile.age", "nothing"
+    })
+    @DisplayName("Conditions convert to Boolean like SpEL")
+    void testConditionConversionMatchesSpel(String expression) {
+        RuleExpression nativeExpression = nativeEngine.parse("ruleset", expression);
+        RuleExpression spelExpression = spelEngine.parse("ruleset", expression);
+
+        Object expected = outcome(() -> spelExpression.getValue(createContext(), Boolean.class));
+        Object actual = outcome(() -> nativeExpression.getValue(createContext(), Boolean.class));
+        assertThat(actual).as(expression).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "T(java.lang.Math).max(age, 30)", "scores.?[#this > 80]", "{1, 2, 3}", "age matches '\\d+'",
+            "age between {1, 30}", "new String('x')", "#root", "CUSTOM_FUNC(name)", "0x10"
+    })
+    @DisplayName("Unsupported syntax falls back to SpEL")
+    void testFallsBackToSpel(String expression) {
+        RuleExpression parsed = nativeEngine.parse("ruleset", expression);
+
+        assertThat(parsed).isInstanceOf(SpelRuleExpression.class);
+    }
+
+    @Test
+    @DisplayName("Engine is selected per ruleset")
+    void testEngineSelectedPerRuleset() {
+        RuleEngineProperties.Ruleset fast = new RuleEngineProperties.Ruleset();
+        fast.setEngine(RuleEngineProperties.Engine.NATIVE);
+        properties.getRulesets().put("fast", fast);
+        ExpressionCacheService cache = new ExpressionCacheService(properties);
+
+        assertThat(cache.getExpression("fast", null, "age >= 18").getMode()).isEqualTo(NativeRuleExpression.MODE);
+        assertThat(cache.getExpression("other", null, "age >= 18")).isInstanceOf(SpelRuleExpression.class);
+    }
+
+    private void assertSameOutcome(String expression, RuleExpression nativeExpression,
+            RuleExpression spelExpression) {
+        Object expected = outcome(() -> spelExpression.getValue(createContext()));
+        Object actual = outcome(() -> nativeExpression.getValue(createContext()));
+        assertThat(actual).as(expression).isEqualTo(expected);
+    }
+
+    /**
+     * Either the value of the evaluation, or the message of the exception it
+     * threw, prefixed with the exception type
+     */
+    private Object outcome(java.util.function.Supplier<Object> evaluation) {
+        Throwable thrown = catchThrowable(evaluation::get);
+        if (thrown != null) {
+            return thrown.getClass().getSimpleName() + ": " + thrown.getMessage();
+        }
+        return evaluation.get();
+    }
+}
@@ -0,0 +1,152 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("ParallelRulesetExecutor Unit Tests")
+class ParallelRulesetExecutorTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final ParallelRulesetExecutor parallelExecutor;
+    private final RuleService ruleService = mock(RuleService.class);
+    private final RuleExecutionService ruleExecutionService;
+
+    ParallelRulesetExecutorTest() {
+        properties.getParallel().setParallelism(4);
+        properties.getParallel().setMinStageSize(2);
+        parallelExecutor = new ParallelRulesetExecutor(properties);
+        ruleExecutionService = new TestRuleEngine(properties).ruleExecutionService(ruleService, parallelExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelExecutor.shutdown();
+    }
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private void useRules(List<Rule> rules) {
+        when(ruleService.getRuleset(any())).thenReturn(RulesetSnapshot.of("test_ruleset", 1, rules));
+    }
+
+    private Map<String, Object> execute(RuleEngineProperties.ExecutionMode mode, boolean nullSafe) {
+        properties.setExecutionMode(mode);
+        Map<String, Object> input = new HashMap<>();
+        input.put("age", 25);
+        input.put("name", "alice");
+        input.put("limit", 100);
+        input.put("nothing", null);
+        return ruleExecutionService.executeRuleset("test_ruleset", input, nullSafe);
+    }
+
+    /**
+     * A ruleset of independent chains: every chain reads the previous rule of
+     * the same chain, and the last rule reads all chains
+     */
+    private List<Rule> createChains(int chains, int length) {
+        List<Rule> rules = new ArrayList<>();
+        for (int step = 0; step < length; step++) {
+            for (int chain = 0; chain < chains; chain++) {
+                String previous = step == 0 ? "age" : "c" + chain + "_" + (step - 1);
+                rules.add(createRule(previous + " > 0", previous + " + " + chain, "c" + chain + "_" + step));
+            }
+        }
+        StringBuilder total = new StringBuilder("0");
+        for (int chain = 0; chain < chains; chain++) {
+            total.append(" + c").append(chain).append('_').append(length - 1);
+        }
+        rules.add(createRule("true", total.toString(), "total"));
+        return rules;
+    }
+
+    @Test
+    @DisplayName("Parallel execution produces the same outputs as sequential execution")
+    void testMatchesSequentialExecution() {
+        List<Rule> rules = new ArrayList<>(createChains(8, 5));
+        rules.add(createRule("true", "limit", "capped"));
+        rules.add(createRule("true", "'x'", "limit"));
+        rules.add(createRule("true", "'first'", "label"));
+        rules.add(createRule("age > 18", "STRING_UPPERCASE(name)", "label"));
+        rules.add(createRule("nothing.foo > 1", "'never'", "skipped"));
+        useRules(rules);
+
+        Map<String, Object> sequential = execute(RuleEngineProperties.ExecutionMode.PER_RULE, true);
+        Map<String, Object> parallel = execute(RuleEngineProperties.ExecutionMode.PARALLEL, true);
+
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(parallel)
+                .containsEntry("total", 8 * 25 + 5 * (0 + 1 + 2 + 3 + 4 + 5 + 6 + 7))
+                .containsEntry("capped", 100)
+                .containsEntry("limit", "x")
+                .containsEntry("label", "ALICE")
+                .doesNotContainKey("skipped");
+    }
+
+    @Test
+    @DisplayName("Independent rules run on more than one thread")
+    void testRunsOnMultipleThreads() {
+        useRules(createChains(16, 1));
+        RulesetSnapshot snapshot = ruleService.getRuleset("test_ruleset");
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        parallelExecutor.execute(snapshot, i -> {
+            threads.add(Thread.currentThread());
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(threads).hasSizeGreaterThan(1).contains(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("The failure of the first failing rule in ruleset order is reported")
+    void testReportsFirstFailure() {
+        // Rule 1 fails in the second stage, rule 2 in the first
+        Rule failsLater = createRule("true", "first.foo()", "second");
+        Rule failsEarlier = createRule("true", "nothing.length()", "third");
+        useRules(List.of(createRule("true", "nothing", "first"), failsLater, failsEarlier,
+                createRule("true", "'ok'", "fourth")));
+
+        assertThatThrownBy(() -> execute(RuleEngineProperties.ExecutionMode.PER_RULE, true))
+                .hasMessageStartingWith("Error executing rule " + failsLater.getId());
+        assertThatThrownBy(() -> execute(RuleEngineProperties.ExecutionMode.PARALLEL, true))
+                .hasMessageStartingWith("Error executing rule " + failsLater.getId());
+    }
+
+    @Test
+    @DisplayName("Dependency graph is reused until the ruleset changes")
+    void testGraphCachedPerSnapshot() {
+        RulesetSnapshot first = RulesetSnapshot.of("test_ruleset", 1, createChains(2, 2));
+        RulesetSnapshot second = RulesetSnapshot.of("test_ruleset", 2, createChains(3, 2));
+
+        assertThat(parallelExecutor.getDependencyGraph(first)).isSameAs(parallelExecutor.getDependencyGraph(first));
+        assertThat(parallelExecutor.getDependencyGraph(second).getMaxStageWidth()).isEqualTo(3);
+    }
+}
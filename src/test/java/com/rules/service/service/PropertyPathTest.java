@@ -0,0 +1,50 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PropertyPath Unit Tests")
+class PropertyPathTest {
+
+    private final Map<String, Object> document = Map.of(
+            "name", "john",
+            "user", Map.of("profile", Map.of("title", "Engineer")),
+            "company", Map.of("employees", List.of(
+                    Map.of("name", "alice"),
+                    Map.of("name", "bob", "skills", new Object[] { "java", "sql" }))));
+
+    @Test
+    @DisplayName("Paths are tokenized once and cached")
+    void testPathsAreCached() {
+        PropertyPath path = PropertyPath.of("user.profile.title");
+
+        assertThat(PropertyPath.of("user.profile.title")).isSameAs(path);
+        assertThat(path.getSegmentCount()).isEqualTo(3);
+        assertThat(path.isSimple()).isFalse();
+        assertThat(PropertyPath.of("name").isSimple()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nested fields and list or array indexes are resolved")
+    void testResolveNestedPaths() {
+        assertThat(PropertyPath.of("name").resolve(document)).isEqualTo("john");
+        assertThat(PropertyPath.of("user.profile.title").resolve(document)).isEqualTo("Engineer");
+        assertThat(PropertyPath.of("company.employees[0].name").resolve(document)).isEqualTo("alice");
+        assertThat(PropertyPath.of("company.employees[1].skills[1]").resolve(document)).isEqualTo("sql");
+    }
+
+    @Test
+    @DisplayName("Missing, out of range and malformed paths resolve to null")
+    void testUnresolvablePaths() {
+        assertThat(PropertyPath.of("user.missing.title").resolve(document)).isNull();
+        assertThat(PropertyPath.of("name.length").resolve(document)).isNull();
+        assertThat(PropertyPath.of("company.employees[5].name").resolve(document)).isNull();
+        assertThat(PropertyPath.of("company.employees[x].name").resolve(document)).isNull();
+        assertThat(PropertyPath.of("company.employees[-1].name").resolve(document)).isNull();
+        assertThat(PropertyPath.of("company.employees]0[").resolve(document)).isNull();
+    }
+}
@@ -0,0 +1,163 @@
+package com.rules.service.service;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.rules.service.model.Rule;
+import com.rules.service.model.RuleDependencyGraph;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("RuleDependencyAnalyzer Unit Tests")
+class RuleDependencyAnalyzerTest {
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private RuleDependencyGraph analyze(Rule... rules) {
+        return RuleDependencyAnalyzer.analyze(RulesetSnapshot.of("test_ruleset", 1, List.of(rules)));
+    }
+
+    private Set<String> reads(String expression) {
+        Set<String> reads = new HashSet<>();
+        assertThat(RuleDependencyAnalyzer.collectReads(expression, reads)).as(expression).isTrue();
+        return reads;
+    }
+
+    @Test
+    @DisplayName("Collects root properties, variables and function arguments")
+    void testCollectsReads() {
+        assertThat(reads("age >= 18 AND #status == 'active'")).containsExactlyInAnyOrder("age", "status");
+        assertThat(reads("user.profile.age > limit")).containsExactlyInAnyOrder("user", "limit");
+        assertThat(reads("STRING_UPPERCASE(name)")).containsExactly("name");
+        assertThat(reads("#STRING_CONCAT(first, ' ', last)")).containsExactlyInAnyOrder("first", "last");
+        assertThat(reads("scores[index].value ?: fallback")).containsExactlyInAnyOrder("scores", "index",
+                "fallback");
+        assertThat(reads("name.substring(start).length()")).containsExactlyInAnyOrder("name", "start");
+        assertThat(reads("T(java.lang.Math).max(a, b)")).containsExactlyInAnyOrder("a", "b");
+        assertThat(reads("'literal'")).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "#root.age", "#this", "['age']", "scores.?[#this > 1]", "scores.![#this * 2]", "x = 1",
+            "getProperty('age')", "getOutputVariables()", "@bean", "age >="
+    })
+    @DisplayName("Expressions with undeterminable reads are not analyzable")
+    void testNotAnalyzable(String expression) {
+        assertThat(RuleDependencyAnalyzer.collectReads(expression, new HashSet<>())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Independent rules share a stage")
+    void testIndependentRules() {
+        RuleDependencyGraph graph = analyze(
+                createRule("age >= 18", "'adult'", "category"),
+                createRule("true", "STRING_UPPERCASE(name)", "name_upper"),
+                createRule("score > 10", "score * 2", "doubled"));
+
+        assertThat(graph.getStageCount()).isEqualTo(1);
+        assertThat(graph.getStageSize(0)).isEqualTo(3);
+        assertThat(graph.getMaxStageWidth()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Reading an earlier output, overwriting a read and writing the same output order rules")
+    void testDependencies() {
+        RuleDependencyGraph graph = analyze(
+                createRule("true", "age * 2", "doubled"),          // 0
+                createRule("true", "doubled + 1", "plusOne"),      // 1 reads 0
+                createRule("true", "limit", "capped"),             // 2 independent
+                createRule("true", "'x'", "limit"),                // 3 overwrites a name read by 2
+                createRule("true", "'first'", "label"),            // 4 independent
+                createRule("age > 18", "'second'", "label"),       // 5 writes the same output as 4
+                createRule("true", "#plusOne + capped", "total")); // 6 reads 1 and 2
+
+        assertThat(graph.getRuleStage(0)).isEqualTo(0);
+        assertThat(graph.getRuleStage(1)).isEqualTo(1);
+        assertThat(graph.getRuleStage(2)).isEqualTo(0);
+        assertThat(graph.getRuleStage(3)).isEqualTo(1);
+        assertThat(graph.getRuleStage(4)).isEqualTo(0);
+        assertThat(graph.getRuleStage(5)).isEqualTo(1);
+        assertThat(graph.getRuleStage(6)).isEqualTo(2);
+        assertThat(graph.getStageRule(1, 0)).isEqualTo(1);
+        assertThat(graph.getStageRule(1, 2)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Rules that cannot be analyzed are barriers")
+    void testBarrier() {
+        RuleDependencyGraph graph = analyze(
+                createRule("true", "'a'", "a"),
+                createRule("true", "'b'", "b"),
+                createRule("true", "#root.get('a')", "copy"),
+                createRule("true", "'c'", "c"),
+                createRule("true", "'d'", "d"));
+
+        assertThat(graph.getStageCount()).isEqualTo(3);
+        assertThat(graph.getRuleStage(2)).isEqualTo(1);
+        assertThat(graph.getStageSize(1)).isEqualTo(1);
+        assertThat(graph.getRuleStage(3)).isEqualTo(2);
+        assertThat(graph.getRuleStage(4)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Required rules are the writers of requested outputs and their transitive inputs")
+    void testRequiredRules() {
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "age * 2", "doubled"),          // 0
+                createRule("true", "'x'", "unrelated"),            // 1
+                createRule("doubled > 10", "'big'", "size"),       // 2 reads 0
+                createRule("true", "'small'", "label"),            // 3
+                createRule("age > 60", "size", "label"),           // 4 reads 2, also writes label
+                createRule("true", "label + unrelated", "all")));  // 5
+        RuleDependencyGraph graph = RuleDependencyAnalyzer.analyze(snapshot);
+        BitSet labelSlot = new BitSet();
+        labelSlot.set(snapshot.getOutputLayout().slotOf("label"));
+
+        assertThat(graph.getRequiredRules(labelSlot).stream().toArray()).containsExactly(0, 2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("A required barrier requires every earlier rule")
+    void testRequiredBarrier() {
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "'a'", "a"),
+                createRule("true", "'b'", "b"),
+                createRule("true", "#root.get('a')", "copy"),
+                createRule("true", "'c'", "c")));
+        RuleDependencyGraph graph = RuleDependencyAnalyzer.analyze(snapshot);
+        BitSet copySlot = new BitSet();
+        copySlot.set(snapshot.getOutputLayout().slotOf("copy"));
+
+        assertThat(graph.getRequiredRules(copySlot).stream().toArray()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Barriers are required even when their output is not requested")
+    void testBarrierAlwaysRequired() {
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "'a'", "a"),
+                createRule("true", "#rate = 0.5", "assigned"),
+                createRule("true", "price * #rate", "discounted"),
+                createRule("true", "'c'", "c")));
+        RuleDependencyGraph graph = RuleDependencyAnalyzer.analyze(snapshot);
+        BitSet discountedSlot = new BitSet();
+        discountedSlot.set(snapshot.getOutputLayout().slotOf("discounted"));
+
+        assertThat(graph.getRequiredRules(discountedSlot).stream().toArray()).containsExactly(0, 1, 2);
+    }
+}
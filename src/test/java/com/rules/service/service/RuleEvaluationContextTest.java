@@ -0,0 +1,82 @@
+package com.rules.service.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+@DisplayName("RuleEvaluationContext Unit Tests")
+class RuleEvaluationContextTest {
+
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @Test
+    @DisplayName("Contexts share the template but not their variables")
+    void testContextsShareTemplate() {
+        RuleEvaluationContext first = contextService.createEvaluationContext(Map.of("age", 20));
+        RuleEvaluationContext second = contextService.createEvaluationContext(Map.of("age", 30));
+
+        first.setVariable("status", "ADULT");
+
+        assertThat(first.getPropertyAccessors()).isSameAs(second.getPropertyAccessors());
+        assertThat(first.lookupVariable("status")).isEqualTo("ADULT");
+        assertThat(second.lookupVariable("status")).isNull();
+    }
+
+    @Test
+    @DisplayName("Input data is visible as variables without being copied")
+    void testInputDataReadInPlace() {
+        Map<String, Object> inputData = new HashMap<>();
+        inputData.put("age", 20);
+        RuleEvaluationContext context = contextService.createEvaluationContext(inputData);
+
+        inputData.put("name", "john");
+
+        assertThat(parser.parseExpression("#age + 1").getValue(context)).isEqualTo(21);
+        assertThat(context.lookupVariable("name")).isEqualTo("john");
+    }
+
+    @Test
+    @DisplayName("Variables set during evaluation shadow input data and functions")
+    void testVariablePrecedence() {
+        Map<String, Object> inputData = new HashMap<>();
+        inputData.put("age", 20);
+        inputData.put("missing", null);
+        RuleEvaluationContext context = contextService.createEvaluationContext(inputData);
+
+        context.setVariable("age", 21);
+
+        assertThat(context.lookupVariable("age")).isEqualTo(21);
+        assertThat(context.lookupVariable("missing")).isNull();
+        assertThat(context.lookupVariable("STRING_TRIM")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Registered functions can be called by name")
+    void testFunctionsAvailable() {
+        RuleEvaluationContext context = contextService.createEvaluationContext(Map.of("name", "john"));
+
+        assertThat(parser.parseExpression("STRING_UPPERCASE(name)").getValue(context)).isEqualTo("JOHN");
+        assertThat(parser.parseExpression("#STRING_LENGTH(#name)").getValue(context)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Output variables are stored once and visible to # and bare-name access")
+    void testSharedScope() {
+        Map<String, Object> inputData = new HashMap<>();
+        inputData.put("age", 20);
+        RuleEvaluationContext context = contextService.createEvaluationContext(inputData);
+
+        contextService.addOutputVariable(context, "age", 21);
+        contextService.addOutputVariable(context, "status", "ADULT");
+
+        assertThat(parser.parseExpression("age").getValue(context)).isEqualTo(21);
+        assertThat(parser.parseExpression("#status + ':' + status").getValue(context)).isEqualTo("ADULT:ADULT");
+        assertThat(context.getScope().toOutputMap()).containsOnlyKeys("age", "status");
+        assertThat(inputData).containsOnlyKeys("age").containsEntry("age", 20);
+    }
+}
@@ -2,24 +2,32 @@ package com.rules.service.service;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.dto.ExecutionTrace;
 import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("RuleExecutionService Unit Tests")
@@ -28,44 +36,18 @@ class RuleExecutionServiceTest {
     @Mock
     private RuleService ruleService;
 
-    @Mock
-    private SpelContextConfigurationService spelContextConfigurationService;
+    private final TestRuleEngine engine = new TestRuleEngine(new RuleEngineProperties());
 
-    @InjectMocks
     private RuleExecutionService ruleExecutionService;
 
     @BeforeEach
     void setUp() {
-        // Mock the SpelContextConfigurationService to create a proper context with
-        // input data
-        lenient().when(spelContextConfigurationService.createEvaluationContext(any())).thenAnswer(invocation -> {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> inputData = (Map<String, Object>) invocation.getArgument(0);
-            PropertyAccessWrapper wrapper = new PropertyAccessWrapper(inputData);
-            StandardEvaluationContext context = new StandardEvaluationContext(wrapper);
-            context.addPropertyAccessor(new PropertyAccessWrapperAccessor());
-            context.addPropertyAccessor(new NestedMapPropertyAccessor());
-
-            // Add input data as variables for backward compatibility
-            inputData.forEach(context::setVariable);
-
-            return context;
+        ruleExecutionService = engine.ruleExecutionService(ruleService);
+        // Serve ruleset snapshots from the rules stubbed by each test
+        lenient().when(ruleService.getRuleset(any())).thenAnswer(invocation -> {
+            String rulesetName = invocation.getArgument(0);
+            return RulesetSnapshot.of(rulesetName, 1, ruleService.getRulesByRuleset(rulesetName));
         });
-
-        // Mock the addOutputVariable method to actually add variables to the context
-        lenient().doAnswer(invocation -> {
-            StandardEvaluationContext context = invocation.getArgument(0);
-            PropertyAccessWrapper wrapper = invocation.getArgument(1);
-            String variableName = invocation.getArgument(2);
-            Object value = invocation.getArgument(3);
-
-            // Add to context for # syntax access
-            context.setVariable(variableName, value);
-            // Add to root object for direct property access
-            wrapper.addOutputVariable(variableName, value);
-
-            return null;
-        }).when(spelContextConfigurationService).addOutputVariable(any(), any(), any(), any());
     }
 
     private Rule createRule(String condition, String transformation, String outputVariable) {
@@ -841,4 +823,195 @@ class RuleExecutionServiceTest {
             assertThat(result2).containsEntry("third_user", "Third user: charlie");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Output Projection Tests")
+    class OutputProjectionTests {
+
+        @Test
+        @DisplayName("Only rules the requested outputs depend on are executed")
+        void testPrunesUnrequestedRules() {
+            // Arrange
+            Rule doubled = createRule("true", "age * 2", "doubled");
+            Rule label = createRule("doubled > 40", "'senior'", "label");
+            Rule unrelated = createRule("true", "nothing.length()", "unrelated");
+            Rule greeting = createRule("true", "STRING_CONCAT('Hi ', name)", "greeting");
+            when(ruleService.getRulesByRuleset("test_ruleset"))
+                    .thenReturn(Arrays.asList(doubled, label, unrelated, greeting));
+
+            Map<String, Object> inputData = new HashMap<>();
+            inputData.put("name", "alice");
+            inputData.put("age", 25);
+
+            // Act - the unrelated rule would fail if it ran
+            Map<String, Object> result = ruleExecutionService.executeRuleset("test_ruleset", inputData, false,
+                    List.of("label"));
+
+            // Assert
+            assertThat(result).containsOnly(entry("label", "senior"));
+            // Only the conditions and transformations of the two rules the label depends on were parsed
+            assertThat(engine.getExpressionCache().getStats().getMisses()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Earlier writers of a requested output are kept")
+        void testKeepsEarlierWriters() {
+            // Arrange
+            Rule fallback = createRule("true", "'standard'", "tier");
+            Rule premium = createRule("age > 60", "'premium'", "tier");
+            Rule other = createRule("true", "'x'", "other");
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenReturn(Arrays.asList(fallback, premium, other));
+
+            // Act
+            Map<String, Object> result = ruleExecutionService.executeRuleset("test_ruleset", Map.of("age", 25), true,
+                    List.of("tier", "missing"));
+
+            // Assert
+            assertThat(result).containsOnly(entry("tier", "standard"));
+        }
+
+        @Test
+        @DisplayName("Rules assigning a variable that a requested output reads are kept")
+        void testKeepsAssigningRules() {
+            // Arrange
+            Rule assigning = createRule("true", "#rate = 0.5", "assigned");
+            Rule discounted = createRule("true", "price * #rate", "discounted");
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenReturn(Arrays.asList(assigning, discounted));
+
+            // Act
+            Map<String, Object> result = ruleExecutionService.executeRuleset("test_ruleset", Map.of("price", 100),
+                    true, List.of("discounted"));
+
+            // Assert
+            assertThat(result).containsOnly(entry("discounted", 50.0));
+        }
+
+        @Test
+        @DisplayName("No requested outputs runs every rule")
+        void testNoProjection() {
+            // Arrange
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenReturn(Arrays.asList(
+                    createRule("true", "'a'", "a"), createRule("true", "'b'", "b")));
+
+            // Act
+            Map<String, Object> result = ruleExecutionService.executeRuleset("test_ruleset", Map.of(), true,
+                    List.of());
+
+            // Assert
+            assertThat(result).containsOnlyKeys("a", "b");
+        }
+    }
+
+    @Nested
+    @DisplayName("Asynchronous Execution Tests")
+    class AsyncExecutionTests {
+
+        @Test
+        @DisplayName("Executions run on a virtual thread and complete the future with their outputs")
+        void testExecuteAsync() throws Exception {
+            // Arrange
+            Rule rule = createRule("age >= 18", "STRING_UPPERCASE(name)", "name_upper");
+            AtomicBoolean virtual = new AtomicBoolean();
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenAnswer(invocation -> {
+                virtual.set(Thread.currentThread().isVirtual());
+                return Arrays.asList(rule);
+            });
+
+            // Act
+            CompletableFuture<Map<String, Object>> result = ruleExecutionService.executeRulesetAsync(
+                    "test_ruleset", Map.of("name", "alice", "age", 25));
+
+            // Assert
+            assertThat(result.get(10, TimeUnit.SECONDS)).containsOnly(entry("name_upper", "ALICE"));
+            assertThat(virtual).isTrue();
+        }
+
+        @Test
+        @DisplayName("Failures complete the future exceptionally")
+        void testExecuteAsyncFailure() {
+            // Arrange
+            when(ruleService.getRulesByRuleset("non_existent")).thenReturn(Arrays.asList());
+
+            // Act
+            CompletableFuture<Map<String, Object>> result = ruleExecutionService.executeRulesetAsync(
+                    "non_existent", Map.of());
+
+            // Assert
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Ruleset not found: non_existent");
+        }
+    }
+
+    @Nested
+    @DisplayName("Execution Trace Tests")
+    class ExecutionTraceTests {
+
+        @Test
+        @DisplayName("Requested traces record the input, every rule and the outputs")
+        void testRequestedTrace() {
+            // Arrange
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenReturn(Arrays.asList(
+                    createRule("age >= 18", "'adult'", "category"),
+                    createRule("age < 18", "'minor'", "category"),
+                    createRule("true", "address.city", "city")));
+            Map<String, Object> input = new HashMap<>();
+            input.put("age", 30);
+            input.put("address", null);
+            ruleExecutionService.executeRuleset("test_ruleset", input);
+
+            // Act
+            Map<String, Object> result;
+            ExecutionTraceService.Scope scope = engine.getTraceService().traceRequested();
+            try {
+                result = ruleExecutionService.executeRuleset("test_ruleset", input);
+            } finally {
+                scope.close();
+            }
+
+            // Assert
+            List<ExecutionTrace> traces = engine.getTraceService().getTraces("test_ruleset", 10);
+            assertThat(traces).hasSize(1);
+            ExecutionTrace trace = traces.get(0);
+            assertThat(trace.getReason()).isEqualTo("requested");
+            assertThat(trace.getInput()).isEqualTo(input);
+            assertThat(trace.getOutputs()).isEqualTo(result);
+            assertThat(trace.getError()).isNull();
+            assertThat(trace.getRules()).extracting("position", "conditionResult", "output").containsExactly(
+                    tuple(0, true, "adult"), tuple(1, false, null), tuple(2, true, null));
+            assertThat(trace.getRules().get(2).getNullPropertyAccess()).isNotNull();
+            assertThat(trace.getRules().get(0).getNullPropertyAccess()).isNull();
+        }
+
+        @Test
+        @DisplayName("Traces of failed executions record the failing rule and the error")
+        void testFailedTrace() {
+            // Arrange
+            when(ruleService.getRulesByRuleset("test_ruleset")).thenReturn(Arrays.asList(
+                    createRule("true", "name.length()", "length"),
+                    createRule("true", "1", "never")));
+            Map<String, Object> input = new HashMap<>();
+            input.put("name", null);
+
+            // Act
+            ExecutionTraceService.Scope scope = engine.getTraceService().traceRequested();
+            try {
+                assertThatThrownBy(() -> ruleExecutionService.executeRuleset("test_ruleset", input, false))
+                        .isInstanceOf(RuntimeException.class);
+            } finally {
+                scope.close();
+            }
+
+            // Assert
+            ExecutionTrace trace = engine.getTraceService().getTraces("test_ruleset", 10).get(0);
+            assertThat(trace.getOutputs()).isNull();
+            assertThat(trace.getError()).startsWith("Error executing rule");
+            assertThat(trace.getRules()).singleElement().satisfies(rule -> {
+                assertThat(rule.getConditionResult()).isTrue();
+                assertThat(rule.getError()).isEqualTo(trace.getError());
+            });
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.rules.service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rules.service.config.RuleEngineProperties;
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("RulesetCompiler Unit Tests")
+class RulesetCompilerTest {
+
+    private final RuleEngineProperties properties = new RuleEngineProperties();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final TestRuleEngine engine = new TestRuleEngine(properties, registry);
+    private final RulesetCompiler compiler = engine.getCompiler();
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        Rule rule = new Rule();
+        rule.setCondition(condition);
+        rule.setTransformation(transformation);
+        rule.setOutputVariable(outputVariable);
+        rule.setRuleset("test_ruleset");
+        return rule;
+    }
+
+    private Map<String, Object> createInput() {
+        Map<String, Object> input = new HashMap<>();
+        input.put("name", "alice");
+        input.put("age", 25);
+        input.put("user", Map.of("profile", Map.of("tier", "gold")));
+        input.put("nothing", null);
+        return input;
+    }
+
+    /**
+     * Run a snapshot the way the per-rule loop does, as a reference
+     */
+    private Map<String, Object> executePerRule(RulesetSnapshot snapshot, Map<String, Object> input,
+            boolean nullSafe) {
+        RuleService ruleService = mock(RuleService.class);
+        when(ruleService.getRuleset(snapshot.getName())).thenReturn(snapshot);
+        return engine.ruleExecutionService(ruleService).executeRuleset(snapshot.getName(), input, nullSafe);
+    }
+
+    @ParameterizedTest
+    @EnumSource(RuleEngineProperties.Engine.class)
+    @DisplayName("Generated class produces the same outputs as per-rule execution")
+    void testMatchesPerRuleExecution(RuleEngineProperties.Engine engine) {
+        properties.setEngine(engine);
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >= 18", "STRING_UPPERCASE(name)", "name_upper"),
+                createRule("age < 18", "'minor'", "category"),
+                createRule("age >= 18", "'adult'", "category"),
+                createRule("category == 'adult'", "name_upper + ' is ' + category", "summary"),
+                createRule("user.profile.tier == 'gold'", "age * 2", "doubled"),
+                createRule("nothing.foo > 0", "'never'", "skipped"),
+                createRule("true", "nothing.foo", "nullProperty"),
+                createRule("true", "T(java.lang.Math).max(age, 30)", "fallback")));
+
+        Map<String, Object> generated = compiler.getCompiledRuleset(snapshot).execute(createInput(), true);
+
+        assertThat(generated).isEqualTo(executePerRule(snapshot, createInput(), true));
+        assertThat(generated)
+                .containsEntry("name_upper", "ALICE")
+                .containsEntry("category", "adult")
+                .containsEntry("summary", "ALICE is adult")
+                .containsEntry("doubled", 50)
+                .containsEntry("nullProperty", null)
+                .containsEntry("fallback", 30)
+                .doesNotContainKey("skipped");
+    }
+
+    @Test
+    @DisplayName("Failures are reported with the failing rule")
+    void testFailureIdentifiesRule() {
+        Rule failing = createRule("true", "nothing.length()", "result");
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("true", "'ok'", "first"), failing));
+        CompiledRuleset compiled = compiler.getCompiledRuleset(snapshot);
+
+        assertThatThrownBy(() -> compiled.execute(createInput(), false))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Error executing rule " + failing.getId() + ":");
+        assertThatThrownBy(() -> compiled.execute(createInput(), true))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error executing rule");
+    }
+
+    @Test
+    @DisplayName("Invalid expressions fail when the ruleset is compiled")
+    void testInvalidExpressionFailsCompilation() {
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, List.of(
+                createRule("age >=", "'x'", "result")));
+
+        assertThatThrownBy(() -> compiler.getCompiledRuleset(snapshot))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Error executing rule");
+    }
+
+    @Test
+    @DisplayName("Class is reused until the ruleset changes")
+    void testRegeneratedOnChange() {
+        RulesetSnapshot first = RulesetSnapshot.of("test_ruleset", 1, List.of(createRule("true", "'v1'", "version")));
+        RulesetSnapshot second = RulesetSnapshot.of("test_ruleset", 2, List.of(createRule("true", "'v2'", "version")));
+
+        CompiledRuleset compiled = compiler.getCompiledRuleset(first);
+        assertThat(compiler.getCompiledRuleset(first)).isSameAs(compiled);
+
+        CompiledRuleset recompiled = compiler.getCompiledRuleset(second);
+        assertThat(recompiled).isNotSameAs(compiled);
+        assertThat(recompiled.getChunks().get(0).getClass()).isNotSameAs(compiled.getChunks().get(0).getClass());
+        assertThat(recompiled.execute(createInput())).containsEntry("version", "v2");
+        assertThat(compiled.getChunks().get(0).getClass().isHidden()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Large rulesets are split into several classes and match per-rule execution")
+    void testLargeRuleset() {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            rules.add(switch (i % 3) {
+                case 0 -> createRule("age >= " + i % 40, "age + " + i, "out_" + i);
+                // Reads the output of the rule before it, across class boundaries too
+                case 1 -> createRule("out_" + (i - 1) + " != null", "out_" + (i - 1) + " * 2", "out_" + i);
+                default -> createRule("nothing.foo > " + i, "'never'", "out_" + i);
+            });
+        }
+        RulesetSnapshot snapshot = RulesetSnapshot.of("test_ruleset", 1, rules);
+
+        CompiledRuleset compiled = compiler.getCompiledRuleset(snapshot);
+        Map<String, Object> generated = compiled.execute(createInput(), true);
+
+        assertThat(compiled.getChunks()).hasSize(10);
+        // Every third rule reads a null property and falls back to false
+        assertThat(registry.get("rules.null.safe.fallbacks").tags("ruleset", "test_ruleset", "part", "condition")
+                .counter().count()).isEqualTo(833);
+        assertThat(generated)
+                .containsEntry("out_2496", 25 + 2_496)
+                .containsEntry("out_2497", (25 + 2_496) * 2)
+                .doesNotContainKey("out_2498")
+                .isEqualTo(executePerRule(snapshot, createInput(), true));
+    }
+
+    @Test
+    @DisplayName("Execution mode is selected per ruleset")
+    void testExecutionModeSelectedPerRuleset() {
+        RuleEngineProperties.Ruleset generated = new RuleEngineProperties.Ruleset();
+        generated.setExecutionMode(RuleEngineProperties.ExecutionMode.GENERATED);
+        properties.getRulesets().put("generated", generated);
+
+        assertThat(compiler.isEnabled("generated")).isTrue();
+        assertThat(compiler.isEnabled("other")).isFalse();
+    }
+}
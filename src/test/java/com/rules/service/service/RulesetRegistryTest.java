@@ -0,0 +1,65 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rules.service.model.Rule;
+import com.rules.service.model.RulesetSnapshot;
+
+@DisplayName("RulesetRegistry Unit Tests")
+class RulesetRegistryTest {
+
+    private final RulesetRegistry registry = new RulesetRegistry();
+
+    private Rule createRule(String condition, String transformation, String outputVariable) {
+        return new Rule(condition, transformation, outputVariable, "test_ruleset");
+    }
+
+    @Test
+    @DisplayName("Published snapshots are immutable copies of the rules")
+    void testPublishCreatesImmutableSnapshot() {
+        Rule rule = createRule("age >= 18", "STRING_UPPERCASE(name)", "name_upper");
+
+        RulesetSnapshot snapshot = registry.publish("test_ruleset", List.of(rule));
+        rule.setCondition("age >= 21");
+
+        assertThat(registry.get("test_ruleset")).isSameAs(snapshot);
+        assertThat(snapshot.getRules().get(0).getCondition()).isEqualTo("age >= 18");
+        assertThatThrownBy(() -> snapshot.getRules().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Every publish gets a new version")
+    void testVersionsIncrease() {
+        RulesetSnapshot first = registry.publish("test_ruleset", List.of(createRule("true", "1", "a")));
+        RulesetSnapshot second = registry.publish("test_ruleset", List.of(createRule("true", "2", "a")));
+
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(registry.get("test_ruleset")).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Publishing an empty ruleset removes it")
+    void testPublishEmptyRemoves() {
+        registry.publish("test_ruleset", List.of(createRule("true", "1", "a")));
+
+        assertThat(registry.publish("test_ruleset", List.of())).isNull();
+        assertThat(registry.get("test_ruleset")).isNull();
+    }
+
+    @Test
+    @DisplayName("Reload replaces the whole registry")
+    void testReload() {
+        registry.publish("stale", List.of(createRule("true", "1", "a")));
+
+        registry.reload(Map.of("test_ruleset", List.of(createRule("true", "1", "a"))));
+
+        assertThat(registry.get("stale")).isNull();
+        assertThat(registry.get("test_ruleset").getRuleCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.rules.service.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+@DisplayName("SpelRuleExpression Unit Tests")
+class SpelRuleExpressionTest {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.OFF, getClass().getClassLoader()));
+
+    private SpelRuleExpression createExpression(String text, SpelCompilerMode mode) {
+        return new SpelRuleExpression((SpelExpression) parser.parseExpression(text), mode,
+                getClass().getClassLoader());
+    }
+
+    public static class Applicant {
+        private final int age;
+
+        public Applicant(int age) {
+            this.age = age;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    public static class Customer {
+        public int getAge() {
+            return 40;
+        }
+    }
+
+    @Test
+    @DisplayName("OFF mode never compiles")
+    void testOffModeStaysInterpreted() {
+        SpelRuleExpression expression = createExpression("age >= 18", SpelCompilerMode.OFF);
+        StandardEvaluationContext context = new StandardEvaluationContext(new Applicant(25));
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(expression.getValue(context, Boolean.class)).isTrue();
+        }
+        assertThat(expression.isCompiled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("IMMEDIATE mode compiles after the first evaluation")
+    void testImmediateModeCompiles() {
+        SpelRuleExpression expression = createExpression("age >= 18", SpelCompilerMode.IMMEDIATE);
+        StandardEvaluationContext context = new StandardEvaluationContext(new Applicant(25));
+
+        assertThat(expression.getValue(context, Boolean.class)).isTrue();
+        assertThat(expression.isCompiled()).isTrue();
+        assertThat(expression.getValue(new StandardEvaluationContext(new Applicant(12)), Boolean.class)).isFalse();
+    }
+
+    @Test
+    @DisplayName("MIXED mode compiles once the expression is hot")
+    void testMixedModeCompilesAfterThreshold() {
+        SpelRuleExpression expression = createExpression("age * 2", SpelCompilerMode.MIXED);
+        StandardEvaluationContext context = new StandardEvaluationContext(new Applicant(21));
+
+        for (int i = 1; i < SpelRuleExpression.MIXED_COMPILE_THRESHOLD; i++) {
+            expression.getValue(context);
+        }
+        assertThat(expression.isCompiled()).isFalse();
+
+        assertThat(expression.getValue(context)).isEqualTo(42);
+        assertThat(expression.isCompiled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Failing compiled code falls back to the interpreter")
+    void testFallbackWhenCompiledCodeFails() {
+        SpelRuleExpression expression = createExpression("age >= 18", SpelCompilerMode.IMMEDIATE);
+        expression.getValue(new StandardEvaluationContext(new Applicant(25)), Boolean.class);
+        assertThat(expression.isCompiled()).isTrue();
+
+        // The compiled code casts the root to Applicant, a different root type must not break evaluation
+        assertThat(expression.getValue(new StandardEvaluationContext(new Customer()), Boolean.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Expressions that cannot be compiled keep working interpreted")
+    void testUncompilableExpressionStaysInterpreted() {
+        SpelRuleExpression expression = createExpression("{1, 2, 3}.?[#this > 1].size()", SpelCompilerMode.IMMEDIATE);
+        StandardEvaluationContext context = new StandardEvaluationContext();
+
+        assertThat(expression.getValue(context)).isEqualTo(2);
+        assertThat(expression.getValue(context)).isEqualTo(2);
+        assertThat(expression.isCompiled()).isFalse();
+    }
+
+    private StandardEvaluationContext createRuleContext(Map<String, Object> inputData) {
+        StandardEvaluationContext context = new StandardEvaluationContext(new PropertyAccessWrapper(inputData));
+        context.addPropertyAccessor(new PropertyAccessWrapperAccessor());
+        context.addPropertyAccessor(new NestedMapPropertyAccessor());
+        return context;
+    }
+
+    @Test
+    @DisplayName("Nested map paths compile through the custom property accessors")
+    void testNestedMapPathCompiles() {
+        SpelRuleExpression expression = createExpression("user.profile.age", SpelCompilerMode.IMMEDIATE);
+        Map<String, Object> inputData = Map.of("user", Map.of("profile", Map.of("age", 30)));
+
+        assertThat(expression.getValue(createRuleContext(inputData))).isEqualTo(30);
+        assertThat(expression.isCompiled()).isTrue();
+
+        Map<String, Object> otherInput = Map.of("user", Map.of("profile", Map.of("age", 45)));
+        assertThat(expression.getValue(createRuleContext(otherInput))).isEqualTo(45);
+        assertThat(expression.isCompiled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Function calls on input fields compile through the wrapper accessor")
+    void testWrapperFunctionCallCompiles() {
+        SpelRuleExpression expression = createExpression("STRING_UPPERCASE(user.name)", SpelCompilerMode.IMMEDIATE);
+
+        assertThat(expression.getValue(createRuleContext(Map.of("user", Map.of("name", "alice")))))
+                .isEqualTo("ALICE");
+        assertThat(expression.isCompiled()).isTrue();
+        assertThat(expression.getValue(createRuleContext(Map.of("user", Map.of("name", "bob")))))
+                .isEqualTo("BOB");
+    }
+
+    @Test
+    @DisplayName("Compiled paths fall back to the interpreter when a nested object is missing")
+    void testCompiledPathWithMissingObject() {
+        SpelRuleExpression expression = createExpression("user?.profile?.age", SpelCompilerMode.IMMEDIATE);
+        expression.getValue(createRuleContext(Map.of("user", Map.of("profile", Map.of("age", 30)))));
+        assertThat(expression.isCompiled()).isTrue();
+
+        Map<String, Object> inputData = new HashMap<>();
+        inputData.put("user", Map.of("name", "alice"));
+        assertThat(expression.getValue(createRuleContext(inputData))).isNull();
+    }
+}
@@ -0,0 +1,78 @@
+package com.rules.service.service;
+
+import com.rules.service.config.RuleEngineProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The services behind a {@link RuleExecutionService}, wired to each other
+ * the way the application context wires them, for tests that run rulesets
+ * through real collaborators
+ */
+public final class TestRuleEngine {
+
+    private final RuleEngineProperties properties;
+    private final ExpressionCacheService expressionCache;
+    private final SpelContextConfigurationService contextService = new SpelContextConfigurationService();
+    private final RulesetCompiler compiler;
+    private final ExecutionTraceService traceService;
+    private final ExecutionMetricsService metricsService;
+
+    /**
+     * Services that record their metrics in memory
+     */
+    public TestRuleEngine(RuleEngineProperties properties) {
+        this(properties, new SimpleMeterRegistry());
+    }
+
+    public TestRuleEngine(RuleEngineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.expressionCache = new ExpressionCacheService(properties);
+        this.metricsService = new ExecutionMetricsService(meterRegistry, properties, expressionCache);
+        this.compiler = new RulesetCompiler(properties, expressionCache, contextService, metricsService);
+        this.traceService = new ExecutionTraceService(properties);
+    }
+
+    /**
+     * An execution service that reads its rulesets from the given service
+     */
+    public RuleExecutionService ruleExecutionService(RuleService ruleService) {
+        return ruleExecutionService(ruleService, new ParallelRulesetExecutor(properties));
+    }
+
+    /**
+     * An execution service that runs its parallel stages on the given
+     * executor
+     */
+    public RuleExecutionService ruleExecutionService(RuleService ruleService,
+            ParallelRulesetExecutor parallelExecutor) {
+        return new RuleExecutionService(ruleService, contextService, expressionCache, compiler, parallelExecutor,
+                new ConditionIndexService(properties), new ConditionNetworkService(properties, expressionCache),
+                traceService, metricsService);
+    }
+
+    /**
+     * A rule service that only reads from the given registry, which needs no
+     * repository
+     */
+    public RuleService ruleService(RulesetRegistry registry) {
+        return new RuleService(null, null, expressionCache, registry);
+    }
+
+    public ExpressionCacheService getExpressionCache() {
+        return expressionCache;
+    }
+
+    public SpelContextConfigurationService getContextService() {
+        return contextService;
+    }
+
+    public RulesetCompiler getCompiler() {
+        return compiler;
+    }
+
+    public ExecutionTraceService getTraceService() {
+        return traceService;
+    }
+}
@@ -0,0 +1,55 @@
+package com.rules.service.service;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rules.service.model.OutputSlotLayout;
+import com.rules.service.model.RuleDefinition;
+
+@DisplayName("VariableScope Unit Tests")
+class VariableScopeTest {
+
+    private final OutputSlotLayout layout = OutputSlotLayout.of(List.of(
+            new RuleDefinition(null, "true", "1", "first", "ruleset"),
+            new RuleDefinition(null, "true", "2", "second", "ruleset"),
+            new RuleDefinition(null, "true", "3", "first", "ruleset")));
+
+    @Test
+    @DisplayName("Each output variable gets one slot, shared by rules writing it")
+    void testLayoutAssignsSlots() {
+        assertThat(layout.getSlotCount()).isEqualTo(2);
+        assertThat(layout.getRuleSlot(0)).isEqualTo(layout.getRuleSlot(2));
+        assertThat(layout.getName(layout.getRuleSlot(1))).isEqualTo("second");
+        assertThat(layout.slotOf("unknown")).isEqualTo(OutputSlotLayout.NO_SLOT);
+    }
+
+    @Test
+    @DisplayName("Slot writes shadow input and are materialized only when written")
+    void testSlotWrites() {
+        VariableScope scope = new VariableScope(Map.of("first", "input", "age", 20), layout);
+
+        assertThat(scope.lookup("first")).isEqualTo("input");
+        scope.write(layout.getRuleSlot(0), null);
+
+        assertThat(scope.lookup("first")).isNull();
+        assertThat(scope.isDefined("second")).isFalse();
+        assertThat(scope.toOutputMap()).containsOnlyKeys("first");
+    }
+
+    @Test
+    @DisplayName("Variables outside the layout are kept in the overflow layer")
+    void testOverflowVariables() {
+        VariableScope scope = new VariableScope(Map.of(), layout);
+
+        scope.define("second", Map.of("name", "john"));
+        scope.define("extra", 42);
+
+        assertThat(scope.resolve(PropertyPath.of("second.name"))).isEqualTo("john");
+        assertThat(scope.lookup("extra")).isEqualTo(42);
+        assertThat(scope.toOutputMap()).containsOnlyKeys("second", "extra");
+    }
+}